@@ -3,7 +3,9 @@ package com.fullstack.schoolmanagement;
 import com.fullstack.schoolmanagement.entity.*;
 import com.fullstack.schoolmanagement.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -13,6 +15,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Component
+@Profile("!synthetic")
 public class DataLoader implements CommandLineRunner {
 
     @Autowired
@@ -34,8 +37,16 @@ public class DataLoader implements CommandLineRunner {
     @Autowired
     private PeriodRepository periodRepository;
 
+    // Checked at runtime rather than with a condition so AOT-processed builds can still toggle it
+    @Value("${app.seed.enabled:true}")
+    private boolean seedEnabled;
+
     @Override
     public void run(String... args) throws Exception {
+        if (!seedEnabled) {
+            return;
+        }
+
         // Only seed if database is empty
         if (userRepository.count() > 0) {
             System.out.println("Database already contains data. Skipping seed.");
@@ -2,12 +2,16 @@ package com.fullstack.schoolmanagement;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class SchoolsystemApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(SchoolsystemApplication.class, args);
+		SpringApplication application = new SpringApplication(SchoolsystemApplication.class);
+		// Records startup steps so /actuator/startup can show which beans dominate boot time
+		application.setApplicationStartup(new BufferingApplicationStartup(4096));
+		application.run(args);
 	}
 
 }
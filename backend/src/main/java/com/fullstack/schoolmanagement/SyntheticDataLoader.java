@@ -0,0 +1,395 @@
+package com.fullstack.schoolmanagement;
+
+import com.fullstack.schoolmanagement.service.AttendancePartitionService;
+import com.fullstack.schoolmanagement.service.AttendanceStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeds a large, deterministic dataset for performance tests and local reproductions.
+ * Activated with the "synthetic" profile; the size is controlled by app.synthetic.scale
+ * (N classes, M students per class, Y years of daily attendance, K exams per course).
+ * Rows are written with batched JDBC inserts instead of repository saves, so with
+ * the driver's reWriteBatchedInserts property set, millions of attendance rows load in minutes.
+ */
+@Component
+@Profile("synthetic")
+public class SyntheticDataLoader implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataLoader.class);
+
+    private static final String[] FIRST_NAMES = {"Amina", "Hodan", "Ayaan", "Fadumo", "Sahra", "Ilhan", "Nasra", "Ubah",
+            "Ahmed", "Mohamed", "Abdi", "Omar", "Yusuf", "Hassan", "Ali", "Ismail", "Emma", "Liam", "Olivia", "Noah",
+            "Ava", "Ethan", "Sophia", "Mason", "Isabella", "James", "Mia", "Lucas", "Zara", "Adam"};
+    private static final String[] LAST_NAMES = {"Abdi", "Ahmed", "Ali", "Farah", "Hassan", "Hussein", "Ismail", "Jama",
+            "Mohamud", "Nur", "Omar", "Osman", "Warsame", "Yusuf", "Smith", "Johnson", "Brown", "Davis", "Wilson",
+            "Garcia", "Martinez", "Thomas", "White", "Harris"};
+    private static final String[][] COURSES = {
+            {"MATH101", "Mathematics"}, {"ENG101", "English Language"}, {"SCI101", "Science"},
+            {"HIST101", "History"}, {"GEO101", "Geography"}, {"ART101", "Art & Craft"},
+            {"PE101", "Physical Education"}, {"CS101", "Computer Science"}};
+    private static final String[] DAYS = {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY"};
+    private static final String[] EXAM_TYPES = {"Quiz", "Midterm", "Final", "Assignment", "Project"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AttendancePartitionService attendancePartitionService;
+
+    @Autowired
+    private AttendanceStatsService attendanceStatsService;
+
+    @Value("${app.synthetic.scale:1}")
+    private int scale;
+
+    @Value("${app.synthetic.classes-per-scale:20}")
+    private int classesPerScale;
+
+    @Value("${app.synthetic.students-per-class:35}")
+    private int studentsPerClass;
+
+    @Value("${app.synthetic.years:1}")
+    private int years;
+
+    @Value("${app.synthetic.exams-per-course:4}")
+    private int examsPerCourse;
+
+    @Value("${app.synthetic.periods-per-day:5}")
+    private int periodsPerDay;
+
+    @Value("${app.synthetic.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${app.synthetic.seed:42}")
+    private long seed;
+
+    private Random random;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Long users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        if (users != null && users > 0) {
+            logger.info("Database already contains data. Skipping synthetic seed.");
+            return;
+        }
+
+        random = new Random(seed);
+        int classCount = Math.max(1, scale * classesPerScale);
+        long started = System.currentTimeMillis();
+        logger.info("Generating synthetic dataset: {} classes x {} students, {} year(s), {} exams per course",
+                classCount, studentsPerClass, years, examsPerCourse);
+
+        // One BCrypt hash shared by every generated account (password "1234"); hashing per row would dominate the run.
+        String passwordHash = passwordEncoder.encode("1234");
+        insertAdmin(passwordHash);
+
+        List<Long> sessionIds = insertSessions();
+        List<Long> courseIds = insertCourses();
+        List<Long> classIds = insertClasses(classCount);
+        List<Long> teacherIds = insertTeachers(classCount, passwordHash);
+        assignCoursesAndTeachers(classIds, courseIds, teacherIds);
+
+        Map<Long, List<long[]>> periodsByClass = insertPeriods(classIds, courseIds);
+        Map<Long, List<Long>> studentsByClass = insertStudents(classIds, sessionIds.get(sessionIds.size() - 1), passwordHash);
+        Map<Long, Double> presenceRate = new HashMap<>();
+        Map<Long, Double> ability = new HashMap<>();
+        for (List<Long> students : studentsByClass.values()) {
+            for (Long studentId : students) {
+                // Most students attend ~95% of periods, a long tail attends far less.
+                presenceRate.put(studentId, clamp(0.96 - Math.abs(random.nextGaussian()) * 0.06, 0.5, 1.0));
+                ability.put(studentId, clamp(72 + random.nextGaussian() * 12, 20, 98));
+            }
+        }
+
+        long attendanceRows = insertAttendance(classIds, periodsByClass, studentsByClass, teacherIds, presenceRate);
+        // Inserted around the outbox, so the counters are recounted once
+        attendanceStatsService.rebuildAll();
+        long examRows = insertExamResults(classIds, courseIds, studentsByClass, ability);
+
+        logger.info("Synthetic dataset generated in {} ms: {} attendance rows, {} exam results",
+                System.currentTimeMillis() - started, attendanceRows, examRows);
+    }
+
+    private void insertAdmin(String passwordHash) {
+        jdbcTemplate.update("INSERT INTO users (user_id, password, role, is_active, email) VALUES (?, ?, ?, ?, ?)",
+                "ADM-1", passwordHash, "ROLE_ADMIN", true, "admin@school.com");
+    }
+
+    private List<Long> insertSessions() {
+        int currentYear = LocalDate.now().getMonthValue() >= 9 ? LocalDate.now().getYear() : LocalDate.now().getYear() - 1;
+        List<Object[]> rows = new ArrayList<>();
+        for (int y = years - 1; y >= 0; y--) {
+            int start = currentYear - y;
+            rows.add(new Object[]{start + "-" + (start + 1), Date.valueOf(LocalDate.of(start, 9, 1)),
+                    Date.valueOf(LocalDate.of(start + 1, 6, 30)), y == 0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO academic_sessions (name, start_date, end_date, current_session) VALUES (?, ?, ?, ?)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM academic_sessions ORDER BY start_date", Long.class);
+    }
+
+    private List<Long> insertCourses() {
+        List<Object[]> rows = new ArrayList<>();
+        for (String[] course : COURSES) {
+            rows.add(new Object[]{course[0], course[1], course[1] + " curriculum"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO courses (course_code, course_name, description) VALUES (?, ?, ?)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM courses ORDER BY id", Long.class);
+    }
+
+    private List<Long> insertClasses(int classCount) {
+        List<Object[]> rows = new ArrayList<>();
+        int sections = Math.max(1, (classCount + 11) / 12);
+        for (int i = 0; i < classCount; i++) {
+            int grade = i / sections + 1;
+            char section = (char) ('A' + i % sections % 26);
+            rows.add(new Object[]{"Grade " + grade + "-" + section + (i % sections >= 26 ? String.valueOf(i % sections / 26) : "")});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO classes (name) VALUES (?)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM classes ORDER BY id", Long.class);
+    }
+
+    private List<Long> insertTeachers(int classCount, String passwordHash) {
+        int teacherCount = Math.max(COURSES.length, classCount / 2);
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> teachers = new ArrayList<>();
+        for (int i = 1; i <= teacherCount; i++) {
+            String userId = "TCH-" + i;
+            String email = "teacher" + i + "@school.com";
+            users.add(new Object[]{userId, passwordHash, "ROLE_TEACHER", true, email});
+            int experience = 1 + random.nextInt(25);
+            teachers.add(new Object[]{userId, pick(FIRST_NAMES), pick(LAST_NAMES), email, String.format("68%07d", i),
+                    COURSES[i % COURSES.length][1], i + " Staff Road", "B.Ed.", experience,
+                    Date.valueOf(LocalDate.now().minusYears(experience)), i % 2 == 0 ? "Female" : "Male"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (user_id, password, role, is_active, email) VALUES (?, ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO teachers (user_id, first_name, last_name, email, phone, specialization, address, " +
+                "qualification, experience, hire_date, gender) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", teachers);
+        return jdbcTemplate.queryForList("SELECT id FROM teachers ORDER BY id", Long.class);
+    }
+
+    private void assignCoursesAndTeachers(List<Long> classIds, List<Long> courseIds, List<Long> teacherIds) {
+        List<Object[]> courseTeachers = new ArrayList<>();
+        for (int i = 0; i < courseIds.size(); i++) {
+            courseTeachers.add(new Object[]{teacherIds.get(i % teacherIds.size()), courseIds.get(i)});
+        }
+        jdbcTemplate.batchUpdate("UPDATE courses SET teacher_id = ? WHERE id = ?", courseTeachers);
+
+        List<Object[]> classCourses = new ArrayList<>();
+        List<Object[]> classTeachers = new ArrayList<>();
+        for (int i = 0; i < classIds.size(); i++) {
+            Long classId = classIds.get(i);
+            for (Long courseId : courseIds) {
+                classCourses.add(new Object[]{classId, courseId});
+            }
+            for (int t = 0; t < 3; t++) {
+                classTeachers.add(new Object[]{classId, teacherIds.get((i + t * 7) % teacherIds.size())});
+            }
+        }
+        classTeachers = distinct(classTeachers);
+        jdbcTemplate.batchUpdate("INSERT INTO class_courses (class_id, course_id) VALUES (?, ?)", classCourses);
+        jdbcTemplate.batchUpdate("INSERT INTO class_teachers (class_id, teacher_id) VALUES (?, ?)", classTeachers);
+        List<Object[]> teacherClasses = new ArrayList<>();
+        for (Object[] row : classTeachers) {
+            teacherClasses.add(new Object[]{row[1], row[0]});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO teacher_classes (teacher_id, class_id) VALUES (?, ?)", teacherClasses);
+    }
+
+    /**
+     * Creates the weekly timetable and returns, per class, {periodId, courseId, dayIndex} triples.
+     */
+    private Map<Long, List<long[]>> insertPeriods(List<Long> classIds, List<Long> courseIds) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int c = 0; c < classIds.size(); c++) {
+            for (int d = 0; d < DAYS.length; d++) {
+                LocalTime start = LocalTime.of(8, 0);
+                for (int p = 1; p <= periodsPerDay; p++) {
+                    Long courseId = courseIds.get((c + d + p) % courseIds.size());
+                    rows.add(new Object[]{classIds.get(c), courseId, Time.valueOf(start), Time.valueOf(start.plusMinutes(50)), p, DAYS[d]});
+                    start = start.plusHours(1);
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO periods (class_id, course_id, start_time, end_time, period_number, day_of_week) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+        Map<Long, List<long[]>> periodsByClass = new HashMap<>();
+        jdbcTemplate.query("SELECT id, class_id, course_id, day_of_week FROM periods", rs -> {
+            int dayIndex = DayOfWeek.valueOf(rs.getString("day_of_week")).ordinal();
+            periodsByClass.computeIfAbsent(rs.getLong("class_id"), k -> new ArrayList<>())
+                    .add(new long[]{rs.getLong("id"), rs.getLong("course_id"), dayIndex});
+        });
+        return periodsByClass;
+    }
+
+    private Map<Long, List<Long>> insertStudents(List<Long> classIds, Long sessionId, String passwordHash) {
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> students = new ArrayList<>();
+        int n = 0;
+        for (Long classId : classIds) {
+            for (int s = 0; s < studentsPerClass; s++) {
+                n++;
+                String userId = "STD-" + n;
+                users.add(new Object[]{userId, passwordHash, "ROLE_STUDENT", true, "student" + n + "@student.com"});
+                LocalDate dob = LocalDate.now().minusYears(6 + random.nextInt(12)).minusDays(random.nextInt(365));
+                students.add(new Object[]{userId, pick(FIRST_NAMES), pick(LAST_NAMES), Date.valueOf(dob),
+                        random.nextBoolean() ? "Female" : "Male", String.format("61%07d", n),
+                        Date.valueOf(dob.plusYears(6)), random.nextInt(100) < 97, n + " Student Lane", classId, sessionId});
+                if (users.size() >= batchSize) {
+                    flushStudents(users, students);
+                }
+            }
+        }
+        flushStudents(users, students);
+
+        Map<Long, List<Long>> studentsByClass = new HashMap<>();
+        jdbcTemplate.query("SELECT id, class_id FROM students ORDER BY id", rs -> {
+            studentsByClass.computeIfAbsent(rs.getLong("class_id"), k -> new ArrayList<>()).add(rs.getLong("id"));
+        });
+        return studentsByClass;
+    }
+
+    private void flushStudents(List<Object[]> users, List<Object[]> students) {
+        jdbcTemplate.batchUpdate("INSERT INTO users (user_id, password, role, is_active, email) VALUES (?, ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO students (user_id, first_name, last_name, date_of_birth, gender, phone, " +
+                "admission_date, is_active, address, class_id, session_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", students);
+        users.clear();
+        students.clear();
+    }
+
+    private long insertAttendance(List<Long> classIds, Map<Long, List<long[]>> periodsByClass,
+                                  Map<Long, List<Long>> studentsByClass, List<Long> teacherIds,
+                                  Map<Long, Double> presenceRate) {
+        String sql = "INSERT INTO attendance (student_id, class_id, course_id, period_id, attendance_date, present, marked_by, remarks) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        long total = 0;
+        LocalDate end = LocalDate.now();
+        LocalDate start = end.minusYears(years);
+        attendancePartitionService.ensurePartitions(start, end);
+
+        for (LocalDate day = start; day.isBefore(end); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY
+                    || day.getMonthValue() == 7 || day.getMonthValue() == 8) {
+                continue;
+            }
+            Date sqlDate = Date.valueOf(day);
+            int dayIndex = day.getDayOfWeek().ordinal();
+            for (int c = 0; c < classIds.size(); c++) {
+                Long classId = classIds.get(c);
+                Long markedBy = teacherIds.get(c % teacherIds.size());
+                for (long[] period : periodsByClass.getOrDefault(classId, List.of())) {
+                    if (period[2] != dayIndex) {
+                        continue;
+                    }
+                    for (Long studentId : studentsByClass.getOrDefault(classId, List.of())) {
+                        boolean present = random.nextDouble() < presenceRate.get(studentId);
+                        batch.add(new Object[]{studentId, classId, period[1], period[0], sqlDate, present, markedBy,
+                                present ? null : "Absent"});
+                        if (batch.size() >= batchSize) {
+                            total += flush(sql, batch);
+                        }
+                    }
+                }
+            }
+            if (day.getDayOfMonth() == 1) {
+                logger.info("Attendance generated up to {} ({} rows)", day, total + batch.size());
+            }
+        }
+        return total + flush(sql, batch);
+    }
+
+    private long insertExamResults(List<Long> classIds, List<Long> courseIds, Map<Long, List<Long>> studentsByClass,
+                                   Map<Long, Double> ability) {
+        String sql = "INSERT INTO exam_results (exam_type, exam_date, student_id, class_id, course_id, marks_obtained, grade, remarks) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        long total = 0;
+        LocalDate firstTerm = LocalDate.now().minusYears(years);
+
+        for (int y = 0; y < years; y++) {
+            for (int k = 0; k < examsPerCourse; k++) {
+                String examType = EXAM_TYPES[k % EXAM_TYPES.length] + (k >= EXAM_TYPES.length ? " " + (k / EXAM_TYPES.length + 1) : "");
+                for (int co = 0; co < courseIds.size(); co++) {
+                    // Spread exams of one course across the school year, avoiding weekends.
+                    LocalDate examDate = firstTerm.plusYears(y).plusDays(30L + (long) k * 250 / Math.max(1, examsPerCourse) + co);
+                    while (examDate.getDayOfWeek().getValue() > 5) {
+                        examDate = examDate.plusDays(1);
+                    }
+                    double difficulty = random.nextGaussian() * 5;
+                    for (Long classId : classIds) {
+                        for (Long studentId : studentsByClass.getOrDefault(classId, List.of())) {
+                            double marks = clamp(ability.get(studentId) - difficulty + random.nextGaussian() * 8, 0, 100);
+                            batch.add(new Object[]{examType, Date.valueOf(examDate), studentId, classId, courseIds.get(co),
+                                    BigDecimal.valueOf(marks).setScale(2, RoundingMode.HALF_UP), grade(marks), null});
+                            if (batch.size() >= batchSize) {
+                                total += flush(sql, batch);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return total + flush(sql, batch);
+    }
+
+    private int flush(String sql, List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int size = batch.size();
+        jdbcTemplate.batchUpdate(sql, batch);
+        batch.clear();
+        return size;
+    }
+
+    private String grade(double marks) {
+        if (marks >= 90) return "A+";
+        if (marks >= 80) return "A";
+        if (marks >= 70) return "B";
+        if (marks >= 60) return "C";
+        if (marks >= 50) return "D";
+        return "F";
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static List<Object[]> distinct(List<Object[]> rows) {
+        Map<String, Object[]> unique = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            unique.putIfAbsent(row[0] + ":" + row[1], row);
+        }
+        return new ArrayList<>(unique.values());
+    }
+}
@@ -0,0 +1,26 @@
+package com.fullstack.schoolmanagement;
+
+/**
+ * A write lost against a concurrent one: the row already exists or was changed since the client
+ * read it. Carries the row's current version so the client can reload and retry; answered with 409
+ * by GlobalExceptionHandler.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    private final Long id;
+    private final Long currentVersion;
+
+    public VersionConflictException(String message, Long id, Long currentVersion) {
+        super(message);
+        this.id = id;
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,27 @@
+package com.fullstack.schoolmanagement.archive;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/** One attendance row as stored in an archive segment. */
+public record ArchivedAttendance(long id, long studentId, long classId, long courseId, long periodId,
+                                 LocalDate attendanceDate, boolean present, Long markedBy, String remarks) {
+
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(id);
+        out.writeLong(classId);
+        out.writeLong(courseId);
+        out.writeLong(periodId);
+        out.writeInt((int) attendanceDate.toEpochDay());
+        out.writeBoolean(present);
+        RowCodec.writeId(out, markedBy);
+        RowCodec.writeString(out, remarks);
+    }
+
+    public static ArchivedAttendance read(long studentId, DataInput in) throws IOException {
+        return new ArchivedAttendance(in.readLong(), studentId, in.readLong(), in.readLong(), in.readLong(),
+                LocalDate.ofEpochDay(in.readInt()), in.readBoolean(), RowCodec.readId(in), RowCodec.readString(in));
+    }
+}
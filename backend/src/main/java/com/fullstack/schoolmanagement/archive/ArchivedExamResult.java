@@ -0,0 +1,29 @@
+package com.fullstack.schoolmanagement.archive;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** One exam result as stored in an archive segment; marks are kept in hundredths. */
+public record ArchivedExamResult(long id, long studentId, long classId, long courseId, String examType,
+                                 LocalDate examDate, BigDecimal marksObtained, String grade, String remarks) {
+
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(id);
+        out.writeLong(classId);
+        out.writeLong(courseId);
+        out.writeUTF(examType);
+        out.writeInt((int) examDate.toEpochDay());
+        out.writeInt(marksObtained.movePointRight(2).intValueExact());
+        RowCodec.writeString(out, grade);
+        RowCodec.writeString(out, remarks);
+    }
+
+    public static ArchivedExamResult read(long studentId, DataInput in) throws IOException {
+        return new ArchivedExamResult(in.readLong(), studentId, in.readLong(), in.readLong(), in.readUTF(),
+                LocalDate.ofEpochDay(in.readInt()), BigDecimal.valueOf(in.readInt(), 2),
+                RowCodec.readString(in), RowCodec.readString(in));
+    }
+}
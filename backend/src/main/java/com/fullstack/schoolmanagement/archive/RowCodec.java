@@ -0,0 +1,32 @@
+package com.fullstack.schoolmanagement.archive;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Nullable field encodings shared by the archived row formats
+final class RowCodec {
+
+    private RowCodec() {
+    }
+
+    static void writeId(DataOutput out, Long id) throws IOException {
+        out.writeLong(id != null ? id : 0L); // ids start at 1
+    }
+
+    static Long readId(DataInput in) throws IOException {
+        long id = in.readLong();
+        return id != 0L ? id : null;
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
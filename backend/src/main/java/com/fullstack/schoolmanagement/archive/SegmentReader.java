@@ -0,0 +1,122 @@
+package com.fullstack.schoolmanagement.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.InflaterInputStream;
+
+import static com.fullstack.schoolmanagement.archive.SegmentWriter.BLOCK_HEADER_LENGTH;
+import static com.fullstack.schoolmanagement.archive.SegmentWriter.HEADER_LENGTH;
+import static com.fullstack.schoolmanagement.archive.SegmentWriter.MAGIC;
+import static com.fullstack.schoolmanagement.archive.SegmentWriter.TRAILER_LENGTH;
+import static com.fullstack.schoolmanagement.archive.SegmentWriter.VERSION;
+
+/**
+ * Reads segment files written by {@link SegmentWriter}. Lookups read the footer, then seek to
+ * and decompress only the blocks whose student id range contains the requested student.
+ */
+public final class SegmentReader {
+
+    /** Reads the fields of one row that follow its student id. */
+    @FunctionalInterface
+    public interface RowReader<T> {
+        T read(long studentId, DataInput in) throws IOException;
+    }
+
+    private SegmentReader() {
+    }
+
+    public static <T> List<T> readStudent(Path path, long studentId, RowReader<T> rowReader) throws IOException {
+        List<T> rows = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer footer = footer(channel, path);
+            int blockCount = footer.getInt();
+            for (int i = 0; i < blockCount; i++) {
+                long offset = footer.getLong();
+                long firstStudentId = footer.getLong();
+                long lastStudentId = footer.getLong();
+                int blockRows = footer.getInt();
+                if (studentId < firstStudentId || studentId > lastStudentId) {
+                    continue;
+                }
+                try (DataInputStream in = new DataInputStream(block(channel, path, offset))) {
+                    for (int r = 0; r < blockRows; r++) {
+                        long rowStudentId = in.readLong();
+                        T row = rowReader.read(rowStudentId, in);
+                        if (rowStudentId == studentId) {
+                            rows.add(row);
+                        }
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    /** Checks the file against the checksum recorded when it was written. */
+    public static void verify(Path path, String expectedSha256) throws IOException {
+        MessageDigest digest = SegmentWriter.sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        String actual = HexFormat.of().formatHex(digest.digest());
+        if (!actual.equals(expectedSha256)) {
+            throw new IOException("Checksum mismatch for archive segment " + path);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            footer(channel, path);
+        }
+    }
+
+    private static ByteBuffer footer(FileChannel channel, Path path) throws IOException {
+        ByteBuffer header = readFully(channel, 0, HEADER_LENGTH);
+        if (header.getInt() != MAGIC || header.getShort() != VERSION) {
+            throw new IOException("Not an archive segment: " + path);
+        }
+        long size = channel.size();
+        ByteBuffer trailer = readFully(channel, size - TRAILER_LENGTH, TRAILER_LENGTH);
+        long footerOffset = trailer.getLong();
+        if (trailer.getInt() != MAGIC || footerOffset < HEADER_LENGTH || footerOffset > size - TRAILER_LENGTH) {
+            throw new IOException("Truncated archive segment: " + path);
+        }
+        return readFully(channel, footerOffset, (int) (size - TRAILER_LENGTH - footerOffset));
+    }
+
+    private static InputStream block(FileChannel channel, Path path, long offset) throws IOException {
+        ByteBuffer header = readFully(channel, offset, BLOCK_HEADER_LENGTH);
+        header.getInt(); // uncompressed length
+        int compressedLength = header.getInt();
+        int crc = header.getInt();
+        byte[] compressed = readFully(channel, offset + BLOCK_HEADER_LENGTH, compressedLength).array();
+        CRC32 check = new CRC32();
+        check.update(compressed);
+        if ((int) check.getValue() != crc) {
+            throw new IOException("Corrupt block at offset " + offset + " in archive segment " + path);
+        }
+        return new InflaterInputStream(new ByteArrayInputStream(compressed));
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of archive segment");
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,146 @@
+package com.fullstack.schoolmanagement.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes an archive segment file. Rows are appended in student id order and packed into
+ * Deflate-compressed blocks, each with a CRC32; a footer maps every block to the range of
+ * student ids it holds, so {@link SegmentReader} only decompresses the blocks it needs.
+ *
+ * Layout: magic, version | blocks (raw length, compressed length, crc, bytes) |
+ * footer (block count, then offset, first and last student id, row count per block) |
+ * footer offset, magic.
+ */
+public class SegmentWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x53434152; // "SCAR"
+    static final short VERSION = 1;
+    static final int HEADER_LENGTH = 6;
+    static final int BLOCK_HEADER_LENGTH = 12;
+    static final int TRAILER_LENGTH = 12;
+
+    /** Writes the fields of one row after its student id. */
+    @FunctionalInterface
+    public interface RowWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    /** What was written, for the archive manifest. */
+    public record Summary(long rowCount, int blockCount, String sha256) {
+    }
+
+    private record Block(long offset, long firstStudentId, long lastStudentId, int rows) {
+    }
+
+    private final FileOutputStream file;
+    private final MessageDigest digest;
+    private final DataOutputStream out;
+    private final int rowsPerBlock;
+    private final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+    private final DataOutputStream block = new DataOutputStream(blockBytes);
+    private final List<Block> blocks = new ArrayList<>();
+
+    private long position = HEADER_LENGTH;
+    private long rowCount;
+    private int blockRows;
+    private long firstStudentId;
+    private long lastStudentId = Long.MIN_VALUE;
+
+    public SegmentWriter(Path path, int rowsPerBlock) throws IOException {
+        this.rowsPerBlock = rowsPerBlock;
+        this.file = new FileOutputStream(path.toFile());
+        this.digest = sha256();
+        this.out = new DataOutputStream(new BufferedOutputStream(new DigestOutputStream(file, digest), 64 * 1024));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+    }
+
+    public void append(long studentId, RowWriter row) throws IOException {
+        if (studentId < lastStudentId) {
+            throw new IllegalStateException("Rows must be appended in student id order");
+        }
+        if (blockRows == rowsPerBlock) {
+            flushBlock();
+        }
+        if (blockRows == 0) {
+            firstStudentId = studentId;
+        }
+        block.writeLong(studentId);
+        row.write(block);
+        lastStudentId = studentId;
+        blockRows++;
+        rowCount++;
+    }
+
+    /** Writes the footer, forces the file to disk and returns what was written. */
+    public Summary finish() throws IOException {
+        flushBlock();
+        long footerOffset = position;
+        out.writeInt(blocks.size());
+        for (Block b : blocks) {
+            out.writeLong(b.offset());
+            out.writeLong(b.firstStudentId());
+            out.writeLong(b.lastStudentId());
+            out.writeInt(b.rows());
+        }
+        out.writeLong(footerOffset);
+        out.writeInt(MAGIC);
+        out.flush();
+        file.getChannel().force(true);
+        return new Summary(rowCount, blocks.size(), HexFormat.of().formatHex(digest.digest()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void flushBlock() throws IOException {
+        if (blockRows == 0) {
+            return;
+        }
+        byte[] raw = blockBytes.toByteArray();
+        ByteArrayOutputStream compressedBytes = new ByteArrayOutputStream(raw.length / 4);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(compressedBytes, deflater)) {
+            deflate.write(raw);
+        } finally {
+            deflater.end();
+        }
+        byte[] compressed = compressedBytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(compressed);
+
+        blocks.add(new Block(position, firstStudentId, lastStudentId, blockRows));
+        out.writeInt(raw.length);
+        out.writeInt(compressed.length);
+        out.writeInt((int) crc.getValue());
+        out.write(compressed);
+        position += BLOCK_HEADER_LENGTH + compressed.length;
+        blockBytes.reset();
+        blockRows = 0;
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -36,6 +36,8 @@ public class CorsConfig {
         // Allow specific headers that might be needed
         configuration.addExposedHeader("Authorization");
         configuration.addExposedHeader("Content-Type");
+        configuration.addExposedHeader("ETag");
+        configuration.addExposedHeader("Idempotent-Replayed");
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,27 @@
+package com.fullstack.schoolmanagement.config;
+
+import com.fullstack.schoolmanagement.tenant.CurrentTenantResolver;
+import com.fullstack.schoolmanagement.tenant.SchemaMultiTenantConnectionProvider;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Schema-per-tenant multi-tenancy over shared pools (see the tenant package). ReadReplicaConfig
+ * wraps the primary pool, and the replica pool when there is one, so every connection follows
+ * the current tenant.
+ */
+@Configuration
+public class MultiTenancyConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer multiTenancyCustomizer(DataSource dataSource) {
+        return properties -> {
+            properties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, new SchemaMultiTenantConnectionProvider(dataSource));
+            properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new CurrentTenantResolver());
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.fullstack.schoolmanagement.config;
+
+import com.fullstack.schoolmanagement.security.TokenBucketRateLimiter;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Exposed as /actuator/ratelimits
+@Component
+@Endpoint(id = "ratelimits")
+public class RateLimitEndpoint {
+
+    private final TokenBucketRateLimiter rateLimiter;
+
+    public RateLimitEndpoint(TokenBucketRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> rateLimits() {
+        return rateLimiter.snapshot();
+    }
+}
@@ -0,0 +1,38 @@
+package com.fullstack.schoolmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-route rate limits, e.g.
+ * app.rate-limit.rules[0].name=login
+ * app.rate-limit.rules[0].method=POST
+ * app.rate-limit.rules[0].path=/api/v1/auth/login
+ * app.rate-limit.rules[0].capacity=10
+ * app.rate-limit.rules[0].refill-per-minute=10
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Idle buckets are evicted once more keys than this are tracked
+    private int maxTrackedKeys = 100_000;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        private String name;
+        private String method; // null matches any method
+        private String path;   // Ant-style pattern
+        private int capacity = 20;
+        private int refillPerMinute = 60;
+    }
+}
@@ -0,0 +1,98 @@
+package com.fullstack.schoolmanagement.config;
+
+import com.fullstack.schoolmanagement.tenant.TenantAwareDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * The application's DataSource: the primary pool from spring.datasource.*, plus a read replica
+ * pool from app.datasource.replica.* (credentials default to the primary's) when a replica URL is
+ * set. The URL is checked when the context starts rather than with a condition on this class,
+ * because the Docker image fixes configuration conditions at build time (AOT), before
+ * DATABASE_REPLICA_URL is known. Flyway always migrates the primary directly. The pools are shared
+ * by all tenants (see MultiTenancyConfig).
+ */
+@Configuration
+public class ReadReplicaConfig {
+
+    @Value("${app.datasource.replica.max-lag-ms:2000}")
+    private long maxLagMillis;
+
+    private ReadWriteRoutingDataSource routingDataSource;
+    private HikariDataSource replicaPool;
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primary, DataSourceProperties properties,
+                                 Environment environment,
+                                 @Value("${app.datasource.replica.url:}") String replicaUrl,
+                                 @Value("${app.datasource.replica.pin-window-ms:5000}") long pinWindowMillis) {
+        if (!StringUtils.hasText(replicaUrl)) {
+            return new TenantAwareDataSource(primary);
+        }
+        replicaPool = replicaPool(primary, properties, environment, replicaUrl);
+        routingDataSource = new ReadWriteRoutingDataSource(
+                new TenantAwareDataSource(primary), new TenantAwareDataSource(replicaPool), pinWindowMillis);
+        // Defers the real connection until the first statement, when the transaction's read-only flag is set
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static HikariDataSource replicaPool(HikariDataSource primary, DataSourceProperties properties,
+                                                Environment environment, String url) {
+        String username = environment.getProperty("app.datasource.replica.username");
+        String password = environment.getProperty("app.datasource.replica.password");
+        HikariDataSource dataSource = new HikariDataSource();
+        // The lazy proxy takes its auto-commit default from whichever pool it reaches first
+        dataSource.setAutoCommit(primary.isAutoCommit());
+        Binder.get(environment).bind("app.datasource.replica.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(StringUtils.hasText(username) ? username : properties.determineUsername());
+        dataSource.setPassword(StringUtils.hasText(password) ? password : properties.determinePassword());
+        dataSource.setReadOnly(true);
+        // Start even when the replica is down, and give up quickly so reads fall back to the primary
+        dataSource.setInitializationFailTimeout(-1);
+        dataSource.setConnectionTimeout(2000);
+        return dataSource;
+    }
+
+    @PreDestroy
+    public void closeReplica() {
+        if (replicaPool != null) {
+            replicaPool.close();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval-ms:1000}")
+    public void checkReplica() {
+        if (routingDataSource != null) {
+            routingDataSource.checkReplica(maxLagMillis);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.fullstack.schoolmanagement.config;
+
+import com.fullstack.schoolmanagement.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary. Must sit
+ * behind a LazyConnectionDataSourceProxy so the connection is chosen after the transaction's
+ * read-only flag is known.
+ *
+ * A principal's reads stay on the primary for a short window after their last write commits, so
+ * they see their own changes. A write is a statement that does not start with a read-only keyword
+ * (SELECT, SHOW, SET, ...); transactions that only read do not pin. All reads go to the primary
+ * while the replica is unreachable, not streaming from the primary, or lags further than allowed
+ * (see {@link #checkReplica}).
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    // -1 when the standby has no WAL receiver streaming from the primary: replay then looks caught
+    // up while the data gets older and older. Status and receipt time are only visible with
+    // pg_monitor (null otherwise); the receiver row itself always is. The primary sends keepalives
+    // at least every wal_sender_timeout / 2 (30 s by default), hence the 60 s silence limit.
+    // Caught-up standbys (and non-standbys) report no lag even when the primary has been idle.
+    private static final String LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE COALESCE(status, 'streaming') = 'streaming' " +
+            "AND COALESCE(last_msg_receipt_time, now()) > now() - interval '60 seconds') THEN -1 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    // First keywords of statements that cannot change data
+    private static final Set<String> READ_KEYWORDS = Set.of(
+            "select", "show", "set", "reset", "explain", "begin", "start", "commit", "rollback", "savepoint", "release");
+
+    enum Route { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long pinWindowMillis;
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private volatile boolean replicaAvailable = true;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, long pinWindowMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.pinWindowMillis = pinWindowMillis;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.PRIMARY;
+        }
+        return replicaAvailable && !isPinned(currentPrincipal()) ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private Connection connect(Connector connector) throws SQLException {
+        if (determineCurrentLookupKey() == Route.REPLICA) {
+            try {
+                return connector.connect(replica);
+            } catch (SQLException e) {
+                markReplica(false, e.getMessage());
+            }
+        }
+        Connection connection = connector.connect(primary);
+        String principal = currentPrincipal();
+        if (principal == null || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return connection;
+        }
+        return trackWrites(connection, principal);
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    /** Probes the replica; called on a fixed delay by ReadReplicaConfig. */
+    public void checkReplica(long maxLagMillis) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_SQL)) {
+            rs.next();
+            long lagMillis = rs.getLong(1);
+            if (lagMillis < 0) {
+                markReplica(false, "no WAL receiver streaming from the primary");
+            } else {
+                markReplica(lagMillis <= maxLagMillis, "replication lag " + lagMillis + " ms");
+            }
+        } catch (SQLException e) {
+            markReplica(false, e.getMessage());
+        }
+        long now = System.currentTimeMillis();
+        pinnedUntil.values().removeIf(until -> until < now);
+    }
+
+    private void markReplica(boolean available, String reason) {
+        if (available != replicaAvailable) {
+            if (available) {
+                logger.info("Read replica available again; routing read-only transactions to it");
+            } else {
+                logger.warn("Read replica unavailable ({}); routing all reads to the primary", reason);
+            }
+        }
+        replicaAvailable = available;
+    }
+
+    // Pins the principal on the connection's first statement that can change data
+    private Connection trackWrites(Connection connection, String principal) {
+        AtomicBoolean written = new AtomicBoolean();
+        Consumer<Object> onStatement = sql -> {
+            if (sql instanceof String text && isWrite(text) && written.compareAndSet(false, true)) {
+                pinAfterWrite(principal);
+            }
+        };
+        return proxy(Connection.class, connection, (method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("prepare") && args != null) {
+                onStatement.accept(args[0]);
+            }
+            Object result = method.invoke(connection, args);
+            if (name.equals("createStatement")) {
+                // Plain statements carry their SQL at execution time
+                Statement statement = (Statement) result;
+                return proxy(Statement.class, statement, (statementMethod, statementArgs) -> {
+                    String statementName = statementMethod.getName();
+                    if ((statementName.startsWith("execute") || statementName.equals("addBatch")) && statementArgs != null) {
+                        onStatement.accept(statementArgs[0]);
+                    }
+                    return statementMethod.invoke(statement, statementArgs);
+                });
+            }
+            return result;
+        });
+    }
+
+    private interface Call {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Call call) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    try {
+                        return call.invoke(method, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        });
+    }
+
+    static boolean isWrite(String sql) {
+        int i = 0;
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c) || c == '(') {
+                i++;
+            } else if (sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (sql.startsWith("--", i)) {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else {
+                break;
+            }
+        }
+        int end = i;
+        while (end < length && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+        return end > i && !READ_KEYWORDS.contains(sql.substring(i, end).toLowerCase(Locale.ROOT));
+    }
+
+    // The window starts when the write commits, not when its statement ran
+    private void pinAfterWrite(String principal) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pin(principal);
+                }
+            });
+        } else {
+            pin(principal);
+        }
+    }
+
+    private void pin(String principal) {
+        pinnedUntil.put(principal, System.currentTimeMillis() + pinWindowMillis);
+    }
+
+    private boolean isPinned(String principal) {
+        if (principal == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(principal);
+        return until != null && until >= System.currentTimeMillis();
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        // User ids are only unique within a school
+        return TenantContext.getTenant() + "/" + authentication.getName();
+    }
+}
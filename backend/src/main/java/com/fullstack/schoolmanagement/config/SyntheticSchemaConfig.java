@@ -0,0 +1,65 @@
+package com.fullstack.schoolmanagement.config;
+
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * The synthetic profile generates its dataset into an empty database. With app.synthetic.reset-schema=true
+ * the schemas are dropped and migrated from scratch first, tenant schemas included, so a new dataset can
+ * be generated; otherwise the schema is only migrated and the loader skips a database that has data.
+ */
+@Configuration
+@Profile("synthetic")
+public class SyntheticSchemaConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticSchemaConfig.class);
+
+    @Value("${app.synthetic.reset-schema:false}")
+    private boolean resetSchema;
+
+    @Bean
+    public FlywayMigrationStrategy syntheticMigrationStrategy() {
+        return flyway -> {
+            if (resetSchema) {
+                logger.warn("app.synthetic.reset-schema is set: dropping every schema before seeding");
+                // Listed first: the registry is dropped with public
+                List<String> tenants = tenants(flyway);
+                clean(flyway, flyway.getConfiguration().getDefaultSchema(), flyway.getConfiguration().getSchemas());
+                for (String tenant : tenants) {
+                    clean(flyway, tenant, tenant);
+                }
+            }
+            flyway.migrate();
+        };
+    }
+
+    // Tenant schemas are migrated by their own Flyway runs (TenantService), so the default clean misses them
+    private static List<String> tenants(Flyway flyway) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+        Boolean registry = jdbcTemplate.queryForObject("SELECT to_regclass('public.tenants') IS NOT NULL", Boolean.class);
+        if (!Boolean.TRUE.equals(registry)) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList("SELECT id FROM public.tenants", String.class);
+    }
+
+    // Schemas are always set explicitly: configurations copied from the same one share their schema settings
+    private static void clean(Flyway flyway, String defaultSchema, String... schemas) {
+        Flyway.configure()
+                .configuration(flyway.getConfiguration())
+                .schemas(schemas)
+                .defaultSchema(defaultSchema)
+                .cleanDisabled(false)
+                .load()
+                .clean();
+    }
+}
@@ -2,7 +2,9 @@ package com.fullstack.schoolmanagement.controller;
 
 import com.fullstack.schoolmanagement.entity.AcademicSession;
 import com.fullstack.schoolmanagement.service.AcademicSessionService;
+import com.fullstack.schoolmanagement.service.ReferenceDataCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,11 +20,15 @@ public class AcademicSessionController {
     @Autowired
     private AcademicSessionService academicSessionService;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER', 'STUDENT')")
-    public ResponseEntity<List<AcademicSession>> getAllAcademicSessions() {
-        List<AcademicSession> sessions = academicSessionService.getAllAcademicSessions();
-        return ResponseEntity.ok(sessions);
+    public ResponseEntity<byte[]> getAllAcademicSessions(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return referenceDataCache.respond(ReferenceDataCache.Resource.ACADEMIC_SESSIONS, "all", ifNoneMatch,
+                academicSessionService::getAllAcademicSessions);
     }
 
     @GetMapping("/{id}")
@@ -1,6 +1,8 @@
 package com.fullstack.schoolmanagement.controller;
 
+import com.fullstack.schoolmanagement.dto.ExamRankDTO;
 import com.fullstack.schoolmanagement.dto.ExamResultViewDTO;
+import com.fullstack.schoolmanagement.service.RankingService;
 import com.fullstack.schoolmanagement.service.ReportService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -15,9 +17,11 @@ import java.util.List;
 public class AdminReportController {
 
     private final ReportService reportService;
+    private final RankingService rankingService;
 
-    public AdminReportController(ReportService reportService) {
+    public AdminReportController(ReportService reportService, RankingService rankingService) {
         this.reportService = reportService;
+        this.rankingService = rankingService;
     }
 
     @GetMapping("/by-class/{classId}")
@@ -37,4 +41,14 @@ public class AdminReportController {
         List<ExamResultViewDTO> results = reportService.getResultsByStudent(studentId, examType, date);
         return ResponseEntity.ok(results);
     }
+
+    // Class ranking with rank and percentile for one exam
+    @GetMapping("/ranking")
+    public ResponseEntity<List<ExamRankDTO>> getExamRanking(
+            @RequestParam Long classId,
+            @RequestParam Long courseId,
+            @RequestParam String examType,
+            @RequestParam LocalDate date) {
+        return ResponseEntity.ok(rankingService.getCohortRanking(classId, courseId, examType, date));
+    }
 }
\ No newline at end of file
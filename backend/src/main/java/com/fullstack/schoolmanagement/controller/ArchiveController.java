@@ -0,0 +1,45 @@
+package com.fullstack.schoolmanagement.controller;
+
+import com.fullstack.schoolmanagement.entity.ArchiveSegment;
+import com.fullstack.schoolmanagement.service.SessionArchiveService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/archive")
+@PreAuthorize("hasRole('ADMIN')")
+public class ArchiveController {
+
+    @Autowired
+    private SessionArchiveService sessionArchiveService;
+
+    @GetMapping("/segments")
+    public ResponseEntity<List<ArchiveSegment>> getSegments() {
+        return ResponseEntity.ok(sessionArchiveService.getSegments());
+    }
+
+    // Moves a closed session's attendance and exam results to the cold archive now
+    @PostMapping("/sessions/{sessionId}")
+    public ResponseEntity<?> archiveSession(@PathVariable Long sessionId) {
+        try {
+            return ResponseEntity.ok(sessionArchiveService.archiveSession(sessionId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException | ConcurrencyFailureException e) {
+            // Rows changed while the session was being archived; nothing was deleted
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        } catch (UncheckedIOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+}
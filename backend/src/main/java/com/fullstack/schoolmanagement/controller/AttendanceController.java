@@ -2,16 +2,21 @@ package com.fullstack.schoolmanagement.controller;
 
 import com.fullstack.schoolmanagement.dto.AttendanceDTO;
 import com.fullstack.schoolmanagement.dto.AttendanceMarkRequest;
+import com.fullstack.schoolmanagement.dto.RollCallProgressDTO;
 import com.fullstack.schoolmanagement.service.AttendanceService;
+import com.fullstack.schoolmanagement.service.RollCallProgressService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/attendance")
@@ -21,13 +26,20 @@ public class AttendanceController {
     @Autowired
     private AttendanceService attendanceService;
 
+    @Autowired
+    private RollCallProgressService rollCallProgressService;
+
     @PostMapping("/mark")
     @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
-    public ResponseEntity<List<AttendanceDTO>> markAttendance(
+    public ResponseEntity<?> markAttendance(
             @RequestBody AttendanceMarkRequest request,
             Authentication authentication) {
         String userId = authentication.getName();
-        return ResponseEntity.ok(attendanceService.markAttendance(request, userId));
+        try {
+            return ResponseEntity.ok(attendanceService.markAttendance(request, userId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
     @GetMapping("/class/{classId}/course/{courseId}/period/{periodId}")
@@ -48,4 +60,20 @@ public class AttendanceController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         return ResponseEntity.ok(attendanceService.getStudentAttendance(studentId, startDate, endDate));
     }
+
+    // Marked, unmarked and absent counts of every class period on a day (today by default)
+    @GetMapping("/progress")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<List<RollCallProgressDTO>> getRollCallProgress(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(rollCallProgressService.getProgress(date != null ? date : LocalDate.now()));
+    }
+
+    // The same as a Server-Sent Events stream: a "snapshot" event, then a "progress" event per roll call
+    @GetMapping(value = "/progress/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public SseEmitter streamRollCallProgress(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return rollCallProgressService.stream(date != null ? date : LocalDate.now());
+    }
 }
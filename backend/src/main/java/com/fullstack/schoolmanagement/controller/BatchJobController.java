@@ -0,0 +1,60 @@
+package com.fullstack.schoolmanagement.controller;
+
+import com.fullstack.schoolmanagement.dto.BatchJobDTO;
+import com.fullstack.schoolmanagement.service.BatchJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin/jobs")
+@PreAuthorize("hasRole('ADMIN')")
+public class BatchJobController {
+
+    private static final int MAX_LIMIT = 500;
+
+    @Autowired
+    private BatchJobService batchJobService;
+
+    // Most recent jobs first
+    @GetMapping
+    public ResponseEntity<List<BatchJobDTO>> getJobs(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(batchJobService.getJobs(Math.max(1, Math.min(limit, MAX_LIMIT))));
+    }
+
+    // Status and progress (processed of total) of one job
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(batchJobService.getJob(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<?> cancel(@PathVariable Long id) {
+        return change(() -> batchJobService.cancel(id));
+    }
+
+    // Continues a failed or cancelled job from its last checkpoint
+    @PostMapping("/{id}/retry")
+    public ResponseEntity<?> retry(@PathVariable Long id) {
+        return change(() -> batchJobService.retry(id));
+    }
+
+    private ResponseEntity<?> change(java.util.function.Supplier<BatchJobDTO> action) {
+        try {
+            return ResponseEntity.accepted().body(action.get());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+}
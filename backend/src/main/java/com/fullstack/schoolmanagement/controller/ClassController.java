@@ -8,8 +8,10 @@ import com.fullstack.schoolmanagement.entity.SchoolClass;
 import com.fullstack.schoolmanagement.entity.Student;
 import com.fullstack.schoolmanagement.entity.Teacher;
 import com.fullstack.schoolmanagement.service.ClassService;
+import com.fullstack.schoolmanagement.service.ReferenceDataCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -29,6 +31,9 @@ public class ClassController {
     @Autowired
     private ClassService classService;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     // Helper method to convert a fully loaded SchoolClass entity to a detailed DTO for the response.
     //don't return a sensetive data
     private ClassResponseDTO convertEntityToResponseDTO(SchoolClass schoolClass) {
@@ -50,11 +55,11 @@ public class ClassController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER', 'STUDENT')")
-    public ResponseEntity<?> getAllClasses() {
+    public ResponseEntity<?> getAllClasses(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             // Use the new service method to get teacher names
-            List<ClassResponseDTO> classes = classService.getAllClassResponses();
-            return ResponseEntity.ok(classes);
+            return referenceDataCache.respond(ReferenceDataCache.Resource.CLASSES, "all", ifNoneMatch,
+                    classService::getAllClassResponses);
         } catch (Exception e) {
             System.err.println("Error fetching classes: " + e.getMessage());
             e.printStackTrace();
@@ -137,10 +142,10 @@ public class ClassController {
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, String>> deleteClass(@PathVariable Long id) {
+    public ResponseEntity<Map<String, Object>> deleteClass(@PathVariable Long id) {
         try {
-            classService.deleteClass(id);
-            return ResponseEntity.ok(Map.of("message", "Class deleted successfully."));
+            Map<String, Integer> affectedRows = classService.deleteClass(id);
+            return ResponseEntity.ok(Map.of("message", "Class deleted successfully.", "affectedRows", affectedRows));
         } catch (RuntimeException e) {
             if (e.getMessage().contains("not found")) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
@@ -2,9 +2,11 @@ package com.fullstack.schoolmanagement.controller;
 
 import com.fullstack.schoolmanagement.entity.Course;
 import com.fullstack.schoolmanagement.service.CourseService;
+import com.fullstack.schoolmanagement.service.ReferenceDataCache;
 import com.fullstack.schoolmanagement.dto.CourseDTO;
 import com.fullstack.schoolmanagement.dto.TeacherDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,32 +24,14 @@ public class CourseController {
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
-    public List<CourseDTO> getAllCourses() {
-        return courseService.getAllCourses().stream().map(course -> {
-            CourseDTO dto = new CourseDTO();
-            dto.setId(course.getId());
-            dto.setCourseCode(course.getCourseCode());
-            dto.setCourseName(course.getCourseName());
-            dto.setDescription(course.getDescription());
-            if (course.getTeacher() != null) {
-                TeacherDTO teacherDTO = new TeacherDTO();
-                teacherDTO.setId(course.getTeacher().getId());
-                teacherDTO.setFirstName(course.getTeacher().getFirstName());
-                teacherDTO.setLastName(course.getTeacher().getLastName());
-                teacherDTO.setPhone(course.getTeacher().getPhone());
-                teacherDTO.setSpecialization(course.getTeacher().getSpecialization());
-                teacherDTO.setAddress(course.getTeacher().getAddress());
-                teacherDTO.setQualification(course.getTeacher().getQualification());
-                teacherDTO.setExperience(course.getTeacher().getExperience());
-                teacherDTO.setGender(course.getTeacher().getGender());
-                teacherDTO.setEmail(course.getTeacher().getEmail());
-                teacherDTO.setHireDate(course.getTeacher().getHireDate() != null ? course.getTeacher().getHireDate().toString() : null);
-                dto.setTeacher(teacherDTO);
-            }
-            return dto;
-        }).collect(Collectors.toList());
+    public ResponseEntity<byte[]> getAllCourses(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return referenceDataCache.respond(ReferenceDataCache.Resource.COURSES, "all", ifNoneMatch,
+                () -> courseService.getAllCourses().stream().map(this::convertToDTO).collect(Collectors.toList()));
     }
 
     @GetMapping("/{id}")
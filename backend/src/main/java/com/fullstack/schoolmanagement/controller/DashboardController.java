@@ -1,13 +1,16 @@
 package com.fullstack.schoolmanagement.controller;
 
+import com.fullstack.schoolmanagement.dto.TranscriptDTO;
 import com.fullstack.schoolmanagement.entity.Student;
-import com.fullstack.schoolmanagement.entity.ExamResult;
 import com.fullstack.schoolmanagement.repository.StudentRepository;
 import com.fullstack.schoolmanagement.repository.TeacherRepository;
 import com.fullstack.schoolmanagement.repository.ExamResultRepository;
 import com.fullstack.schoolmanagement.repository.ClassRepository;
 import com.fullstack.schoolmanagement.repository.UserRepository;
 import com.fullstack.schoolmanagement.repository.CourseRepository;
+import com.fullstack.schoolmanagement.service.AttendanceStatsService;
+import com.fullstack.schoolmanagement.service.StudentService;
+import com.fullstack.schoolmanagement.service.TranscriptService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -44,6 +47,15 @@ public class DashboardController {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TranscriptService transcriptService;
+
+    @Autowired
+    private AttendanceStatsService attendanceStatsService;
+
     @GetMapping("/admin")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getAdminDashboard() {
@@ -130,17 +142,13 @@ public class DashboardController {
         Student student = studentOptional.orElse(null);
 
         if (student != null) {
-            List<ExamResult> examResults = examResultRepository.findByStudent(student);
-            dashboard.put("student", student);
-            dashboard.put("examResults", examResults);
-            // Add attendancePercentage (dummy 100 for now)
-            dashboard.put("attendancePercentage", 100);
-            // Calculate overallAverageScore
-            double avg = 0;
-            if (!examResults.isEmpty()) {
-                avg = examResults.stream().mapToDouble(r -> r.getMarksObtained().doubleValue()).average().orElse(0);
-            }
-            dashboard.put("overallAverageScore", avg);
+            // Aggregates come from the precomputed transcript rather than the raw result history
+            TranscriptDTO transcript = transcriptService.getTranscript(student.getId());
+            dashboard.put("student", studentService.convertToDto(student));
+            dashboard.put("transcript", transcript);
+            // Null until the student's first roll call has been counted
+            dashboard.put("attendancePercentage", attendanceStatsService.getAttendancePercentage(student.getId()));
+            dashboard.put("overallAverageScore", transcript.getOverallAverage());
             // Add enrolledCoursesCount
             int enrolledCourses = 0;
             if (student.getSchoolClass() != null && student.getSchoolClass().getCourses() != null) {
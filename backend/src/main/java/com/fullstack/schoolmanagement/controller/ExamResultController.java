@@ -1,9 +1,17 @@
 // src/main/java/com/fullstack/schoolmanagement/controller/ExamResultController.java
 package com.fullstack.schoolmanagement.controller;
 
+import com.fullstack.schoolmanagement.VersionConflictException;
+import com.fullstack.schoolmanagement.dto.BulkExamResultRequest;
+import com.fullstack.schoolmanagement.dto.BulkExamResultResponse;
+import com.fullstack.schoolmanagement.dto.ExamRankDTO;
 import com.fullstack.schoolmanagement.dto.ExamResultInputDTO;
 import com.fullstack.schoolmanagement.dto.ExamResultViewDTO;
+import com.fullstack.schoolmanagement.dto.TranscriptDTO;
 import com.fullstack.schoolmanagement.service.ExamResultService;
+import com.fullstack.schoolmanagement.service.RankingService;
+import com.fullstack.schoolmanagement.service.StudentService;
+import com.fullstack.schoolmanagement.service.TranscriptService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,9 +26,16 @@ import java.util.Map;
 public class ExamResultController {
 
     private final ExamResultService examResultService;
+    private final RankingService rankingService;
+    private final TranscriptService transcriptService;
+    private final StudentService studentService;
 
-    public ExamResultController(ExamResultService examResultService) {
+    public ExamResultController(ExamResultService examResultService, RankingService rankingService,
+                                TranscriptService transcriptService, StudentService studentService) {
         this.examResultService = examResultService;
+        this.rankingService = rankingService;
+        this.transcriptService = transcriptService;
+        this.studentService = studentService;
     }
 
     // GET all results (can be filtered by role in service)
@@ -39,6 +54,24 @@ public class ExamResultController {
         return ResponseEntity.ok(results);
     }
 
+    // GET class rank and percentile of the logged-in student for each of their exams
+    @GetMapping("/mine/ranks")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<List<ExamRankDTO>> getMyRanks(Principal principal) {
+        return ResponseEntity.ok(rankingService.getRanksForStudent(principal));
+    }
+
+    // GET the logged-in student's transcript (per-course averages, per-session GPA)
+    @GetMapping("/mine/transcript")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<TranscriptDTO> getMyTranscript(Principal principal) {
+        Long studentId = studentService.findStudentIdByUserId(principal.getName());
+        if (studentId == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(transcriptService.getTranscript(studentId));
+    }
+
     // POST a new exam result
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
@@ -46,6 +79,9 @@ public class ExamResultController {
         try {
             ExamResultViewDTO createdResult = examResultService.createExamResult(resultDTO, principal);
             return new ResponseEntity<>(createdResult, HttpStatus.CREATED);
+        } catch (VersionConflictException e) {
+            // GlobalExceptionHandler adds the stored row's id and version
+            throw e;
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (RuntimeException e) {
@@ -54,6 +90,20 @@ public class ExamResultController {
         }
     }
 
+    // POST a whole exam sheet (one class, course, exam type and date) in one request
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<?> createExamResultsBulk(@RequestBody BulkExamResultRequest request, Principal principal) {
+        try {
+            BulkExamResultResponse response = examResultService.createExamResultsBulk(request, principal);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
     // DELETE an exam result (Admin and Teacher)
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
@@ -69,10 +119,13 @@ public class ExamResultController {
         try {
             ExamResultViewDTO updatedResult = examResultService.updateExamResult(id, resultDTO, principal);
             return ResponseEntity.ok(updatedResult);
+        } catch (VersionConflictException e) {
+            // GlobalExceptionHandler adds the stored row's id and version
+            throw e;
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+package com.fullstack.schoolmanagement.controller;
+
+import com.fullstack.schoolmanagement.dto.BatchJobDTO;
+import com.fullstack.schoolmanagement.dto.GradingSchemeDTO;
+import com.fullstack.schoolmanagement.service.GradingSchemeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/grading-schemes")
+public class GradingSchemeController {
+
+    @Autowired
+    private GradingSchemeService gradingSchemeService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<List<GradingSchemeDTO>> getAllSchemes() {
+        return ResponseEntity.ok(gradingSchemeService.getAllSchemes());
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> createScheme(@RequestBody GradingSchemeDTO dto) {
+        try {
+            return new ResponseEntity<>(gradingSchemeService.createScheme(dto), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> updateScheme(@PathVariable Long id, @RequestBody GradingSchemeDTO dto) {
+        try {
+            return ResponseEntity.ok(gradingSchemeService.updateScheme(id, dto));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> deleteScheme(@PathVariable Long id) {
+        gradingSchemeService.deleteScheme(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Re-applies the scheme to all stored results it governs, as a background job
+    @PostMapping("/{id}/regrade")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> regrade(@PathVariable Long id) {
+        try {
+            BatchJobDTO job = gradingSchemeService.regrade(id);
+            return ResponseEntity.accepted().location(URI.create("/api/v1/admin/jobs/" + job.getId())).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.fullstack.schoolmanagement.controller;
+
+import com.fullstack.schoolmanagement.service.OutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin/outbox")
+@PreAuthorize("hasRole('ADMIN')")
+public class OutboxController {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    // Pending, retrying and dead-lettered events per consumer
+    @GetMapping
+    public ResponseEntity<Map<String, Map<String, Long>>> getStatus() {
+        return ResponseEntity.ok(outboxService.getStatus());
+    }
+
+    @GetMapping("/dead-letters")
+    public ResponseEntity<List<Map<String, Object>>> getDeadLetters() {
+        return ResponseEntity.ok(outboxService.getDeadLetters());
+    }
+
+    @PostMapping("/dead-letters/{id}/retry")
+    public ResponseEntity<?> retryDeadLetter(@PathVariable Long id) {
+        try {
+            outboxService.retryDeadLetter(id);
+            return ResponseEntity.accepted().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+}
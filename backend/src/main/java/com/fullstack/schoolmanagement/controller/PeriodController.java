@@ -2,7 +2,9 @@ package com.fullstack.schoolmanagement.controller;
 
 import com.fullstack.schoolmanagement.dto.PeriodDTO;
 import com.fullstack.schoolmanagement.service.PeriodService;
+import com.fullstack.schoolmanagement.service.ReferenceDataCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -17,14 +19,19 @@ public class PeriodController {
     @Autowired
     private PeriodService periodService;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @GetMapping
     public ResponseEntity<List<PeriodDTO>> getAllPeriods() {
         return ResponseEntity.ok(periodService.getAllPeriods());
     }
 
     @GetMapping("/class/{classId}")
-    public ResponseEntity<List<PeriodDTO>> getPeriodsByClass(@PathVariable Long classId) {
-        return ResponseEntity.ok(periodService.getPeriodsByClass(classId));
+    public ResponseEntity<byte[]> getPeriodsByClass(@PathVariable Long classId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return referenceDataCache.respond(ReferenceDataCache.Resource.PERIODS, "class" + classId, ifNoneMatch,
+                () -> periodService.getPeriodsByClass(classId));
     }
 
     @GetMapping("/class/{classId}/day/{dayOfWeek}")
@@ -0,0 +1,70 @@
+package com.fullstack.schoolmanagement.controller;
+
+import com.fullstack.schoolmanagement.dto.RolloverDTO;
+import com.fullstack.schoolmanagement.dto.RolloverMoveDTO;
+import com.fullstack.schoolmanagement.dto.RolloverRequest;
+import com.fullstack.schoolmanagement.service.RolloverService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin/rollovers")
+@PreAuthorize("hasRole('ADMIN')")
+public class RolloverController {
+
+    @Autowired
+    private RolloverService rolloverService;
+
+    @GetMapping
+    public ResponseEntity<List<RolloverDTO>> getRollovers() {
+        return ResponseEntity.ok(rolloverService.getRollovers());
+    }
+
+    // Progress of a running rollover, or the outcome of a finished one
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getRollover(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(rolloverService.getRollover(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/moves")
+    public ResponseEntity<List<RolloverMoveDTO>> getMoves(@PathVariable Long id) {
+        return ResponseEntity.ok(rolloverService.getMoves(id));
+    }
+
+    // Promotes students in the background; with dryRun=true only returns the planned moves
+    @PostMapping
+    public ResponseEntity<?> rollover(@RequestBody RolloverRequest request,
+                                      @RequestParam(defaultValue = "false") boolean dryRun) {
+        try {
+            if (dryRun) {
+                return ResponseEntity.ok(rolloverService.preview(request));
+            }
+            RolloverDTO rollover = rolloverService.start(request);
+            return ResponseEntity.accepted().location(URI.create("/api/v1/admin/rollovers/" + rollover.getId())).body(rollover);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<?> resume(@PathVariable Long id) {
+        try {
+            return ResponseEntity.accepted().body(rolloverService.resume(id));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.fullstack.schoolmanagement.controller;
+
+import com.fullstack.schoolmanagement.dto.SearchHitDTO;
+import com.fullstack.schoolmanagement.service.SearchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/search")
+public class SearchController {
+
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    // Typeahead across students, teachers and courses, e.g. ?q=jo&types=student,course
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<?> search(@RequestParam String q,
+                                    @RequestParam(required = false) List<String> types,
+                                    @RequestParam(defaultValue = "10") int limit) {
+        Set<SearchIndexService.Type> wanted = EnumSet.noneOf(SearchIndexService.Type.class);
+        if (types != null) {
+            for (String type : types) {
+                try {
+                    wanted.add(SearchIndexService.Type.valueOf(type.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().body(Map.of("message", "Unknown search type: " + type));
+                }
+            }
+        }
+        List<SearchHitDTO> hits = searchIndexService.search(q, wanted, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        return ResponseEntity.ok(hits);
+    }
+}
@@ -1,5 +1,6 @@
 package com.fullstack.schoolmanagement.controller;
 
+import com.fullstack.schoolmanagement.dto.PagedResponse;
 import com.fullstack.schoolmanagement.dto.StudentDTO;
 import com.fullstack.schoolmanagement.entity.Student;
 import com.fullstack.schoolmanagement.service.StudentService;
@@ -26,14 +27,29 @@ public class StudentController {
     private StudentService studentService;
 
     // --- THIS IS THE UPDATED METHOD ---
+    // Without paging parameters the full list is returned (existing clients); with any of
+    // page/size/sort/name/active a PagedResponse is returned instead.
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
-    public List<StudentDTO> getAllStudents(
+    public ResponseEntity<?> getAllStudents(
             // @RequestParam makes `classId` an optional URL parameter (e.g., ?classId=1)
-            @RequestParam(required = false) Long classId
+            @RequestParam(required = false) Long classId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Boolean active
     ) {
-        // The service layer now handles the logic of filtering by classId if it's present.
-        return studentService.getAllStudents(classId);
+        if (page == null && size == null && sort == null && name == null && active == null) {
+            return ResponseEntity.ok(studentService.getAllStudents(classId));
+        }
+        try {
+            PagedResponse<StudentDTO> result = studentService.getStudentPage(classId, active, name,
+                    page != null ? page : 0, size != null ? size : 25, sort);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
     // ... (the rest of your controller remains the same, but let's clean it up slightly for consistency)
@@ -79,8 +95,8 @@ public class StudentController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> deleteStudent(@PathVariable Long id) {
         try {
-            studentService.deleteStudent(id);
-            return ResponseEntity.ok(Map.of("message", "Student deleted successfully."));
+            Map<String, Integer> affectedRows = studentService.deleteStudent(id);
+            return ResponseEntity.ok(Map.of("message", "Student deleted successfully.", "affectedRows", affectedRows));
         } catch (RuntimeException e) {
             if (e.getMessage().contains("not found")) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
@@ -0,0 +1,53 @@
+package com.fullstack.schoolmanagement.controller;
+
+import com.fullstack.schoolmanagement.dto.TenantRequest;
+import com.fullstack.schoolmanagement.service.TenantService;
+import com.fullstack.schoolmanagement.tenant.TenantContext;
+import jakarta.validation.Valid;
+import org.flywaydb.core.api.FlywayException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// Schools are managed by the administrators of the original (public) school only
+@RestController
+@RequestMapping("/api/v1/tenants")
+@PreAuthorize("hasRole('ADMIN')")
+public class TenantController {
+
+    @Autowired
+    private TenantService tenantService;
+
+    @GetMapping
+    public ResponseEntity<?> getTenants() {
+        if (!TenantContext.isDefault()) {
+            return forbidden();
+        }
+        return ResponseEntity.ok(tenantService.listTenants());
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createTenant(@RequestBody @Valid TenantRequest request) {
+        if (!TenantContext.isDefault()) {
+            return forbidden();
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(tenantService.provision(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        } catch (FlywayException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Could not migrate the schema of tenant " + request.getId() + ": " + e.getMessage()));
+        }
+    }
+
+    private static ResponseEntity<?> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Tenants can only be managed from the main school"));
+    }
+}
@@ -23,4 +23,5 @@ public class AttendanceDTO {
     private Boolean present;
     private String markedByName;
     private String remarks;
+    private Long version;
 }
@@ -24,5 +24,7 @@ public class AttendanceMarkRequest {
         private Long studentId;
         private Boolean present;
         private String remarks;
+        // Version of the student's existing mark the client last read; when set, a changed mark fails with 409
+        private Long version;
     }
 }
@@ -0,0 +1,29 @@
+package com.fullstack.schoolmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJobDTO {
+    private Long id;
+    private String type;
+    private String status;
+    private long processed;
+    // Null until the first chunk has run, or when the job cannot tell in advance
+    private Long total;
+    private int chunks;
+    private boolean cancelRequested;
+    private String params;
+    private String checkpoint;
+    private String error;
+    private String requestedBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime updatedAt;
+}
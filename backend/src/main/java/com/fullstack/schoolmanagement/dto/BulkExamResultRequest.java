@@ -0,0 +1,24 @@
+package com.fullstack.schoolmanagement.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// One exam sheet: every row shares the class, course, exam type and date
+@Data
+public class BulkExamResultRequest {
+    private Long classId;
+    private Long courseId;
+    private String examType;
+    private LocalDate examDate;
+    private List<Entry> entries;
+
+    @Data
+    public static class Entry {
+        private Long studentId;
+        private BigDecimal marksObtained;
+        private String remarks;
+    }
+}
@@ -0,0 +1,27 @@
+package com.fullstack.schoolmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkExamResultResponse {
+    private int created;
+    private int rejected;
+    private List<RowOutcome> rows;
+
+    public enum Status { CREATED, DUPLICATE, NOT_IN_CLASS, INVALID_MARKS }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowOutcome {
+        private Long studentId;
+        private Status status;
+        private String message;
+    }
+}
@@ -0,0 +1,26 @@
+package com.fullstack.schoolmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamRankDTO {
+    private Long studentId;
+    private String studentName;
+    private Long classId;
+    private Long courseId;
+    private String courseName;
+    private String examType;
+    private LocalDate examDate;
+    private BigDecimal marksObtained;
+    private String grade;
+    private int rank; // 1 = top of the class, ties share a rank
+    private double percentile; // share of the cohort scoring strictly lower, 0-100
+    private int cohortSize;
+}
@@ -12,4 +12,6 @@ public class ExamResultInputDTO {
     private String examType;
     private LocalDate examDate;
     private BigDecimal marksObtained;
+    // Version the client last read; when set, an update fails with 409 if the result changed since
+    private Long version;
 }
\ No newline at end of file
@@ -15,6 +15,7 @@ public class ExamResultViewDTO {
     private BigDecimal marksObtained;
     private String grade;
     private String remarks;
+    private Long version;
     // Add student summary for frontend grouping
     private StudentSummaryDTO student;
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.fullstack.schoolmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradingSchemeDTO {
+    private Long id;
+    private String name;
+    private Long sessionId;
+    private String sessionName;
+    private Long courseId; // null for the session-wide scheme
+    private String courseName;
+    private List<Band> bands;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Band {
+        private BigDecimal minMarks;
+        private String grade;
+    }
+}
@@ -0,0 +1,24 @@
+package com.fullstack.schoolmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/** Roll-call state of one class period on one day; stream updates replace the row with the same periodId. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollCallProgressDTO {
+    private Long classId;
+    private String className;
+    private Long periodId;
+    private int periodNumber;
+    private String courseName;
+    private LocalDate date;
+    private int classSize;
+    private int marked;
+    private int unmarked;
+    private int absent;
+}
@@ -0,0 +1,26 @@
+package com.fullstack.schoolmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RolloverDTO {
+    private Long id;
+    private String status;
+    private int plannedCount;
+    private int movedCount;
+    // Students whose class or session changed between planning and their chunk
+    private int skippedCount;
+    private long lastStudentId;
+    // Batch job applying the rollover; its progress is at /api/v1/admin/jobs/{jobId}
+    private Long jobId;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
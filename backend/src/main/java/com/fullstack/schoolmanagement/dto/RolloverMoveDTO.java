@@ -0,0 +1,23 @@
+package com.fullstack.schoolmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One line of a rollover diff; applied is null while the move is still pending (and in a dry run). */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RolloverMoveDTO {
+    private Long studentId;
+    private String studentName;
+    private Long fromClassId;
+    private String fromClassName;
+    private Long toClassId;
+    private String toClassName;
+    private Long fromSessionId;
+    private String fromSessionName;
+    private Long toSessionId;
+    private String toSessionName;
+    private Boolean applied;
+}
@@ -0,0 +1,31 @@
+package com.fullstack.schoolmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RolloverRequest {
+    // Class id -> next class id; a null value takes the class's students out of any class (leavers)
+    private Map<Long, Long> classMapping;
+    // Session id -> next session id; students of unmapped sessions keep theirs
+    private Map<Long, Long> sessionMapping;
+    private List<StudentOverride> overrides;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StudentOverride {
+        private Long studentId;
+        // Leaves the student where they are
+        private boolean exclude;
+        // Target class, null for no class; the session still follows the mapping unless set
+        private Long classId;
+        private Long sessionId;
+    }
+}
@@ -0,0 +1,16 @@
+package com.fullstack.schoolmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitDTO {
+    private String type; // STUDENT, TEACHER or COURSE
+    private Long id;
+    private String label; // full name or course name
+    private String detail; // user ID, class or course code
+    private double score;
+}
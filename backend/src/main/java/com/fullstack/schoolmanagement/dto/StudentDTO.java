@@ -1,6 +1,7 @@
 package com.fullstack.schoolmanagement.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import jakarta.validation.constraints.NotBlank;
@@ -9,6 +10,7 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Pattern;
 
 @Data
+@NoArgsConstructor
 public class StudentDTO {
     private Long id;
     @NotBlank(message = "First name is required")
@@ -35,4 +37,24 @@ public class StudentDTO {
     @NotBlank(message = "Address is required")
     private String address;
     private boolean active;
+
+    // Used by the JPQL constructor expression in StudentRepositoryCustomImpl
+    public StudentDTO(Long id, String firstName, String lastName, String email, String phone, LocalDate dateOfBirth,
+                      String gender, LocalDate admissionDate, Long classId, String className, Long sessionId,
+                      String userId, String address, boolean active) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phone = phone;
+        this.dateOfBirth = dateOfBirth;
+        this.gender = gender;
+        this.admissionDate = admissionDate;
+        this.classId = classId;
+        this.className = className;
+        this.sessionId = sessionId;
+        this.userId = userId;
+        this.address = address;
+        this.active = active;
+    }
 }
@@ -0,0 +1,21 @@
+package com.fullstack.schoolmanagement.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+@Data
+public class TenantRequest {
+    @NotBlank(message = "Tenant id is required")
+    @Pattern(regexp = "[a-z][a-z0-9_]{0,39}", message = "Tenant id must be lower-case letters, digits and underscores, starting with a letter")
+    private String id;
+    @NotBlank(message = "School name is required")
+    private String name;
+    // First administrator of the new school, created as ADM-1
+    @NotBlank(message = "Admin email is required")
+    @Email(message = "Invalid email format")
+    private String adminEmail;
+    @NotBlank(message = "Admin password is required")
+    private String adminPassword;
+}
@@ -0,0 +1,41 @@
+package com.fullstack.schoolmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TranscriptDTO {
+    private Long studentId;
+    private int resultCount;
+    private BigDecimal overallAverage;
+    private List<CourseAverage> courses;
+    private List<SessionGpa> sessions;
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CourseAverage {
+        private Long courseId;
+        private String courseName;
+        private int resultCount;
+        private BigDecimal average;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SessionGpa {
+        private Long sessionId;
+        private String sessionName;
+        private int resultCount;
+        private BigDecimal gpa; // 4.0 scale
+    }
+}
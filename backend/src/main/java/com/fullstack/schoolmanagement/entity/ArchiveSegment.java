@@ -0,0 +1,57 @@
+package com.fullstack.schoolmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Manifest entry for one archive segment file: the rows of one table for one closed academic
+ * session, moved out of the hot tables by SessionArchiveService.
+ */
+@Entity
+@Table(name = "archive_segments")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ArchiveSegment {
+
+    public enum Kind { ATTENDANCE, EXAM_RESULTS }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "session_id", nullable = false)
+    private Long sessionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Kind kind;
+
+    // Dates covered by the segment (the session's start and end)
+    @Column(nullable = false)
+    private LocalDate firstDate;
+
+    @Column(nullable = false)
+    private LocalDate lastDate;
+
+    // Relative to app.archive.directory
+    @Column(nullable = false)
+    private String path;
+
+    @Column(nullable = false)
+    private long rowCount;
+
+    @Column(nullable = false)
+    private int blockCount;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
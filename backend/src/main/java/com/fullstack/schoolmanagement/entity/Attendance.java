@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 
+// Range-partitioned by month on attendance_date; the table's primary key is (id, attendance_date)
 @Entity
 @Table(name = "attendance", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"student_id", "class_id", "course_id", "period_id", "attendance_date"})
@@ -46,4 +47,8 @@ public class Attendance {
     private Teacher markedBy;
 
     private String remarks;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
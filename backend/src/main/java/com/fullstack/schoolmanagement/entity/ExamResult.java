@@ -56,4 +56,9 @@ public class ExamResult {
     private String grade; // e.g., "A+", "B", "C"
 
     private String remarks; // e.g., "Good performance", "Needs improvement"
+
+    // Bumped on every update; a stale edit fails instead of overwriting someone else's
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.fullstack.schoolmanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeBand {
+    @Column(nullable = false, precision = 5, scale = 2)
+    private BigDecimal minMarks; // lower bound, inclusive
+
+    @Column(nullable = false)
+    private String grade; // e.g., "A+", "B"
+}
@@ -0,0 +1,40 @@
+package com.fullstack.schoolmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "grading_schemes")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class GradingScheme {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    // Results are matched to a session by exam date
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "session_id", nullable = false)
+    private AcademicSession session;
+
+    // Null means the scheme applies to every course in the session without its own scheme
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id")
+    private Course course;
+
+    @ElementCollection
+    @CollectionTable(name = "grading_scheme_bands", joinColumns = @JoinColumn(name = "scheme_id"))
+    @OrderBy("minMarks DESC")
+    private List<GradeBand> bands = new ArrayList<>();
+}
@@ -0,0 +1,66 @@
+package com.fullstack.schoolmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed transcript of one student, kept in step with exam_results by TranscriptService.
+ * Only running totals are stored; averages and GPA are derived from them when read.
+ */
+@Entity
+@Table(name = "student_transcripts")
+@Getter
+@Setter
+@NoArgsConstructor
+public class StudentTranscript {
+    @Id
+    private Long studentId;
+
+    @Column(nullable = false)
+    private int resultCount;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal marksTotal = BigDecimal.ZERO;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb", nullable = false)
+    private List<CourseTotals> courses = new ArrayList<>();
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb", nullable = false)
+    private List<SessionTotals> sessions = new ArrayList<>();
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CourseTotals {
+        private Long courseId;
+        private String courseName;
+        private int count;
+        private BigDecimal marksTotal;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SessionTotals {
+        private Long sessionId; // null for results dated outside every session
+        private String sessionName;
+        private int count;
+        private BigDecimal gradePointTotal;
+    }
+}
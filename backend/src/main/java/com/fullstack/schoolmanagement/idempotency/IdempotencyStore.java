@@ -0,0 +1,236 @@
+package com.fullstack.schoolmanagement.idempotency;
+
+import com.fullstack.schoolmanagement.service.TenantService;
+import com.fullstack.schoolmanagement.tenant.TenantScoped;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Remembers the response to each (principal, Idempotency-Key) pair so a retried request is answered
+ * without running it again.
+ *
+ * Duplicates arriving on the same node while the first is still running wait for its response
+ * (single-flight); the first one also claims the key in the idempotency_keys table, so duplicates
+ * on other nodes poll for the stored response instead of running too. Completed responses stay in
+ * memory for a short while, where most retries land, and in the table until the key expires.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final String CLAIM_SQL =
+            "INSERT INTO idempotency_keys (principal, idempotency_key, request_hash, locked_until, created_at, expires_at) " +
+            "VALUES (?, ?, ?, now() + ? * interval '1 millisecond', now(), now() + ? * interval '1 millisecond') " +
+            "ON CONFLICT (principal, idempotency_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, " +
+            "response_status = NULL, response_content_type = NULL, response_body = NULL, " +
+            "locked_until = EXCLUDED.locked_until, created_at = now(), expires_at = EXCLUDED.expires_at " +
+            // Expired keys can be reused; abandoned claims (the node died) are taken over by the same request
+            "WHERE idempotency_keys.expires_at <= now() OR (idempotency_keys.response_status IS NULL " +
+            "AND idempotency_keys.locked_until <= now() AND idempotency_keys.request_hash = EXCLUDED.request_hash)";
+    private static final String FIND_SQL =
+            "SELECT request_hash, response_status, response_content_type, response_body, locked_until > now() AS locked " +
+            "FROM idempotency_keys WHERE principal = ? AND idempotency_key = ? AND expires_at > now()";
+    private static final String COMPLETE_SQL =
+            "UPDATE idempotency_keys SET response_status = ?, response_content_type = ?, response_body = ?, locked_until = NULL " +
+            "WHERE principal = ? AND idempotency_key = ? AND request_hash = ? AND response_status IS NULL";
+    private static final String RELEASE_SQL =
+            "DELETE FROM idempotency_keys WHERE principal = ? AND idempotency_key = ? AND request_hash = ? AND response_status IS NULL";
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    public record StoredResponse(int status, String contentType, byte[] body) {}
+
+    // A request for one key on this node; duplicates wait on its response (null if it was released)
+    private static final class Flight {
+        private final String requestHash;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private Flight(String requestHash) {
+            this.requestHash = requestHash;
+        }
+
+        private boolean isExpired() {
+            return expiresAt <= System.currentTimeMillis();
+        }
+    }
+
+    /** Either a stored response to replay, or the right to run the request once. */
+    public static final class Claim {
+        private final String principal;
+        private final String key;
+        private final String requestHash;
+        private final Flight flight;
+        private final StoredResponse replay;
+
+        private Claim(String principal, String key, String requestHash, Flight flight, StoredResponse replay) {
+            this.principal = principal;
+            this.key = key;
+            this.requestHash = requestHash;
+            this.flight = flight;
+            this.replay = replay;
+        }
+
+        public StoredResponse getReplay() {
+            return replay;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TenantService tenantService;
+
+    @Value("${app.idempotency.ttl-ms:86400000}")
+    private long ttlMillis;
+
+    @Value("${app.idempotency.memory-ttl-ms:600000}")
+    private long memoryTtlMillis;
+
+    @Value("${app.idempotency.lock-ms:60000}")
+    private long lockMillis;
+
+    @Value("${app.idempotency.wait-ms:10000}")
+    private long waitMillis;
+
+    private final TenantScoped<Map<String, Flight>> tenantFlights = new TenantScoped<>(ConcurrentHashMap::new);
+
+    /**
+     * Claims the key for this request, or returns the response of the request that already used it.
+     *
+     * @throws IllegalArgumentException if the key was used for a request with a different body
+     * @throws IllegalStateException if the first request is still running after the wait timeout
+     */
+    public Claim begin(String principal, String key, String requestHash) {
+        Map<String, Flight> flights = tenantFlights.get();
+        String id = principal + "/" + key;
+        long deadline = System.currentTimeMillis() + waitMillis;
+        while (true) {
+            Flight flight = new Flight(requestHash);
+            Flight existing = flights.putIfAbsent(id, flight);
+            if (existing != null && existing.isExpired()) {
+                flights.remove(id, existing);
+                continue;
+            }
+            if (existing != null) {
+                checkSameRequest(existing.requestHash, requestHash);
+                StoredResponse response = await(existing, deadline);
+                if (response != null) {
+                    return new Claim(principal, key, requestHash, null, response);
+                }
+                // The first request failed and released the key; try again as the leader
+                continue;
+            }
+
+            try {
+                StoredResponse stored = claim(principal, key, requestHash, deadline);
+                if (stored != null) {
+                    completeFlight(flight, stored);
+                    return new Claim(principal, key, requestHash, null, stored);
+                }
+                return new Claim(principal, key, requestHash, flight, null);
+            } catch (RuntimeException e) {
+                flights.remove(id, flight);
+                flight.response.complete(null);
+                throw e;
+            }
+        }
+    }
+
+    /** Stores the response of a claimed request and hands it to the duplicates waiting for it. */
+    public void complete(Claim claim, StoredResponse response) {
+        try {
+            jdbcTemplate.update(COMPLETE_SQL, response.status(), response.contentType(), response.body(),
+                    claim.principal, claim.key, claim.requestHash);
+        } finally {
+            completeFlight(claim.flight, response);
+        }
+    }
+
+    /** Gives the key up after a failure, so a retry runs the request again. */
+    public void release(Claim claim) {
+        try {
+            jdbcTemplate.update(RELEASE_SQL, claim.principal, claim.key, claim.requestHash);
+        } finally {
+            tenantFlights.get().remove(claim.principal + "/" + claim.key, claim.flight);
+            claim.flight.response.complete(null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        tenantFlights.forEach(flights -> flights.values().removeIf(Flight::isExpired));
+        tenantService.forEachTenant(() -> jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= now()"));
+    }
+
+    // Null when this node now owns the key, otherwise the response another node stored for it
+    private StoredResponse claim(String principal, String key, String requestHash, long deadline) {
+        while (true) {
+            if (jdbcTemplate.update(CLAIM_SQL, principal, key, requestHash, lockMillis, ttlMillis) == 1) {
+                return null;
+            }
+            List<Object[]> rows = jdbcTemplate.query(FIND_SQL, (rs, i) -> new Object[]{
+                    rs.getString("request_hash"), rs.getObject("response_status", Integer.class),
+                    new StoredResponse(rs.getInt("response_status"), rs.getString("response_content_type"),
+                            rs.getBytes("response_body")), rs.getBoolean("locked")}, principal, key);
+            if (!rows.isEmpty()) {
+                Object[] row = rows.get(0);
+                checkSameRequest((String) row[0], requestHash);
+                if (row[1] != null) {
+                    return (StoredResponse) row[2];
+                }
+                if (!(Boolean) row[3]) {
+                    // Abandoned claim; the next insert takes it over
+                    continue;
+                }
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw inProgress();
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw inProgress();
+            }
+        }
+    }
+
+    private StoredResponse await(Flight flight, long deadline) {
+        try {
+            return flight.response.get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw inProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress();
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private void completeFlight(Flight flight, StoredResponse response) {
+        flight.expiresAt = System.currentTimeMillis() + memoryTtlMillis;
+        flight.response.complete(response);
+    }
+
+    private static void checkSameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IllegalArgumentException("Idempotency-Key was already used for a different request.");
+        }
+    }
+
+    private static IllegalStateException inProgress() {
+        return new IllegalStateException("A request with this Idempotency-Key is still being processed. Please retry later.");
+    }
+}
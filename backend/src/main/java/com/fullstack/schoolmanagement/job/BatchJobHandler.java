@@ -0,0 +1,33 @@
+package com.fullstack.schoolmanagement.job;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A kind of long-running work that BatchJobService runs in the background, one chunk at a time.
+ * Parameters and checkpoints are stored as JSON with the job, so any node can continue a job
+ * from its last committed chunk.
+ */
+public interface BatchJobHandler {
+
+    /** Stored with each job; renaming a handler fails its unfinished jobs. */
+    String type();
+
+    /**
+     * Runs the chunk after the checkpoint (null for the first chunk) as the job's tenant, inside
+     * a transaction that also stores the returned checkpoint and progress. Chunks should take
+     * seconds, not minutes: cancellation and shutdown only take effect between them. Throwing
+     * rolls the chunk back and fails the job, which can be retried from its last checkpoint.
+     */
+    Chunk runChunk(JsonNode params, JsonNode checkpoint);
+
+    /** Called as the job's tenant once the job failed or was cancelled. */
+    default void stopped(JsonNode params, String status, String error) {
+    }
+
+    /**
+     * Outcome of one chunk: where the next one starts, how many units it processed, and the total
+     * number of units when known (null keeps the previous total).
+     */
+    record Chunk(JsonNode checkpoint, long processed, Long total, boolean done) {
+    }
+}
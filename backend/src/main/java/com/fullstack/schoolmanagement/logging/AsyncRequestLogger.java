@@ -0,0 +1,164 @@
+package com.fullstack.schoolmanagement.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request log pipeline. Request threads only offer an immutable record into a bounded
+ * ring buffer; a single daemon thread formats JSON lines and hands them to the
+ * "request-log" logger. When the buffer is full the record is dropped and counted,
+ * so logging can never stall a request.
+ */
+@Component
+public class AsyncRequestLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncRequestLogger.class);
+    private static final Logger requestLog = LoggerFactory.getLogger("request-log");
+
+    public record RequestLogRecord(long timestamp, String correlationId, String method, String path, int status,
+                                   long durationMicros, String principal, String clientIp, String error) {}
+
+    @Value("${app.request-log.capacity:8192}")
+    private int capacity;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<RequestLogRecord> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private volatile boolean running;
+    private Thread writer;
+
+    @PostConstruct
+    public void start() {
+        buffer = new ArrayBlockingQueue<>(capacity);
+        FunctionCounter.builder("request.log.dropped", dropped, AtomicLong::get)
+                .description("Request log records dropped because the buffer was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("request.log.written", written, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("request.log.buffer.size", buffer, BlockingQueue::size)
+                .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::drainLoop, "request-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Enqueues a record without blocking. Returns false if it was dropped.
+     */
+    public boolean submit(RequestLogRecord record) {
+        if (buffer.offer(record)) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(2000);
+        }
+        flush(new ArrayList<>(buffer.size()));
+    }
+
+    private void drainLoop() {
+        List<RequestLogRecord> batch = new ArrayList<>(256);
+        while (running) {
+            try {
+                RequestLogRecord first = buffer.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, 255);
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                logger.warn("Request log writer failed: {}", e.getMessage());
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<RequestLogRecord> batch) {
+        buffer.drainTo(batch);
+        write(batch);
+    }
+
+    private void write(List<RequestLogRecord> batch) {
+        for (RequestLogRecord record : batch) {
+            requestLog.info(toJson(record));
+        }
+        written.addAndGet(batch.size());
+    }
+
+    static String toJson(RequestLogRecord r) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"ts\":\"").append(Instant.ofEpochMilli(r.timestamp())).append('"');
+        appendField(json, "correlationId", r.correlationId());
+        appendField(json, "method", r.method());
+        appendField(json, "path", r.path());
+        json.append(",\"status\":").append(r.status());
+        json.append(",\"durationMs\":").append(r.durationMicros() / 1000).append('.')
+                .append(String.format("%03d", r.durationMicros() % 1000));
+        appendField(json, "principal", r.principal());
+        appendField(json, "clientIp", r.clientIp());
+        appendField(json, "error", r.error());
+        return json.append('}').toString();
+    }
+
+    private static void appendField(StringBuilder json, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        json.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
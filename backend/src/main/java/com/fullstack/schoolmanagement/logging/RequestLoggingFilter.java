@@ -0,0 +1,84 @@
+package com.fullstack.schoolmanagement.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Assigns a correlation ID to every request (X-Request-Id, reused when the client sends one)
+ * and emits one structured record per request to the AsyncRequestLogger. Errors and slow
+ * requests are always kept; successful requests are sampled.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String CORRELATION_HEADER = "X-Request-Id";
+    public static final String CORRELATION_MDC_KEY = "correlationId";
+    // Set by JwtRequestFilter; the security context is already cleared when this filter finishes
+    public static final String PRINCIPAL_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".principal";
+
+    @Autowired
+    private AsyncRequestLogger asyncRequestLogger;
+
+    @Value("${app.request-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.request-log.success-sample-rate:0.1}")
+    private double successSampleRate;
+
+    @Value("${app.request-log.slow-threshold-ms:1000}")
+    private long slowThresholdMs;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String correlationId = request.getHeader(CORRELATION_HEADER);
+        if (correlationId == null || correlationId.isBlank() || correlationId.length() > 64) {
+            correlationId = UUID.randomUUID().toString();
+        }
+        MDC.put(CORRELATION_MDC_KEY, correlationId);
+        response.setHeader(CORRELATION_HEADER, correlationId);
+
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            MDC.remove(CORRELATION_MDC_KEY);
+            if (enabled) {
+                long durationMicros = (System.nanoTime() - start) / 1000;
+                int status = failure != null ? 500 : response.getStatus();
+                if (shouldLog(status, durationMicros, failure)) {
+                    Object principal = request.getAttribute(PRINCIPAL_ATTRIBUTE);
+                    asyncRequestLogger.submit(new AsyncRequestLogger.RequestLogRecord(
+                            System.currentTimeMillis(), correlationId, request.getMethod(), request.getRequestURI(),
+                            status, durationMicros, principal != null ? principal.toString() : null,
+                            request.getRemoteAddr(), failure != null ? failure.getClass().getSimpleName() : null));
+                }
+            }
+        }
+    }
+
+    private boolean shouldLog(int status, long durationMicros, Throwable failure) {
+        if (failure != null || status >= 400 || durationMicros >= slowThresholdMs * 1000) {
+            return true;
+        }
+        return successSampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < successSampleRate;
+    }
+}
@@ -0,0 +1,10 @@
+package com.fullstack.schoolmanagement.notification;
+
+/**
+ * Delivers absence digests (email, SMS gateway, ...). Called from a background job, never from a
+ * request; throwing leaves the digest pending so it is sent again on the next run.
+ */
+public interface AbsenceAlertSender {
+
+    void send(AbsenceDigest digest) throws Exception;
+}
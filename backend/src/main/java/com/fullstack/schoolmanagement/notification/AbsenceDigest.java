@@ -0,0 +1,15 @@
+package com.fullstack.schoolmanagement.notification;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * The absences of one student on one day, sent as a single message. The contact fields are the
+ * student account's email and the student's phone, either of which may be null.
+ */
+public record AbsenceDigest(String tenant, Long studentId, String studentName, String className,
+                            String email, String phone, LocalDate date, List<MissedPeriod> periods) {
+
+    public record MissedPeriod(int periodNumber, LocalTime startTime, String courseName) {}
+}
@@ -0,0 +1,44 @@
+package com.fullstack.schoolmanagement.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Local stand-in for a real gateway: logs each digest to the "absence-alerts" logger and, when
+ * app.absence-alerts.file is set, also appends it to that file as a JSON line.
+ */
+@Component
+@ConditionalOnProperty(name = "app.absence-alerts.sender", havingValue = "log", matchIfMissing = true)
+public class LoggingAbsenceAlertSender implements AbsenceAlertSender {
+
+    private static final Logger alertLog = LoggerFactory.getLogger("absence-alerts");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.absence-alerts.file:}")
+    private String file;
+
+    @Override
+    public void send(AbsenceDigest digest) throws Exception {
+        String json = objectMapper.writeValueAsString(digest);
+        alertLog.info(json);
+        if (!file.isBlank()) {
+            Path path = Path.of(file);
+            synchronized (this) {
+                Files.writeString(path, json + System.lineSeparator(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        }
+    }
+}
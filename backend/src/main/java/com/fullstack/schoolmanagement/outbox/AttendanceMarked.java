@@ -0,0 +1,12 @@
+package com.fullstack.schoolmanagement.outbox;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/** One roll call saved by AttendanceService.markAttendance. */
+public record AttendanceMarked(Long classId, Long courseId, Long periodId, LocalDate attendanceDate,
+                               Long markedBy, List<Mark> marks) implements OutboxEvent {
+
+    /** previouslyPresent is null when the student had not been marked for this period yet. */
+    public record Mark(Long attendanceId, Long studentId, boolean present, Boolean previouslyPresent) {}
+}
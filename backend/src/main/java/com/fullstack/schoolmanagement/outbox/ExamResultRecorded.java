@@ -0,0 +1,9 @@
+package com.fullstack.schoolmanagement.outbox;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** One exam result created by ExamResultService.createExamResult. */
+public record ExamResultRecorded(Long resultId, Long studentId, Long classId, Long courseId, String examType,
+                                 LocalDate examDate, BigDecimal marksObtained, String grade) implements OutboxEvent {
+}
@@ -0,0 +1,21 @@
+package com.fullstack.schoolmanagement.outbox;
+
+import java.util.Set;
+
+/**
+ * Receives outbox events asynchronously, on its own bounded executor. Every consumer gets its own
+ * copy of each event it subscribes to, so one failing consumer never delays or repeats another.
+ */
+public interface OutboxConsumer {
+
+    /** Stored with each pending event; renaming a consumer orphans its pending events. */
+    String name();
+
+    Set<Class<? extends OutboxEvent>> eventTypes();
+
+    /**
+     * Handles one event, running as the tenant that published it inside a transaction that also
+     * removes the event from the outbox. Throwing rolls both back and schedules a retry.
+     */
+    void handle(OutboxEvent event);
+}
@@ -0,0 +1,8 @@
+package com.fullstack.schoolmanagement.outbox;
+
+/**
+ * An event written to the transactional outbox (see OutboxService). Stored as JSON under the
+ * record's simple name, so renaming a record or removing a field orphans pending rows.
+ */
+public sealed interface OutboxEvent permits AttendanceMarked, ExamResultRecorded {
+}
@@ -0,0 +1,19 @@
+package com.fullstack.schoolmanagement.repository;
+
+import com.fullstack.schoolmanagement.entity.ArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ArchiveSegmentRepository extends JpaRepository<ArchiveSegment, Long> {
+    List<ArchiveSegment> findAllByOrderByCreatedAtDesc();
+
+    List<ArchiveSegment> findByKind(ArchiveSegment.Kind kind);
+
+    // Segments whose date range overlaps [from, to]
+    List<ArchiveSegment> findByKindAndFirstDateLessThanEqualAndLastDateGreaterThanEqual(
+            ArchiveSegment.Kind kind, LocalDate to, LocalDate from);
+}
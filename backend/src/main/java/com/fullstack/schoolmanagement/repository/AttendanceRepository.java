@@ -8,7 +8,6 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
@@ -16,9 +15,6 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     List<Attendance> findBySchoolClassIdAndCourseIdAndPeriodIdAndAttendanceDate(
         Long classId, Long courseId, Long periodId, LocalDate date);
     
-    Optional<Attendance> findByStudentIdAndSchoolClassIdAndCourseIdAndPeriodIdAndAttendanceDate(
-        Long studentId, Long classId, Long courseId, Long periodId, LocalDate date);
-    
     List<Attendance> findByStudentIdAndAttendanceDateBetween(
         Long studentId, LocalDate startDate, LocalDate endDate);
     
@@ -3,12 +3,24 @@ package com.fullstack.schoolmanagement.repository;
 import com.fullstack.schoolmanagement.entity.ExamResult;
 import com.fullstack.schoolmanagement.entity.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 public interface ExamResultRepository extends JpaRepository<ExamResult, Long> {
-    boolean existsByStudentIdAndCourseIdAndExamTypeAndExamDate(Long studentId, Long courseId, String examType, java.time.LocalDate examDate); // For duplicate check
-    boolean existsByStudentIdAndCourseIdAndExamTypeAndExamDateAndIdNot(Long studentId, Long courseId, String examType, java.time.LocalDate examDate, Long id); // For update duplicate check
     List<ExamResult> findByStudent(Student student); // FIX: Add method to find all results for a student
-    void deleteByStudent(Student student); // FIX: Add method to delete all results for a student
     long countByStudent(Student student);
+
+    // Students in the given set who already have a result for this exam (bulk duplicate check)
+    @Query("SELECT e.student.id FROM ExamResult e WHERE e.course.id = :courseId AND e.examType = :examType " +
+           "AND e.examDate = :examDate AND e.student.id IN :studentIds")
+    List<Long> findStudentIdsWithResult(@Param("courseId") Long courseId, @Param("examType") String examType,
+                                        @Param("examDate") LocalDate examDate, @Param("studentIds") Collection<Long> studentIds);
+
+    // (result id, student id) of this exam's results for the given students
+    @Query("SELECT e.id, e.student.id FROM ExamResult e WHERE e.course.id = :courseId AND e.examType = :examType " +
+           "AND e.examDate = :examDate AND e.student.id IN :studentIds")
+    List<Object[]> findIdsByStudent(@Param("courseId") Long courseId, @Param("examType") String examType,
+                                    @Param("examDate") LocalDate examDate, @Param("studentIds") Collection<Long> studentIds);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.fullstack.schoolmanagement.repository;
+
+import com.fullstack.schoolmanagement.entity.GradingScheme;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface GradingSchemeRepository extends JpaRepository<GradingScheme, Long> {
+
+    // Everything needed to compile the lookup tables in one round trip
+    @Query("SELECT DISTINCT s FROM GradingScheme s JOIN FETCH s.session LEFT JOIN FETCH s.course LEFT JOIN FETCH s.bands")
+    List<GradingScheme> findAllWithBands();
+
+    @Query("SELECT s FROM GradingScheme s JOIN FETCH s.session LEFT JOIN FETCH s.course LEFT JOIN FETCH s.bands WHERE s.id = :id")
+    Optional<GradingScheme> findByIdWithBands(@Param("id") Long id);
+
+    boolean existsBySessionIdAndCourseId(Long sessionId, Long courseId);
+
+    boolean existsBySessionIdAndCourseIsNull(Long sessionId);
+}
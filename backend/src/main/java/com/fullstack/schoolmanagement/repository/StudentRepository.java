@@ -3,17 +3,23 @@ package com.fullstack.schoolmanagement.repository;
 import com.fullstack.schoolmanagement.entity.Student;
 import com.fullstack.schoolmanagement.entity.SchoolClass;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentRepositoryCustom {
     List<Student> findByIsActive(boolean isActive); // Fixed method name to match field name
     List<Student> findAllBySchoolClass(SchoolClass schoolClass);
     List<Student> findBySchoolClassId(Long classId);
     long countBySchoolClass(SchoolClass schoolClass);
     Optional<Student> findByUser_UserId(String userId);
+
+    @Query("SELECT s.id FROM Student s WHERE s.schoolClass.id = :classId AND s.id IN :ids")
+    List<Long> findIdsInClass(@Param("classId") Long classId, @Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.fullstack.schoolmanagement.repository;
+
+import com.fullstack.schoolmanagement.dto.PagedResponse;
+import com.fullstack.schoolmanagement.dto.StudentDTO;
+
+import java.util.List;
+
+public interface StudentRepositoryCustom {
+    /** Fields findDirectoryPage can sort by. */
+    List<String> DIRECTORY_SORT_FIELDS = List.of("id", "firstName", "lastName", "admissionDate", "className");
+
+    List<StudentDTO> findDirectory(Long classId, Boolean active, String namePrefix);
+
+    PagedResponse<StudentDTO> findDirectoryPage(Long classId, Boolean active, String namePrefix,
+                                                int page, int size, String sortField, boolean ascending);
+}
@@ -0,0 +1,115 @@
+package com.fullstack.schoolmanagement.repository;
+
+import com.fullstack.schoolmanagement.dto.PagedResponse;
+import com.fullstack.schoolmanagement.dto.StudentDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Student directory queries. Rows are read as StudentDTO constructor expressions joining
+ * users, classes and sessions in one statement, so no entity or lazy proxy is ever loaded.
+ */
+public class StudentRepositoryCustomImpl implements StudentRepositoryCustom {
+
+    // Above this many rows an unfiltered listing reports the planner's estimate instead of COUNT(*)
+    private static final long EXACT_COUNT_THRESHOLD = 10_000;
+
+    // Keyed by DIRECTORY_SORT_FIELDS
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "id", "s.id",
+            "firstName", "s.firstName",
+            "lastName", "s.lastName",
+            "admissionDate", "s.admissionDate",
+            "className", "c.name");
+
+    private static final String SELECT = "SELECT new com.fullstack.schoolmanagement.dto.StudentDTO(" +
+            "s.id, s.firstName, s.lastName, u.email, s.phone, s.dateOfBirth, s.gender, s.admissionDate, " +
+            "c.id, c.name, se.id, u.userId, s.address, s.isActive) " +
+            "FROM Student s LEFT JOIN s.user u LEFT JOIN s.schoolClass c LEFT JOIN s.session se";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<StudentDTO> findDirectory(Long classId, Boolean active, String namePrefix) {
+        Map<String, Object> params = new HashMap<>();
+        String where = buildWhere(classId, active, namePrefix, params);
+        TypedQuery<StudentDTO> query = entityManager.createQuery(SELECT + where + " ORDER BY s.id", StudentDTO.class);
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    @Override
+    public PagedResponse<StudentDTO> findDirectoryPage(Long classId, Boolean active, String namePrefix,
+                                                       int page, int size, String sortField, boolean ascending) {
+        Map<String, Object> params = new HashMap<>();
+        String where = buildWhere(classId, active, namePrefix, params);
+        String sortColumn = SORT_FIELDS.get(sortField);
+        if (sortColumn == null) {
+            throw new IllegalArgumentException("Unknown sort field: " + sortField);
+        }
+        String orderBy = sortColumn + (ascending ? " ASC" : " DESC");
+        // Tie-break on id so pages are stable when the sort key has duplicates
+        if (!orderBy.startsWith("s.id")) {
+            orderBy += ", s.id ASC";
+        }
+
+        TypedQuery<StudentDTO> query = entityManager.createQuery(SELECT + where + " ORDER BY " + orderBy, StudentDTO.class);
+        params.forEach(query::setParameter);
+        long offset = (long) page * size;
+        query.setFirstResult(Math.toIntExact(offset));
+        query.setMaxResults(size);
+        List<StudentDTO> content = query.getResultList();
+
+        if (content.size() < size && (!content.isEmpty() || page == 0)) {
+            // Last page reached: the total is known without counting
+            return new PagedResponse<>(content, page, size, offset + content.size(), false);
+        }
+        if (params.isEmpty()) {
+            long estimate = estimateRowCount();
+            if (estimate > EXACT_COUNT_THRESHOLD) {
+                return new PagedResponse<>(content, page, size, estimate, true);
+            }
+        }
+        TypedQuery<Long> countQuery = entityManager.createQuery(
+                "SELECT COUNT(s) FROM Student s LEFT JOIN s.schoolClass c" + where, Long.class);
+        params.forEach(countQuery::setParameter);
+        return new PagedResponse<>(content, page, size, countQuery.getSingleResult(), false);
+    }
+
+    private String buildWhere(Long classId, Boolean active, String namePrefix, Map<String, Object> params) {
+        StringBuilder where = new StringBuilder();
+        if (classId != null) {
+            where.append(" AND c.id = :classId");
+            params.put("classId", classId);
+        }
+        if (active != null) {
+            where.append(" AND s.isActive = :active");
+            params.put("active", active);
+        }
+        if (namePrefix != null && !namePrefix.isBlank()) {
+            // Prefix match only, served by the lower(name) text_pattern_ops indexes (V14); a leading
+            // wildcard would rule them out
+            where.append(" AND (LOWER(s.firstName) LIKE :namePrefix ESCAPE '\\' OR LOWER(s.lastName) LIKE :namePrefix ESCAPE '\\')");
+            params.put("namePrefix", escapeLike(namePrefix.trim().toLowerCase()) + "%");
+        }
+        return where.length() == 0 ? "" : " WHERE" + where.substring(4);
+    }
+
+    private long estimateRowCount() {
+        // Resolved through the search_path, so the current tenant's table
+        Long estimate = (Long) entityManager.createNativeQuery(
+                "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('students' AS regclass)", Long.class)
+                .getSingleResult();
+        return estimate != null ? estimate : 0L;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
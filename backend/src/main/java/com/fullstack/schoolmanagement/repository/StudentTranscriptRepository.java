@@ -0,0 +1,21 @@
+package com.fullstack.schoolmanagement.repository;
+
+import com.fullstack.schoolmanagement.entity.StudentTranscript;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+
+public interface StudentTranscriptRepository extends JpaRepository<StudentTranscript, Long> {
+
+    // Dropped rows are rebuilt from exam_results on next read
+    @Modifying
+    @Query("DELETE FROM StudentTranscript t WHERE t.studentId IN :studentIds")
+    void deleteByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+
+    @Modifying
+    @Query("DELETE FROM StudentTranscript t")
+    void deleteAllInBulk();
+}
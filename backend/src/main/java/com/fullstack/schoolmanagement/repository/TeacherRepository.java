@@ -2,6 +2,8 @@ package com.fullstack.schoolmanagement.repository;
 
 import com.fullstack.schoolmanagement.entity.Teacher;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +15,7 @@ public interface TeacherRepository extends JpaRepository<Teacher, Long> {
     List<Teacher> findBySpecialization(String specialization);
     List<Teacher> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName);
     Optional<Teacher> findByUser_UserId(String userId);
+
+    @Query("SELECT COUNT(t) > 0 FROM Teacher t JOIN t.assignedClasses c WHERE t.user.userId = :userId AND c.id = :classId")
+    boolean isAssignedToClass(@Param("userId") String userId, @Param("classId") Long classId);
 }
\ No newline at end of file
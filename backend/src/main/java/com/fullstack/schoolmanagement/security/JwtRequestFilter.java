@@ -13,50 +13,83 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import com.fullstack.schoolmanagement.logging.RequestLoggingFilter;
+import com.fullstack.schoolmanagement.service.TenantService;
+import com.fullstack.schoolmanagement.tenant.TenantContext;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtRequestFilter.class);
 
+    // Picks the school for requests without a token, such as login
+    public static final String TENANT_HEADER = "X-Tenant-ID";
+
     @Autowired
     private com.fullstack.schoolmanagement.security.UserDetailsServiceImpl userDetailsService;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TenantService tenantService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
         // Get the Authorization header from the request
         final String authorizationHeader = request.getHeader("Authorization");
-        logger.info("Processing request: {} {}", request.getMethod(), request.getRequestURI());
 
         String username = null;
         String jwt = null;
+        String tenant = request.getHeader(TENANT_HEADER);
 
         // Check if header contains a Bearer token
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7); // Extract token string (remove "Bearer ")
             try {
                 username = jwtUtil.extractUsername(jwt); // Extract username from token
-                logger.info("Extracted username from JWT: {}", username);
+                tenant = jwtUtil.extractTenant(jwt); // The token's school wins over the header
+                logger.debug("Extracted username from JWT: {}", username);
             } catch (Exception e) {
                 logger.warn("JWT token processing error: " + e.getMessage());
             }
         } else {
-            logger.warn("No Authorization header or invalid format for request: {} {}", request.getMethod(), request.getRequestURI());
+            logger.debug("No Authorization header or invalid format for request: {} {}", request.getMethod(), request.getRequestURI());
         }
 
+        if (tenant == null || tenant.isBlank()) {
+            tenant = TenantContext.DEFAULT;
+        } else if (!tenantService.isKnown(tenant)) {
+            byte[] body = ("{\"message\":\"Unknown tenant: " + (TenantContext.isValidId(tenant) ? tenant : "?") + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.setContentType("application/json");
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            return;
+        }
+        // Every query of this request goes to the tenant's schema
+        TenantContext.setTenant(tenant);
+        try {
+            authenticate(request, username, jwt);
+            // Continue the filter chain (pass the request to next filter/controller)
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private void authenticate(HttpServletRequest request, String username, String jwt) {
         // If a username was extracted and no authentication is set in the context
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
             // Load user details from database or memory
             UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            logger.info("Loaded user details for {} with authorities: {}", username, userDetails.getAuthorities());
 
             // Validate the token
             if (jwtUtil.validateToken(jwt, userDetails)) {
@@ -69,17 +102,13 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
                 // Set the authentication in the Security Context
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-                logger.info("Authentication set for user: {} with authorities: {}", username, userDetails.getAuthorities());
+                request.setAttribute(RequestLoggingFilter.PRINCIPAL_ATTRIBUTE, username);
+                logger.debug("Authentication set for user: {}", username);
             } else {
                 logger.warn("JWT token validation failed for user: {}", username);
             }
-        } else if (username == null) {
-            logger.warn("No username extracted from JWT for request: {} {}", request.getMethod(), request.getRequestURI());
-        } else {
-            logger.info("Authentication already exists for user: {}", username);
+        } else if (username != null) {
+            logger.debug("Authentication already exists for user: {}", username);
         }
-
-        // Continue the filter chain (pass the request to next filter/controller)
-        chain.doFilter(request, response);
     }
 }
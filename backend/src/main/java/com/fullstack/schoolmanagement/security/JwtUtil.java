@@ -2,6 +2,7 @@ package com.fullstack.schoolmanagement.security;
 
 import com.fullstack.schoolmanagement.entity.User;
 import com.fullstack.schoolmanagement.repository.UserRepository;
+import com.fullstack.schoolmanagement.tenant.TenantContext;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -37,6 +38,12 @@ public class JwtUtil {
         return extractClaim(token, Claims::getSubject);
     }
 
+    // Tokens issued before multi-tenancy belong to the original school
+    public String extractTenant(String token) {
+        String tenant = extractClaim(token, claims -> claims.get("tenant", String.class));
+        return tenant != null ? tenant : TenantContext.DEFAULT;
+    }
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
@@ -63,6 +70,7 @@ public class JwtUtil {
         claims.put("role", user.getRole());
         claims.put("userId", user.getUserId());
         claims.put("isActive", user.isActive());
+        claims.put("tenant", TenantContext.getTenant());
         
         return createToken(claims, user.getUserId());
     }
@@ -0,0 +1,63 @@
+package com.fullstack.schoolmanagement.security;
+
+import com.fullstack.schoolmanagement.config.RateLimitProperties;
+import com.fullstack.schoolmanagement.tenant.TenantContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Rejects requests over their route's limit with a 429 and Retry-After before any controller or
+ * BCrypt check runs. Runs right after JwtRequestFilter so authenticated callers are limited per
+ * principal (their user has already been loaded by then); anonymous callers such as login carry
+ * no token and are limited per client address before touching the database. In production the
+ * address comes from X-Forwarded-For only through trusted proxies (application-prod.properties).
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final byte[] TOO_MANY_REQUESTS_BODY =
+            "{\"message\":\"Too many requests. Please retry later.\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private TokenBucketRateLimiter rateLimiter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimitProperties.Rule rule = rateLimiter.match(request.getMethod(), request.getRequestURI());
+        if (rule != null) {
+            TokenBucketRateLimiter.Decision decision = rateLimiter.tryAcquire(rule, resolveKey(request));
+            if (!decision.allowed()) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.setContentLength(TOO_MANY_REQUESTS_BODY.length);
+                response.getOutputStream().write(TOO_MANY_REQUESTS_BODY);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private String resolveKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && authentication.getName() != null) {
+            // User ids are only unique within a school
+            return "user:" + TenantContext.getTenant() + "/" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -2,6 +2,8 @@ package com.fullstack.schoolmanagement.security;
 
 import com.fullstack.schoolmanagement.security.JwtRequestFilter;
 import com.fullstack.schoolmanagement.security.UserDetailsServiceImpl;
+import com.fullstack.schoolmanagement.idempotency.IdempotencyFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -25,6 +27,12 @@ public class SecurityConfig {
     @Autowired
     private JwtRequestFilter jwtRequestFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
+
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
@@ -42,15 +50,18 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (SSE streams) were authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers("/api/v1/health", "/api/v1/ping").permitAll()
                         .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/v1/teachers/**").hasRole("ADMIN")
                         .requestMatchers("/api/v1/students/**").hasAnyRole("ADMIN", "TEACHER")
                         .requestMatchers("/api/v1/courses/**").hasAnyRole("ADMIN", "TEACHER")
                         .requestMatchers("/api/v1/classes/**").hasAnyRole("ADMIN", "TEACHER", "STUDENT")
-                        .requestMatchers("/api/v1/exam-results/mine").hasRole("STUDENT")
+                        .requestMatchers("/api/v1/exam-results/mine/**").hasRole("STUDENT")
                         .requestMatchers("/api/v1/exam-results/**").hasAnyRole("ADMIN", "TEACHER")
                         .requestMatchers("/api/periods/**").hasAnyRole("ADMIN", "TEACHER")
                         .requestMatchers("/api/attendance/**").hasAnyRole("ADMIN", "TEACHER", "STUDENT")
@@ -59,6 +70,8 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
         http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(rateLimitFilter, JwtRequestFilter.class);
+        http.addFilterAfter(idempotencyFilter, RateLimitFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,112 @@
+package com.fullstack.schoolmanagement.security;
+
+import com.fullstack.schoolmanagement.config.RateLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process token buckets keyed by (rule, principal or client IP).
+ * Each bucket is a single AtomicLong holding the GCRA "theoretical arrival time", which is
+ * equivalent to a token bucket of the configured capacity and refill rate but can be
+ * updated with one compare-and-set, so no locks are taken on the request path.
+ */
+@Component
+public class TokenBucketRateLimiter {
+
+    public record Decision(boolean allowed, long retryAfterSeconds) {}
+
+    private static final Decision ALLOWED = new Decision(true, 0);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> allowedCounts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> rejectedCounts = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    /**
+     * Returns the first rule matching the request, or null when the request is not limited.
+     */
+    public RateLimitProperties.Rule match(String method, String path) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            if ((rule.getMethod() == null || rule.getMethod().equalsIgnoreCase(method))
+                    && pathMatcher.match(rule.getPath(), path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    public Decision tryAcquire(RateLimitProperties.Rule rule, String key) {
+        long now = System.nanoTime();
+        long interval = 60_000_000_000L / Math.max(1, rule.getRefillPerMinute());
+        long burstTolerance = interval * Math.max(0, rule.getCapacity() - 1);
+
+        AtomicLong tat = buckets.computeIfAbsent(rule.getName() + "|" + key, k -> new AtomicLong(now));
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, now);
+            long next = base + interval;
+            if (next - now > burstTolerance + interval) {
+                counter(rejectedCounts, rule.getName()).incrementAndGet();
+                long waitNanos = next - now - burstTolerance - interval;
+                return new Decision(false, Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L));
+            }
+            if (tat.compareAndSet(current, next)) {
+                counter(allowedCounts, rule.getName()).incrementAndGet();
+                evictIdleIfNeeded(now);
+                return ALLOWED;
+            }
+        }
+    }
+
+    /**
+     * Snapshot of limiter state for the actuator endpoint.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> rules = new LinkedHashMap<>();
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("method", rule.getMethod());
+            state.put("path", rule.getPath());
+            state.put("capacity", rule.getCapacity());
+            state.put("refillPerMinute", rule.getRefillPerMinute());
+            state.put("allowed", counter(allowedCounts, rule.getName()).get());
+            state.put("rejected", counter(rejectedCounts, rule.getName()).get());
+            rules.put(rule.getName(), state);
+        }
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", properties.isEnabled());
+        snapshot.put("trackedKeys", buckets.size());
+        snapshot.put("rules", rules);
+        return snapshot;
+    }
+
+    private void evictIdleIfNeeded(long now) {
+        if (buckets.size() <= properties.getMaxTrackedKeys() || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // A bucket whose arrival time has passed is full again and carries no state worth keeping
+            buckets.values().removeIf(tat -> tat.get() <= now);
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static AtomicLong counter(Map<String, AtomicLong> counters, String name) {
+        return counters.computeIfAbsent(name, k -> new AtomicLong());
+    }
+}
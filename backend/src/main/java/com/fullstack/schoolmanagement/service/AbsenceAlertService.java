@@ -0,0 +1,209 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fullstack.schoolmanagement.notification.AbsenceAlertSender;
+import com.fullstack.schoolmanagement.notification.AbsenceDigest;
+import com.fullstack.schoolmanagement.outbox.AttendanceMarked;
+import com.fullstack.schoolmanagement.outbox.OutboxConsumer;
+import com.fullstack.schoolmanagement.outbox.OutboxEvent;
+import com.fullstack.schoolmanagement.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells a student's contacts about absences without slowing down roll call. Roll calls reach this
+ * service through the outbox; every absent period becomes a pending alert row, and marking the
+ * student present again before delivery withdraws it. A student's pending alerts for a day are
+ * sent together as one digest once none of them changed for the debounce window, so re-marked
+ * roll calls and consecutive periods collapse into a single message.
+ *
+ * Delivery locks the day's rows with SKIP LOCKED, so each digest is sent by one node; a failing
+ * sender leaves them pending for the next run. Absences corrected after delivery are not retracted.
+ */
+@Service
+public class AbsenceAlertService implements OutboxConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbsenceAlertService.class);
+
+    private static final String ABSENT_SQL =
+            "INSERT INTO absence_alerts (student_id, attendance_date, period_id, absent, created_at, changed_at) " +
+            // The student or period may have been deleted since the roll call
+            "SELECT ?, ?, ?, true, now(), now() WHERE EXISTS (SELECT 1 FROM students WHERE id = ?) " +
+            "AND EXISTS (SELECT 1 FROM periods WHERE id = ?) " +
+            "ON CONFLICT (student_id, attendance_date, period_id) DO UPDATE SET absent = true, changed_at = now() " +
+            "WHERE absence_alerts.delivered_at IS NULL AND NOT absence_alerts.absent";
+    private static final String PRESENT_SQL =
+            "UPDATE absence_alerts SET absent = false, changed_at = now() " +
+            "WHERE student_id = ? AND attendance_date = ? AND period_id = ? AND delivered_at IS NULL AND absent";
+    private static final String DUE_SQL =
+            "SELECT student_id, attendance_date FROM absence_alerts WHERE delivered_at IS NULL " +
+            "GROUP BY student_id, attendance_date HAVING max(changed_at) <= now() - ? * interval '1 millisecond' LIMIT ?";
+    private static final String LOCK_SQL =
+            "SELECT a.id, a.absent, a.changed_at > now() - ? * interval '1 millisecond' AS unsettled, " +
+            "EXTRACT(EPOCH FROM now() - a.created_at) * 1000 AS age_ms, p.period_number, p.start_time, c.course_name " +
+            "FROM absence_alerts a JOIN periods p ON p.id = a.period_id JOIN courses c ON c.id = p.course_id " +
+            "WHERE a.student_id = ? AND a.attendance_date = ? AND a.delivered_at IS NULL " +
+            "ORDER BY p.period_number FOR UPDATE OF a SKIP LOCKED";
+    private static final String CONTACT_SQL =
+            "SELECT s.first_name, s.last_name, s.phone, u.email, cl.name AS class_name FROM students s " +
+            "LEFT JOIN users u ON u.user_id = s.user_id LEFT JOIN classes cl ON cl.id = s.class_id WHERE s.id = ?";
+
+    private record PendingAlert(long id, boolean absent, boolean unsettled, long ageMillis, AbsenceDigest.MissedPeriod period) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private TenantService tenantService;
+    @Autowired
+    private AbsenceAlertSender sender;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.absence-alerts.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.absence-alerts.debounce-ms:900000}")
+    private long debounceMillis;
+
+    @Value("${app.absence-alerts.batch-size:500}")
+    private int batchSize;
+
+    // Pending absent periods per tenant as of each tenant's last delivery run
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private Timer deliveryLatency;
+    private Counter digestsSent;
+    private Counter digestsFailed;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("absence.alerts.pending", pending, p -> p.values().stream().mapToLong(Long::longValue).sum())
+                .description("Absent periods waiting to be sent in a digest")
+                .register(meterRegistry);
+        deliveryLatency = Timer.builder("absence.alerts.delivery.latency")
+                .description("Time from an absence being recorded to its digest being sent, including the debounce window")
+                .register(meterRegistry);
+        digestsSent = Counter.builder("absence.alerts.digests.sent").register(meterRegistry);
+        digestsFailed = Counter.builder("absence.alerts.digests.failed").register(meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return "absence-alerts";
+    }
+
+    @Override
+    public Set<Class<? extends OutboxEvent>> eventTypes() {
+        return enabled ? Set.of(AttendanceMarked.class) : Set.of();
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        AttendanceMarked marked = (AttendanceMarked) event;
+        Date date = Date.valueOf(marked.attendanceDate());
+        List<Object[]> absent = new ArrayList<>();
+        List<Object[]> present = new ArrayList<>();
+        for (AttendanceMarked.Mark mark : marked.marks()) {
+            if (!mark.present()) {
+                absent.add(new Object[]{mark.studentId(), date, marked.periodId(), mark.studentId(), marked.periodId()});
+            } else if (Boolean.FALSE.equals(mark.previouslyPresent())) {
+                present.add(new Object[]{mark.studentId(), date, marked.periodId()});
+            }
+        }
+        if (!absent.isEmpty()) {
+            jdbcTemplate.batchUpdate(ABSENT_SQL, absent);
+        }
+        if (!present.isEmpty()) {
+            jdbcTemplate.batchUpdate(PRESENT_SQL, present);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.absence-alerts.delivery-interval-ms:30000}")
+    public void deliverDigests() {
+        if (enabled) {
+            tenantService.forEachTenant(this::deliverDue);
+        }
+    }
+
+    private void deliverDue() {
+        List<Object[]> due = jdbcTemplate.query(DUE_SQL, (rs, i) -> new Object[]{
+                rs.getLong("student_id"), rs.getDate("attendance_date").toLocalDate()}, debounceMillis, batchSize);
+        int sent = 0;
+        for (Object[] studentDay : due) {
+            try {
+                if (deliver((Long) studentDay[0], (LocalDate) studentDay[1])) {
+                    sent++;
+                }
+            } catch (RuntimeException e) {
+                digestsFailed.increment();
+                logger.warn("Absence digest for student {} on {} failed; retrying on the next run: {}",
+                        studentDay[0], studentDay[1], e.getMessage());
+            }
+        }
+        if (sent > 0) {
+            logger.info("Sent {} absence digests", sent);
+        }
+        pending.put(TenantContext.getTenant(), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM absence_alerts WHERE delivered_at IS NULL AND absent", Long.class));
+    }
+
+    // Sends one student-day under row locks; false when another node has it or nothing is left to send
+    private boolean deliver(Long studentId, LocalDate date) {
+        return Boolean.TRUE.equals(new TransactionTemplate(transactionManager).execute(status -> {
+            List<PendingAlert> alerts = jdbcTemplate.query(LOCK_SQL, (rs, i) -> new PendingAlert(rs.getLong("id"),
+                    rs.getBoolean("absent"), rs.getBoolean("unsettled"), rs.getLong("age_ms"), new AbsenceDigest.MissedPeriod(
+                            rs.getInt("period_number"), rs.getTime("start_time").toLocalTime(), rs.getString("course_name"))),
+                    debounceMillis, studentId, Date.valueOf(date));
+            // A period may have been re-marked since the due check
+            if (alerts.isEmpty() || alerts.stream().anyMatch(PendingAlert::unsettled)) {
+                return false;
+            }
+
+            List<Object[]> withdrawn = alerts.stream().filter(a -> !a.absent()).map(a -> new Object[]{a.id()}).toList();
+            if (!withdrawn.isEmpty()) {
+                jdbcTemplate.batchUpdate("DELETE FROM absence_alerts WHERE id = ?", withdrawn);
+            }
+            List<PendingAlert> absences = alerts.stream().filter(PendingAlert::absent).toList();
+            if (absences.isEmpty()) {
+                return false;
+            }
+
+            AbsenceDigest digest = jdbcTemplate.queryForObject(CONTACT_SQL, (rs, i) -> new AbsenceDigest(
+                    TenantContext.getTenant(), studentId, rs.getString("first_name") + " " + rs.getString("last_name"),
+                    rs.getString("class_name"), rs.getString("email"), rs.getString("phone"), date,
+                    absences.stream().map(PendingAlert::period).toList()), studentId);
+            try {
+                sender.send(digest);
+            } catch (Exception e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+
+            jdbcTemplate.batchUpdate("UPDATE absence_alerts SET delivered_at = now() WHERE id = ?",
+                    absences.stream().map(a -> new Object[]{a.id()}).toList());
+            deliveryLatency.record(Duration.ofMillis(absences.stream().mapToLong(PendingAlert::ageMillis).max().orElseThrow()));
+            digestsSent.increment();
+            return true;
+        }));
+    }
+}
@@ -2,11 +2,15 @@ package com.fullstack.schoolmanagement.service;
 
 import com.fullstack.schoolmanagement.entity.AcademicSession;
 import com.fullstack.schoolmanagement.repository.AcademicSessionRepository;
+import com.fullstack.schoolmanagement.tenant.TenantScoped;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 @Service
 public class AcademicSessionService {
@@ -14,6 +18,13 @@ public class AcademicSessionService {
     @Autowired
     private AcademicSessionRepository academicSessionRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    private record CachedSessions(long version, List<AcademicSession> sessions) {}
+
+    private final TenantScoped<AtomicReference<CachedSessions>> cachedSessions = new TenantScoped<>(AtomicReference::new);
+
     public List<AcademicSession> getAllAcademicSessions() {
         return academicSessionRepository.findAll();
     }
@@ -23,7 +34,9 @@ public class AcademicSessionService {
     }
 
     public AcademicSession createAcademicSession(AcademicSession academicSession) {
-        return academicSessionRepository.save(academicSession);
+        AcademicSession saved = academicSessionRepository.save(academicSession);
+        referenceDataCache.bump(ReferenceDataCache.Resource.ACADEMIC_SESSIONS);
+        return saved;
     }
 
     public AcademicSession updateAcademicSession(Long id, AcademicSession updatedAcademicSession) {
@@ -33,13 +46,34 @@ public class AcademicSessionService {
                     session.setStartDate(updatedAcademicSession.getStartDate());
                     session.setEndDate(updatedAcademicSession.getEndDate());
                     session.setCurrentSession(updatedAcademicSession.isCurrentSession());
-                    return academicSessionRepository.save(session);
+                    AcademicSession saved = academicSessionRepository.save(session);
+                    referenceDataCache.bump(ReferenceDataCache.Resource.ACADEMIC_SESSIONS);
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Academic Session not found with id " + id));
     }
 
     public void deleteAcademicSession(Long id) {
         academicSessionRepository.deleteById(id);
+        referenceDataCache.bump(ReferenceDataCache.Resource.ACADEMIC_SESSIONS);
+    }
+
+    /**
+     * Sessions whose date range contains the given date. Served from an in-memory copy that is
+     * reloaded whenever the session version in {@link ReferenceDataCache} moves.
+     */
+    public List<AcademicSession> findSessionsContaining(LocalDate date) {
+        if (date == null) return List.of();
+        long version = referenceDataCache.version(ReferenceDataCache.Resource.ACADEMIC_SESSIONS);
+        AtomicReference<CachedSessions> holder = cachedSessions.get();
+        CachedSessions cached = holder.get();
+        if (cached == null || cached.version() != version) {
+            cached = new CachedSessions(version, List.copyOf(academicSessionRepository.findAll()));
+            holder.set(cached);
+        }
+        return cached.sessions().stream()
+                .filter(s -> !date.isBefore(s.getStartDate()) && !date.isAfter(s.getEndDate()))
+                .collect(Collectors.toList());
     }
 
     public Optional<AcademicSession> getCurrentAcademicSession() {
@@ -0,0 +1,70 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fullstack.schoolmanagement.archive.ArchivedAttendance;
+import com.fullstack.schoolmanagement.archive.ArchivedExamResult;
+import com.fullstack.schoolmanagement.archive.SegmentReader;
+import com.fullstack.schoolmanagement.entity.ArchiveSegment;
+import com.fullstack.schoolmanagement.repository.ArchiveSegmentRepository;
+import com.fullstack.schoolmanagement.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read path of the cold archive: serves one student's archived rows straight from the segment
+ * files, decompressing only the blocks that hold that student. Segments of other tenants than
+ * the original school live in a sub-directory named after the tenant.
+ */
+@Service
+public class ArchiveQueryService {
+
+    @Autowired
+    private ArchiveSegmentRepository archiveSegmentRepository;
+
+    @Value("${app.archive.directory:archive}")
+    private String directory;
+
+    public List<ArchivedAttendance> findAttendance(Long studentId, LocalDate from, LocalDate to) {
+        List<ArchivedAttendance> rows = new ArrayList<>();
+        for (ArchiveSegment segment : archiveSegmentRepository
+                .findByKindAndFirstDateLessThanEqualAndLastDateGreaterThanEqual(ArchiveSegment.Kind.ATTENDANCE, to, from)) {
+            for (ArchivedAttendance row : read(segment, studentId, ArchivedAttendance::read)) {
+                if (!row.attendanceDate().isBefore(from) && !row.attendanceDate().isAfter(to)) {
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    public List<ArchivedExamResult> findExamResults(Long studentId) {
+        List<ArchivedExamResult> rows = new ArrayList<>();
+        for (ArchiveSegment segment : archiveSegmentRepository.findByKind(ArchiveSegment.Kind.EXAM_RESULTS)) {
+            rows.addAll(read(segment, studentId, ArchivedExamResult::read));
+        }
+        return rows;
+    }
+
+    Path resolve(String relativePath) {
+        Path root = Path.of(directory);
+        if (!TenantContext.isDefault()) {
+            root = root.resolve("tenant-" + TenantContext.getTenant());
+        }
+        return root.resolve(relativePath);
+    }
+
+    private <T> List<T> read(ArchiveSegment segment, Long studentId, SegmentReader.RowReader<T> rowReader) {
+        try {
+            return SegmentReader.readStudent(resolve(segment.getPath()), studentId, rowReader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Archive segment " + segment.getPath() + " is unreadable", e);
+        }
+    }
+}
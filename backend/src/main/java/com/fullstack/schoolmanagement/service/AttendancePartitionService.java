@@ -0,0 +1,145 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fullstack.schoolmanagement.tenant.TenantContext;
+import com.fullstack.schoolmanagement.tenant.TenantScoped;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Manages the monthly partitions of the attendance table (see V5 migration). Partitions are
+ * created a few months ahead on a schedule, and on demand for dates outside that window.
+ * When a retention period is configured, whole months past it are detached and dropped instead
+ * of being deleted row by row. Every tenant schema has its own attendance table and partitions.
+ */
+@Service
+public class AttendancePartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendancePartitionService.class);
+
+    private static final String PREFIX = "attendance_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'attendance'::regclass";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Value("${app.attendance.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.attendance.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    private static final class Partitions {
+        private final Set<YearMonth> months = ConcurrentHashMap.newKeySet();
+        private volatile boolean loaded;
+    }
+
+    private final TenantScoped<Partitions> tenantPartitions = new TenantScoped<>(Partitions::new);
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.attendance.partitions.cron:0 15 2 * * *}")
+    public void maintain() {
+        tenantService.forEachTenant(this::maintainTenant);
+    }
+
+    private void maintainTenant() {
+        Partitions partitions = tenantPartitions.get();
+        reload(partitions);
+        YearMonth current = YearMonth.now();
+        ensurePartitions(current.atDay(1), current.plusMonths(monthsAhead).atDay(1));
+        if (retentionMonths > 0) {
+            dropBefore(partitions, current.minusMonths(retentionMonths));
+        }
+    }
+
+    public void ensurePartitionFor(LocalDate date) {
+        ensurePartition(YearMonth.from(date));
+    }
+
+    public void ensurePartitions(LocalDate from, LocalDate to) {
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            ensurePartition(month);
+        }
+    }
+
+    private void ensurePartition(YearMonth month) {
+        Partitions partitions = tenantPartitions.get();
+        if (!partitions.loaded) {
+            reload(partitions);
+        }
+        if (partitions.months.contains(month)) {
+            return;
+        }
+        synchronized (this) {
+            if (partitions.months.contains(month)) {
+                return;
+            }
+            String sql = String.format("CREATE TABLE IF NOT EXISTS %s PARTITION OF attendance FOR VALUES FROM ('%s') TO ('%s')",
+                    name(month), month.atDay(1), month.plusMonths(1).atDay(1));
+            inNewTransaction(() -> jdbcTemplate.execute(sql));
+            partitions.months.add(month);
+            logger.info("Created attendance partition {} of tenant {}", name(month), TenantContext.getTenant());
+        }
+    }
+
+    private synchronized void dropBefore(Partitions partitions, YearMonth cutoff) {
+        List<YearMonth> expired = partitions.months.stream().filter(month -> month.isBefore(cutoff)).sorted().toList();
+        for (YearMonth month : expired) {
+            inNewTransaction(() -> {
+                jdbcTemplate.execute("ALTER TABLE attendance DETACH PARTITION " + name(month));
+                jdbcTemplate.execute("DROP TABLE " + name(month));
+            });
+            partitions.months.remove(month);
+            logger.info("Dropped attendance partition {} of tenant {} (older than {} months)",
+                    name(month), TenantContext.getTenant(), retentionMonths);
+        }
+    }
+
+    // Picks up partitions created or dropped by other instances
+    private synchronized void reload(Partitions partitions) {
+        List<String> names = jdbcTemplate.queryForList(PARTITIONS_SQL, String.class);
+        partitions.months.clear();
+        for (String name : names) {
+            if (name.startsWith(PREFIX)) {
+                partitions.months.add(YearMonth.parse(name.substring(PREFIX.length()), SUFFIX));
+            }
+        }
+        partitions.loaded = true;
+    }
+
+    // DDL runs in its own short transaction so a caller's transaction never holds the parent-table lock
+    private void inNewTransaction(Runnable ddl) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.executeWithoutResult(status -> ddl.run());
+    }
+
+    private static String name(YearMonth month) {
+        return PREFIX + month.format(SUFFIX);
+    }
+}
@@ -1,22 +1,47 @@
 package com.fullstack.schoolmanagement.service;
 
+import com.fullstack.schoolmanagement.VersionConflictException;
+import com.fullstack.schoolmanagement.archive.ArchivedAttendance;
 import com.fullstack.schoolmanagement.dto.AttendanceDTO;
 import com.fullstack.schoolmanagement.dto.AttendanceMarkRequest;
 import com.fullstack.schoolmanagement.entity.*;
+import com.fullstack.schoolmanagement.outbox.AttendanceMarked;
 import com.fullstack.schoolmanagement.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class AttendanceService {
 
+    private static final String LOCK_ROLL_CALL_SQL =
+        "SELECT id, student_id, present, version FROM attendance " +
+        "WHERE class_id = ? AND course_id = ? AND period_id = ? AND attendance_date = ? FOR UPDATE";
+    // Inserts the mark, or updates it if it is still at the expected version (-1 when there was none)
+    private static final String UPSERT_SQL =
+        "INSERT INTO attendance (student_id, class_id, course_id, period_id, attendance_date, present, marked_by, remarks, version) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0) " +
+        "ON CONFLICT (student_id, class_id, course_id, period_id, attendance_date) DO UPDATE SET " +
+        "present = EXCLUDED.present, marked_by = EXCLUDED.marked_by, remarks = EXCLUDED.remarks, version = attendance.version + 1 " +
+        "WHERE attendance.version = ? RETURNING id, present, version";
+
+    // A stored mark as read under the roll call lock or written by UPSERT_SQL
+    private record StoredMark(long id, boolean present, long version) {}
+
     @Autowired
     private AttendanceRepository attendanceRepository;
 
@@ -35,8 +60,29 @@ public class AttendanceService {
     @Autowired
     private TeacherRepository teacherRepository;
 
+    @Autowired
+    private AttendancePartitionService attendancePartitionService;
+
+    @Autowired
+    private ArchiveQueryService archiveQueryService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private RollCallProgressService rollCallProgressService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Transactional
     public List<AttendanceDTO> markAttendance(AttendanceMarkRequest request, String teacherUserId) {
+        if (request.getAttendanceDate() == null) {
+            throw new IllegalArgumentException("Attendance date is required.");
+        }
+        // Back-dated or far-future roll calls may fall outside the pre-created partitions
+        attendancePartitionService.ensurePartitionFor(request.getAttendanceDate());
+
         SchoolClass schoolClass = classRepository.findById(request.getClassId())
             .orElseThrow(() -> new RuntimeException("Class not found"));
         
@@ -49,42 +95,80 @@ public class AttendanceService {
         Teacher teacher = teacherRepository.findByUser_UserId(teacherUserId)
             .orElseThrow(() -> new RuntimeException("Teacher not found"));
 
+        Map<Long, Student> students = byId(studentRepository.findAllById(request.getStudents().stream()
+            .map(AttendanceMarkRequest.StudentAttendance::getStudentId).filter(Objects::nonNull).toList()), Student::getId);
+
+        // Existing marks of this roll call, locked so their previous values stay accurate until commit
+        Date date = Date.valueOf(request.getAttendanceDate());
+        Map<Long, StoredMark> existing = new HashMap<>();
+        jdbcTemplate.query(LOCK_ROLL_CALL_SQL, rs -> {
+            existing.put(rs.getLong("student_id"), mark(rs));
+        }, schoolClass.getId(), course.getId(), period.getId(), date);
+
         List<Attendance> attendances = new ArrayList<>();
+        List<AttendanceMarked.Mark> marks = new ArrayList<>();
 
         for (AttendanceMarkRequest.StudentAttendance studentAtt : request.getStudents()) {
-            Student student = studentRepository.findById(studentAtt.getStudentId())
-                .orElseThrow(() -> new RuntimeException("Student not found"));
-
-            // Check if attendance already exists
-            Optional<Attendance> existingAttendance = attendanceRepository
-                .findByStudentIdAndSchoolClassIdAndCourseIdAndPeriodIdAndAttendanceDate(
-                    student.getId(), schoolClass.getId(), course.getId(), 
-                    period.getId(), request.getAttendanceDate());
-
-            Attendance attendance;
-            if (existingAttendance.isPresent()) {
-                attendance = existingAttendance.get();
-                attendance.setPresent(studentAtt.getPresent());
-                attendance.setRemarks(studentAtt.getRemarks());
-            } else {
-                attendance = new Attendance();
-                attendance.setStudent(student);
-                attendance.setSchoolClass(schoolClass);
-                attendance.setCourse(course);
-                attendance.setPeriod(period);
-                attendance.setAttendanceDate(request.getAttendanceDate());
-                attendance.setPresent(studentAtt.getPresent());
-                attendance.setRemarks(studentAtt.getRemarks());
+            Student student = students.get(studentAtt.getStudentId());
+            if (student == null) {
+                throw new RuntimeException("Student not found");
+            }
+
+            StoredMark current = existing.get(student.getId());
+            Long currentVersion = current != null ? current.version() : null;
+            if (studentAtt.getVersion() != null && !studentAtt.getVersion().equals(currentVersion)) {
+                throw conflict(student, current != null ? current.id() : null, currentVersion);
             }
+
+            // A mark that was not there when the roll call was locked must not overwrite a concurrent insert
+            List<StoredMark> written = jdbcTemplate.query(UPSERT_SQL, (rs, i) -> mark(rs),
+                student.getId(), schoolClass.getId(), course.getId(), period.getId(), date, studentAtt.getPresent(),
+                teacher.getId(), studentAtt.getRemarks(), currentVersion != null ? currentVersion : -1L);
+            if (written.isEmpty()) {
+                Map<String, Object> row = jdbcTemplate.queryForMap(
+                    "SELECT id, version FROM attendance WHERE student_id = ? AND class_id = ? AND course_id = ? " +
+                    "AND period_id = ? AND attendance_date = ?",
+                    student.getId(), schoolClass.getId(), course.getId(), period.getId(), date);
+                throw conflict(student, (Long) row.get("id"), (Long) row.get("version"));
+            }
+
+            Attendance attendance = new Attendance();
+            attendance.setId(written.get(0).id());
+            attendance.setVersion(written.get(0).version());
+            attendance.setStudent(student);
+            attendance.setSchoolClass(schoolClass);
+            attendance.setCourse(course);
+            attendance.setPeriod(period);
+            attendance.setAttendanceDate(request.getAttendanceDate());
+            attendance.setPresent(studentAtt.getPresent());
             attendance.setMarkedBy(teacher);
-            attendances.add(attendanceRepository.save(attendance));
+            attendance.setRemarks(studentAtt.getRemarks());
+            attendances.add(attendance);
+            marks.add(new AttendanceMarked.Mark(attendance.getId(), student.getId(),
+                Boolean.TRUE.equals(attendance.getPresent()), current != null ? current.present() : null));
+            // A student listed twice is updated by the second entry
+            existing.put(student.getId(), written.get(0));
         }
 
+        // Derived data (attendance counters, alerts) is updated from the outbox after commit
+        outboxService.publish(new AttendanceMarked(schoolClass.getId(), course.getId(), period.getId(),
+            request.getAttendanceDate(), teacher.getId(), marks));
+        rollCallProgressService.recordRollCall(period.getId(), request.getAttendanceDate());
+
         return attendances.stream()
             .map(this::convertToDTO)
             .collect(Collectors.toList());
     }
 
+    private static StoredMark mark(ResultSet rs) throws SQLException {
+        return new StoredMark(rs.getLong("id"), rs.getBoolean("present"), rs.getLong("version"));
+    }
+
+    private static VersionConflictException conflict(Student student, Long attendanceId, Long currentVersion) {
+        return new VersionConflictException("Attendance of " + student.getFirstName() + " " + student.getLastName()
+            + " was changed by someone else. Please reload the roll call.", attendanceId, currentVersion);
+    }
+
     public List<AttendanceDTO> getAttendanceByClassAndDate(Long classId, Long courseId, Long periodId, LocalDate date) {
         return attendanceRepository.findBySchoolClassIdAndCourseIdAndPeriodIdAndAttendanceDate(
             classId, courseId, periodId, date)
@@ -94,10 +178,62 @@ public class AttendanceService {
     }
 
     public List<AttendanceDTO> getStudentAttendance(Long studentId, LocalDate startDate, LocalDate endDate) {
-        return attendanceRepository.findByStudentIdAndAttendanceDateBetween(studentId, startDate, endDate)
+        List<AttendanceDTO> attendance = attendanceRepository.findByStudentIdAndAttendanceDateBetween(studentId, startDate, endDate)
             .stream()
             .map(this::convertToDTO)
             .collect(Collectors.toList());
+
+        // Closed sessions may have been moved to the cold archive
+        List<ArchivedAttendance> archived = archiveQueryService.findAttendance(studentId, startDate, endDate);
+        if (!archived.isEmpty()) {
+            attendance.addAll(convertArchivedToDTOs(archived));
+            attendance.sort(Comparator.comparing(AttendanceDTO::getAttendanceDate));
+        }
+        return attendance;
+    }
+
+    private List<AttendanceDTO> convertArchivedToDTOs(List<ArchivedAttendance> archived) {
+        Map<Long, Student> students = byId(studentRepository.findAllById(ids(archived, ArchivedAttendance::studentId)), Student::getId);
+        Map<Long, SchoolClass> classes = byId(classRepository.findAllById(ids(archived, ArchivedAttendance::classId)), SchoolClass::getId);
+        Map<Long, Course> courses = byId(courseRepository.findAllById(ids(archived, ArchivedAttendance::courseId)), Course::getId);
+        Map<Long, Period> periods = byId(periodRepository.findAllById(ids(archived, ArchivedAttendance::periodId)), Period::getId);
+        Map<Long, Teacher> teachers = byId(teacherRepository.findAllById(ids(archived, ArchivedAttendance::markedBy)), Teacher::getId);
+
+        // Referenced rows may have been deleted since; their names are then left empty
+        return archived.stream().map(row -> {
+            AttendanceDTO dto = new AttendanceDTO();
+            dto.setId(row.id());
+            dto.setStudentId(row.studentId());
+            Student student = students.get(row.studentId());
+            dto.setStudentName(student != null ? student.getFirstName() + " " + student.getLastName() : null);
+            dto.setClassId(row.classId());
+            SchoolClass schoolClass = classes.get(row.classId());
+            dto.setClassName(schoolClass != null ? schoolClass.getName() : null);
+            dto.setCourseId(row.courseId());
+            Course course = courses.get(row.courseId());
+            dto.setCourseName(course != null ? course.getCourseName() : null);
+            dto.setPeriodId(row.periodId());
+            Period period = periods.get(row.periodId());
+            if (period != null) {
+                dto.setPeriodName("Period " + period.getPeriodNumber() + " - " + period.getCourse().getCourseName());
+            }
+            dto.setAttendanceDate(row.attendanceDate());
+            dto.setPresent(row.present());
+            Teacher markedBy = row.markedBy() != null ? teachers.get(row.markedBy()) : null;
+            if (markedBy != null) {
+                dto.setMarkedByName(markedBy.getFirstName() + " " + markedBy.getLastName());
+            }
+            dto.setRemarks(row.remarks());
+            return dto;
+        }).collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(List<ArchivedAttendance> rows, Function<ArchivedAttendance, Long> id) {
+        return rows.stream().map(id).filter(Objects::nonNull).distinct().collect(Collectors.toList());
+    }
+
+    private static <T> Map<Long, T> byId(List<T> entities, Function<T, Long> id) {
+        return entities.stream().collect(Collectors.toMap(id, Function.identity()));
     }
 
     private AttendanceDTO convertToDTO(Attendance attendance) {
@@ -117,6 +253,7 @@ public class AttendanceService {
             dto.setMarkedByName(attendance.getMarkedBy().getFirstName() + " " + attendance.getMarkedBy().getLastName());
         }
         dto.setRemarks(attendance.getRemarks());
+        dto.setVersion(attendance.getVersion());
         return dto;
     }
 }
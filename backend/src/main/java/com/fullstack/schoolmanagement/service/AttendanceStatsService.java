@@ -0,0 +1,147 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fullstack.schoolmanagement.outbox.AttendanceMarked;
+import com.fullstack.schoolmanagement.outbox.OutboxConsumer;
+import com.fullstack.schoolmanagement.outbox.OutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lifetime attendance counters per student (periods marked, periods present), kept up to date
+ * from the outbox instead of counting attendance rows on every dashboard read. Counters lag a
+ * roll call by the outbox delay and keep counting sessions after they are archived.
+ */
+@Service
+public class AttendanceStatsService implements OutboxConsumer {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO student_attendance_stats (student_id, marked_count, present_count, updated_at) " +
+            "SELECT ?, ?, ?, now() WHERE EXISTS (SELECT 1 FROM students WHERE id = ?) " +
+            "ON CONFLICT (student_id) DO UPDATE SET " +
+            "marked_count = student_attendance_stats.marked_count + EXCLUDED.marked_count, " +
+            "present_count = student_attendance_stats.present_count + EXCLUDED.present_count, updated_at = now()";
+    // Waits for a handle() that already counted one of these students, and stops later ones until commit
+    private static final String LOCK_CLASS_STATS_SQL =
+            "SELECT student_id FROM student_attendance_stats " +
+            "WHERE student_id IN (SELECT student_id FROM attendance WHERE class_id = ?) ORDER BY student_id FOR UPDATE";
+    private static final String DROP_PENDING_SQL =
+            "DELETE FROM outbox_events WHERE consumer = ? AND event_type = ? " +
+            "AND CAST(payload AS jsonb) ->> 'classId' = ? RETURNING payload";
+    private static final String DELETE_CLASS_ATTENDANCE_SQL =
+            "WITH removed AS (DELETE FROM attendance WHERE class_id = ? RETURNING student_id, present) " +
+            "SELECT student_id, COUNT(*) AS marked, COUNT(*) FILTER (WHERE present) AS present FROM removed GROUP BY student_id";
+    private static final String SUBTRACT_SQL =
+            "UPDATE student_attendance_stats SET marked_count = marked_count - ?, present_count = present_count - ?, " +
+            "updated_at = now() WHERE student_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public String name() {
+        return "attendance-stats";
+    }
+
+    @Override
+    public Set<Class<? extends OutboxEvent>> eventTypes() {
+        return Set.of(AttendanceMarked.class);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        AttendanceMarked marked = (AttendanceMarked) event;
+        List<Object[]> deltas = new ArrayList<>(marked.marks().size());
+        for (AttendanceMarked.Mark mark : marked.marks()) {
+            int[] delta = delta(mark);
+            if (delta[0] != 0 || delta[1] != 0) {
+                deltas.add(new Object[]{mark.studentId(), delta[0], delta[1], mark.studentId()});
+            }
+        }
+        if (!deltas.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, deltas);
+        }
+    }
+
+    // Marked and present counts a mark adds; a re-marked period only moves between present and absent
+    private static int[] delta(AttendanceMarked.Mark mark) {
+        return new int[]{mark.previouslyPresent() == null ? 1 : 0,
+                (mark.present() ? 1 : 0) - (Boolean.TRUE.equals(mark.previouslyPresent()) ? 1 : 0)};
+    }
+
+    /**
+     * Deletes every roll-call mark of a class and takes them off the counters. Roll calls of the
+     * class still waiting in the outbox are dropped with them, so only what the counters already
+     * hold is subtracted and nothing is added back once the rows are gone. Returns the number of
+     * marks deleted.
+     */
+    @Transactional
+    public int deleteClassAttendance(Long classId) {
+        jdbcTemplate.queryForList(LOCK_CLASS_STATS_SQL, Long.class, classId);
+        Map<Long, int[]> subtract = new HashMap<>();
+        for (String payload : jdbcTemplate.queryForList(DROP_PENDING_SQL, String.class, name(),
+                AttendanceMarked.class.getSimpleName(), String.valueOf(classId))) {
+            AttendanceMarked pending;
+            try {
+                pending = objectMapper.readValue(payload, AttendanceMarked.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not read pending roll call " + payload, e);
+            }
+            for (AttendanceMarked.Mark mark : pending.marks()) {
+                int[] delta = delta(mark);
+                int[] total = subtract.computeIfAbsent(mark.studentId(), id -> new int[2]);
+                total[0] -= delta[0];
+                total[1] -= delta[1];
+            }
+        }
+        int deleted = 0;
+        for (Map<String, Object> row : jdbcTemplate.queryForList(DELETE_CLASS_ATTENDANCE_SQL, classId)) {
+            int marked = ((Number) row.get("marked")).intValue();
+            int[] total = subtract.computeIfAbsent(((Number) row.get("student_id")).longValue(), id -> new int[2]);
+            total[0] += marked;
+            total[1] += ((Number) row.get("present")).intValue();
+            deleted += marked;
+        }
+        List<Object[]> updates = new ArrayList<>(subtract.size());
+        subtract.forEach((studentId, total) -> {
+            if (total[0] != 0 || total[1] != 0) {
+                updates.add(new Object[]{total[0], total[1], studentId});
+            }
+        });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(SUBTRACT_SQL, updates);
+        }
+        return deleted;
+    }
+
+    /** Share of marked periods the student was present for, or null before their first roll call. */
+    public BigDecimal getAttendancePercentage(Long studentId) {
+        List<BigDecimal> percentage = jdbcTemplate.query(
+                "SELECT marked_count, present_count FROM student_attendance_stats WHERE student_id = ? AND marked_count > 0",
+                (rs, i) -> BigDecimal.valueOf(rs.getLong("present_count") * 100)
+                        .divide(BigDecimal.valueOf(rs.getLong("marked_count")), 1, RoundingMode.HALF_UP), studentId);
+        return percentage.isEmpty() ? null : percentage.get(0);
+    }
+
+    /** Recounts every student from the hot attendance table, after rows were written around the outbox. */
+    @Transactional
+    public void rebuildAll() {
+        jdbcTemplate.update("DELETE FROM student_attendance_stats");
+        jdbcTemplate.update("INSERT INTO student_attendance_stats (student_id, marked_count, present_count) " +
+                "SELECT student_id, COUNT(*), COUNT(*) FILTER (WHERE present) FROM attendance GROUP BY student_id");
+    }
+}
@@ -46,6 +46,8 @@ public class AuthService {
     private SchoolClassService schoolClassService;
     @Autowired
     private PasswordEncoder passwordEncoder;
+    @Autowired
+    private SearchIndexService searchIndexService;
 
 
     public LoginResponse login(LoginRequest loginRequest) {
@@ -96,6 +98,8 @@ public class AuthService {
         if ("ROLE_STUDENT".equalsIgnoreCase(role)) {
             Student student = getStudent(request, user);
             studentRepository.save(student);
+            searchIndexService.indexStudent(student.getId(), student.getFirstName(), student.getLastName(), userId,
+                    student.getSchoolClass() != null ? student.getSchoolClass().getName() : null);
         } else if ("ROLE_TEACHER".equalsIgnoreCase(role)) {
             Teacher teacher = new Teacher();
             teacher.setUser(user);
@@ -111,6 +115,8 @@ public class AuthService {
                 teacher.setHireDate(java.time.LocalDate.parse(request.getHireDate()));
             }
             teacherRepository.save(teacher);
+            searchIndexService.indexTeacher(teacher.getId(), teacher.getFirstName(), teacher.getLastName(), userId,
+                    teacher.getSpecialization());
         } else {
             userRepository.save(user);
         }
@@ -0,0 +1,348 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fullstack.schoolmanagement.ResourceNotFoundException;
+import com.fullstack.schoolmanagement.dto.BatchJobDTO;
+import com.fullstack.schoolmanagement.job.BatchJobHandler;
+import com.fullstack.schoolmanagement.tenant.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs long maintenance work (regrades, rollovers) in the background instead of on request
+ * threads. A job is a row in batch_jobs that a {@link BatchJobHandler} works through in chunks,
+ * each chunk in its own transaction together with the job's new checkpoint and progress.
+ *
+ * Jobs run on a small fixed pool without a queue: a job that finds no free thread waits in the
+ * table for the next poll. Each chunk transaction takes a PostgreSQL advisory lock on its job
+ * (released at commit) and only runs while the job is RUNNING, so two nodes never run chunks of
+ * the same job at once and no connection is held between chunks. A node whose chunk finds the
+ * lock taken leaves the job to the node holding it. Every chunk touches updated_at; a RUNNING job
+ * left alone for stale-after-ms (its node died or shut down) is continued from its checkpoint by
+ * the next poll. Cancellation and shutdown take effect between chunks.
+ */
+@Service
+public class BatchJobService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchJobService.class);
+
+    private static final String JOB_SQL =
+            "SELECT id, type, status, processed, total, chunks, cancel_requested, params, checkpoint, error, requested_by, " +
+            "created_at, started_at, finished_at, updated_at FROM batch_jobs";
+    private static final String CHUNK_SQL =
+            "UPDATE batch_jobs SET checkpoint = ?, processed = processed + ?, total = COALESCE(CAST(? AS bigint), total), " +
+            "chunks = chunks + 1, status = ?, finished_at = CASE WHEN ? THEN now() END, updated_at = now() WHERE id = ?";
+    private static final String STOP_SQL =
+            "UPDATE batch_jobs SET status = ?, error = ?, finished_at = now(), updated_at = now() " +
+            "WHERE id = ? AND status IN ('QUEUED', 'RUNNING')";
+    // Advisory locks are shared by all schemas of the database, so the tenant is part of the key
+    private static final String LOCK_SQL = "SELECT pg_try_advisory_xact_lock(hashtext('batch_jobs:' || ?), CAST(? AS integer))";
+    private static final String RUNNABLE_SQL =
+            "SELECT id FROM batch_jobs WHERE status = 'QUEUED' " +
+            "OR (status = 'RUNNING' AND updated_at < now() - ? * interval '1 millisecond') ORDER BY id LIMIT ?";
+
+    // Unfinished jobs looked at per tenant and poll; more than this are waiting on free threads anyway
+    private static final int POLL_LIMIT = 50;
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final Set<String> UNFINISHED = Set.of("QUEUED", "RUNNING");
+
+    private static final RowMapper<BatchJobDTO> JOB = (rs, i) -> new BatchJobDTO(rs.getLong("id"), rs.getString("type"),
+            rs.getString("status"), rs.getLong("processed"), rs.getObject("total", Long.class), rs.getInt("chunks"),
+            rs.getBoolean("cancel_requested"), rs.getString("params"), rs.getString("checkpoint"), rs.getString("error"),
+            rs.getString("requested_by"), toDateTime(rs.getTimestamp("created_at")), toDateTime(rs.getTimestamp("started_at")),
+            toDateTime(rs.getTimestamp("finished_at")), toDateTime(rs.getTimestamp("updated_at")));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private TenantService tenantService;
+    // Handlers submit jobs themselves, so they are looked up once all beans exist
+    @Autowired
+    private ObjectProvider<BatchJobHandler> handlerBeans;
+
+    @Value("${app.jobs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.jobs.threads:2}")
+    private int threads;
+
+    @Value("${app.jobs.shutdown-wait-ms:30000}")
+    private long shutdownWaitMillis;
+
+    @Value("${app.jobs.stale-after-ms:60000}")
+    private long staleAfterMillis;
+
+    private final Map<String, BatchJobHandler> handlers = new HashMap<>();
+    // Jobs running (or being locked) on this node, as "tenant/id"
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+    private volatile boolean stopping;
+    private ThreadPoolExecutor executor;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        handlerBeans.orderedStream().forEach(handler -> {
+            if (handlers.putIfAbsent(handler.type(), handler) != null) {
+                throw new IllegalStateException("Duplicate batch job type: " + handler.type());
+            }
+        });
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "batch-job-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Running jobs stop after their current chunk; they stay RUNNING and continue on the next start
+        stopping = true;
+        executor.shutdown();
+        executor.awaitTermination(shutdownWaitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a job as part of the caller's transaction; it starts once that commits.
+     *
+     * @param params serialized to JSON and handed to every chunk
+     */
+    @Transactional
+    public BatchJobDTO submit(String type, Object params) {
+        if (!handlers.containsKey(type)) {
+            throw new IllegalArgumentException("Unknown job type: " + type);
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long id = jdbcTemplate.queryForObject("INSERT INTO batch_jobs (type, params, status, requested_by) " +
+                "VALUES (?, ?, 'QUEUED', ?) RETURNING id", Long.class, type, writeJson(objectMapper.valueToTree(params)),
+                authentication != null ? authentication.getName() : null);
+        scheduleAfterCommit(id);
+        return getJob(id);
+    }
+
+    public BatchJobDTO getJob(Long id) {
+        List<BatchJobDTO> jobs = jdbcTemplate.query(JOB_SQL + " WHERE id = ?", JOB, id);
+        if (jobs.isEmpty()) {
+            throw new ResourceNotFoundException("Job not found with id: " + id);
+        }
+        return jobs.get(0);
+    }
+
+    public List<BatchJobDTO> getJobs(int limit) {
+        return jdbcTemplate.query(JOB_SQL + " ORDER BY id DESC LIMIT ?", JOB, limit);
+    }
+
+    /** Asks a queued or running job to stop; it does so before its next chunk. */
+    @Transactional
+    public BatchJobDTO cancel(Long id) {
+        if (!UNFINISHED.contains(getJob(id).getStatus())) {
+            throw new IllegalStateException("Job " + id + " has already finished.");
+        }
+        jdbcTemplate.update("UPDATE batch_jobs SET cancel_requested = true, updated_at = now() " +
+                "WHERE id = ? AND status IN ('QUEUED', 'RUNNING')", id);
+        return getJob(id);
+    }
+
+    /** Queues a failed or cancelled job again; it continues from its last checkpoint. */
+    @Transactional
+    public BatchJobDTO retry(Long id) {
+        getJob(id);
+        if (jdbcTemplate.update("UPDATE batch_jobs SET status = 'QUEUED', cancel_requested = false, error = NULL, " +
+                "finished_at = NULL, updated_at = now() WHERE id = ? AND status IN ('FAILED', 'CANCELLED')", id) == 0) {
+            throw new IllegalStateException("Only failed or cancelled jobs can be retried.");
+        }
+        scheduleAfterCommit(id);
+        return getJob(id);
+    }
+
+    // Starts queued jobs that found no free thread, and continues jobs no node has advanced lately
+    @Scheduled(fixedDelayString = "${app.jobs.poll-interval-ms:5000}")
+    public void poll() {
+        if (!enabled || stopping) {
+            return;
+        }
+        tenantService.forEachTenant(() -> {
+            String tenant = TenantContext.getTenant();
+            for (Long id : jdbcTemplate.queryForList(RUNNABLE_SQL, Long.class, staleAfterMillis, POLL_LIMIT)) {
+                if (executor.getActiveCount() >= threads) {
+                    return;
+                }
+                schedule(tenant, id);
+            }
+        });
+    }
+
+    private void scheduleAfterCommit(long id) {
+        String tenant = TenantContext.getTenant();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                schedule(tenant, id);
+            }
+        });
+    }
+
+    private void schedule(String tenant, long id) {
+        String key = tenant + "/" + id;
+        if (!enabled || stopping || !active.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    TenantContext.run(tenant, () -> run(id));
+                } catch (RuntimeException e) {
+                    logger.error("Job {} of tenant {} stopped unexpectedly", id, tenant, e);
+                } finally {
+                    active.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // All threads busy; the job waits for a later poll
+            active.remove(key);
+        }
+    }
+
+    private void run(long id) {
+        // The job may have finished since it was picked
+        BatchJobDTO job = getJob(id);
+        if (!UNFINISHED.contains(job.getStatus())) {
+            return;
+        }
+        BatchJobHandler handler = handlers.get(job.getType());
+        JsonNode params = readJson(job.getParams());
+        if (handler == null) {
+            stop(id, null, params, "FAILED", "No handler for job type " + job.getType());
+            return;
+        }
+        if (jdbcTemplate.update("UPDATE batch_jobs SET status = 'RUNNING', started_at = COALESCE(started_at, now()), " +
+                "updated_at = now() WHERE id = ? AND status IN ('QUEUED', 'RUNNING')", id) == 0) {
+            return;
+        }
+        logger.info("Job {} ({}) {} at chunk {}", id, job.getType(),
+                job.getCheckpoint() == null ? "started" : "resumed", job.getChunks() + 1);
+
+        long started = System.currentTimeMillis();
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        try {
+            while (!stopping) {
+                String outcome = chunkTransaction.execute(status -> runChunk(id, handler, params));
+                if ("CANCELLED".equals(outcome)) {
+                    stop(id, handler, params, "CANCELLED", null);
+                    return;
+                }
+                if ("COMPLETED".equals(outcome)) {
+                    BatchJobDTO done = getJob(id);
+                    logger.info("Job {} ({}) completed: {} processed in {} chunks, {} ms", id, job.getType(),
+                            done.getProcessed(), done.getChunks(), System.currentTimeMillis() - started);
+                    return;
+                }
+                if ("ELSEWHERE".equals(outcome)) {
+                    logger.info("Job {} ({}) is run by another node or no longer running", id, job.getType());
+                    return;
+                }
+            }
+            logger.info("Job {} ({}) paused for shutdown; it continues from its checkpoint", id, job.getType());
+        } catch (RuntimeException e) {
+            logger.error("Job {} ({}) failed, retry it to continue from its checkpoint", id, job.getType(), e);
+            stop(id, handler, params, "FAILED", Objects.requireNonNullElse(e.getMessage(), e.getClass().getName()));
+        }
+    }
+
+    /**
+     * One chunk and its checkpoint in one transaction. Returns null to go on with the next chunk,
+     * the job's final status once it has one, or ELSEWHERE when another node is running a chunk or
+     * the job stopped being RUNNING (finished by another node, or failed or cancelled by an admin).
+     */
+    private String runChunk(long id, BatchJobHandler handler, JsonNode params) {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(LOCK_SQL, Boolean.class, TenantContext.getTenant(), id))) {
+            return "ELSEWHERE";
+        }
+        Map<String, Object> job = jdbcTemplate.queryForMap(
+                "SELECT status, cancel_requested, checkpoint FROM batch_jobs WHERE id = ?", id);
+        if (!"RUNNING".equals(job.get("status"))) {
+            return "ELSEWHERE";
+        }
+        if (Boolean.TRUE.equals(job.get("cancel_requested"))) {
+            return "CANCELLED";
+        }
+        String checkpoint = (String) job.get("checkpoint");
+        BatchJobHandler.Chunk chunk = handler.runChunk(params, checkpoint != null ? readJson(checkpoint) : null);
+        String status = chunk.done() ? "COMPLETED" : "RUNNING";
+        jdbcTemplate.update(CHUNK_SQL, chunk.checkpoint() != null ? writeJson(chunk.checkpoint()) : checkpoint,
+                chunk.processed(), chunk.total(), status, chunk.done(), id);
+        return chunk.done() ? status : null;
+    }
+
+    private void stop(long id, BatchJobHandler handler, JsonNode params, String status, String error) {
+        try {
+            String truncated = error != null ? error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH)) : null;
+            jdbcTemplate.update(STOP_SQL, status, truncated, id);
+            if (handler != null) {
+                new TransactionTemplate(transactionManager).executeWithoutResult(tx -> handler.stopped(params, status, truncated));
+            }
+        } catch (RuntimeException e) {
+            logger.error("Could not record job {} as {}", id, status, e);
+        }
+    }
+
+    private JsonNode readJson(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable job JSON: " + json, e);
+        }
+    }
+
+    private String writeJson(JsonNode json) {
+        try {
+            return objectMapper.writeValueAsString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + json, e);
+        }
+    }
+
+    private static LocalDateTime toDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
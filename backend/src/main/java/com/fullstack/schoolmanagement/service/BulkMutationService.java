@@ -0,0 +1,140 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fullstack.schoolmanagement.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Deletes that fan out over many rows, done as one UPDATE/DELETE per table instead of loading and
+ * saving every entity. Works on plain SQL below the persistence context, so callers must not hold
+ * managed entities of the rows it touches. Each operation reports the rows it affected per table
+ * and invalidates the caches built from them once the transaction commits.
+ */
+@Service
+public class BulkMutationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkMutationService.class);
+
+    private static final String UNASSIGN_STUDENTS_SQL =
+            "UPDATE students SET class_id = NULL WHERE class_id = ? RETURNING id, first_name, last_name, user_id";
+
+    private record ExamResultRow(Long studentId, RankingService.ExamKey exam) {}
+
+    private record UnassignedStudent(Long id, String firstName, String lastName, String userId) {}
+
+    private static final RowMapper<ExamResultRow> EXAM_RESULT_ROW = (rs, i) -> new ExamResultRow(rs.getLong("student_id"),
+            new RankingService.ExamKey(rs.getLong("class_id"), rs.getLong("course_id"), rs.getString("exam_type"),
+                    rs.getObject("exam_date", Date.class).toLocalDate()));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private RankingService rankingService;
+
+    @Autowired
+    private TranscriptService transcriptService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private AttendanceStatsService attendanceStatsService;
+
+    /**
+     * Deletes a class with its timetable, roll calls and exam results, and leaves its students
+     * without a class.
+     *
+     * @return rows affected per table, in the order they were changed
+     */
+    @Transactional
+    public Map<String, Integer> deleteClass(Long id) {
+        // Locks the class against concurrent edits and assignments until it is gone
+        if (jdbcTemplate.queryForList("SELECT id FROM classes WHERE id = ? FOR UPDATE", Long.class, id).isEmpty()) {
+            throw new ResourceNotFoundException("Class not found with id: " + id);
+        }
+        Map<String, Integer> affected = new LinkedHashMap<>();
+
+        List<UnassignedStudent> students = jdbcTemplate.query(UNASSIGN_STUDENTS_SQL, (rs, i) -> new UnassignedStudent(
+                rs.getLong("id"), rs.getString("first_name"), rs.getString("last_name"), rs.getString("user_id")), id);
+        affected.put("studentsUnassigned", students.size());
+        affected.put("attendance", attendanceStatsService.deleteClassAttendance(id));
+        List<ExamResultRow> results = jdbcTemplate.query(
+                "DELETE FROM exam_results WHERE class_id = ? RETURNING student_id, class_id, course_id, exam_type, exam_date",
+                EXAM_RESULT_ROW, id);
+        affected.put("examResults", results.size());
+        // Absence alerts of these periods go with them (on delete cascade)
+        affected.put("periods", jdbcTemplate.update("DELETE FROM periods WHERE class_id = ?", id));
+        affected.put("classTeachers", jdbcTemplate.update("DELETE FROM class_teachers WHERE class_id = ?", id)
+                + jdbcTemplate.update("DELETE FROM teacher_classes WHERE class_id = ?", id));
+        affected.put("classCourses", jdbcTemplate.update("DELETE FROM class_courses WHERE class_id = ?", id));
+        affected.put("classes", jdbcTemplate.update("DELETE FROM classes WHERE id = ?", id));
+
+        invalidateExamResults(results);
+        for (UnassignedStudent student : students) {
+            searchIndexService.indexStudent(student.id(), student.firstName(), student.lastName(), student.userId(), null);
+        }
+        // Periods embed the class name
+        referenceDataCache.bump(ReferenceDataCache.Resource.CLASSES, ReferenceDataCache.Resource.PERIODS);
+        logger.info("Deleted class {}: {}", id, affected);
+        return affected;
+    }
+
+    /**
+     * Deletes a student with their roll-call and exam history. Attendance counters and absence
+     * alerts go with the student row (on delete cascade); the login account is kept.
+     *
+     * @return rows affected per table, in the order they were changed
+     */
+    @Transactional
+    public Map<String, Integer> deleteStudent(Long id) {
+        if (jdbcTemplate.queryForList("SELECT id FROM students WHERE id = ? FOR UPDATE", Long.class, id).isEmpty()) {
+            throw new ResourceNotFoundException("Student not found with id: " + id);
+        }
+        Map<String, Integer> affected = new LinkedHashMap<>();
+
+        affected.put("attendance", jdbcTemplate.update("DELETE FROM attendance WHERE student_id = ?", id));
+        List<ExamResultRow> results = jdbcTemplate.query(
+                "DELETE FROM exam_results WHERE student_id = ? RETURNING student_id, class_id, course_id, exam_type, exam_date",
+                EXAM_RESULT_ROW, id);
+        affected.put("examResults", results.size());
+        affected.put("students", jdbcTemplate.update("DELETE FROM students WHERE id = ?", id));
+
+        invalidateExamResults(results);
+        transcriptService.invalidate(List.of(id));
+        searchIndexService.remove(SearchIndexService.Type.STUDENT, id);
+        logger.info("Deleted student {}: {}", id, affected);
+        return affected;
+    }
+
+    // Only the exams that lost results need new rankings, and only their students new transcripts
+    private void invalidateExamResults(List<ExamResultRow> results) {
+        Set<RankingService.ExamKey> exams = new LinkedHashSet<>();
+        Set<Long> studentIds = new LinkedHashSet<>();
+        for (ExamResultRow row : results) {
+            exams.add(row.exam());
+            studentIds.add(row.studentId());
+        }
+        for (RankingService.ExamKey exam : exams) {
+            rankingService.invalidate(exam.classId(), exam.courseId(), exam.examType(), exam.examDate());
+        }
+        if (!studentIds.isEmpty()) {
+            transcriptService.invalidate(studentIds);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fullstack.schoolmanagement.tenant.TenantContext;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the in-process caches of several backend nodes consistent without a broker. A cache
+ * that invalidates an entry locally also publishes it with pg_notify inside the writing
+ * transaction, so other nodes hear about it exactly when the change commits (and never for a
+ * rollback). Every node LISTENs on its own dedicated connection, drops notifications it sent
+ * itself, coalesces each batch and hands the keys to the subscribed caches under the right
+ * tenant. Notifications sent while a node was disconnected are lost, so after a reconnect every
+ * subscriber resyncs completely.
+ */
+@Service
+public class CacheInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private static final String CHANNEL = "cache_invalidation";
+    private static final int POLL_TIMEOUT_MS = 500;
+
+    public enum Topic { REFERENCE_DATA, RANKINGS, GRADING_SCHEMES, SEARCH_INDEX, ROLL_CALL }
+
+    private record Subscriber(Consumer<String> onKey, Runnable onResync) {}
+
+    private record Invalidation(String tenant, Topic topic, String key) {}
+
+    // Identifies this node's own notifications, which it has already applied after commit
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<Topic, List<Subscriber>> subscribers = new EnumMap<>(Topic.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.invalidation.reconnect-delay-ms:2000}")
+    private long reconnectDelayMillis;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public CacheInvalidationBus() {
+        for (Topic topic : Topic.values()) {
+            subscribers.put(topic, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    /**
+     * Registers a cache for a topic: onKey gets each key invalidated on another node (running as
+     * that key's tenant), onResync must drop or reload the cache for every tenant.
+     */
+    public void subscribe(Topic topic, Consumer<String> onKey, Runnable onResync) {
+        subscribers.get(topic).add(new Subscriber(onKey, onResync));
+    }
+
+    /**
+     * Tells the other nodes about an invalidation. Must be called inside the writing transaction
+     * so the notification is delivered on its commit; identical notifications of one transaction
+     * are merged by PostgreSQL.
+     */
+    public void publish(Topic topic, String key) {
+        if (!enabled) {
+            return;
+        }
+        String payload = nodeId + "|" + TenantContext.getTenant() + "|" + topic.name() + "|" + key;
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {}, CHANNEL, payload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listenLoop, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            listener.join(2000);
+        }
+    }
+
+    private void listenLoop() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = openListenerConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (connectedBefore) {
+                    logger.info("Cache invalidation listener reconnected; resyncing all caches");
+                    resyncAll();
+                }
+                connectedBefore = true;
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        apply(coalesce(notifications));
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("Cache invalidation listener lost its connection: {}", e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    // Outside the pool: the connection is held forever and must always reach the primary
+    private Connection openListenerConnection() throws SQLException {
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        return DriverManager.getConnection(pool.getJdbcUrl(), pool.getUsername(), pool.getPassword());
+    }
+
+    private Set<Invalidation> coalesce(PGNotification[] notifications) {
+        Set<Invalidation> invalidations = new LinkedHashSet<>();
+        for (PGNotification notification : notifications) {
+            String[] parts = notification.getParameter().split("\\|", 4);
+            if (parts.length < 4 || parts[0].equals(nodeId)) {
+                continue;
+            }
+            try {
+                invalidations.add(new Invalidation(parts[1], Topic.valueOf(parts[2]), parts[3]));
+            } catch (IllegalArgumentException e) {
+                // Sent by a node running a different version
+                logger.debug("Ignoring invalidation {}", notification.getParameter());
+            }
+        }
+        return invalidations;
+    }
+
+    private void apply(Set<Invalidation> invalidations) {
+        for (Invalidation invalidation : invalidations) {
+            for (Subscriber subscriber : subscribers.get(invalidation.topic())) {
+                try {
+                    TenantContext.run(invalidation.tenant(), () -> subscriber.onKey().accept(invalidation.key()));
+                } catch (RuntimeException e) {
+                    logger.warn("Applying invalidation {} failed: {}", invalidation, e.getMessage());
+                    subscriber.onResync().run();
+                }
+            }
+        }
+    }
+
+    private void resyncAll() {
+        subscribers.values().forEach(list -> list.forEach(subscriber -> subscriber.onResync().run()));
+    }
+}
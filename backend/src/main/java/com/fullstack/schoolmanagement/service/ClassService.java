@@ -14,8 +14,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -32,6 +36,15 @@ public class ClassService {
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private BulkMutationService bulkMutationService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
     @Transactional(readOnly = true)
     public List<ClassDTO> getAllClasses() {
         return classRepository.findAll().stream()
@@ -63,6 +76,7 @@ public class ClassService {
             }
         }
 
+        referenceDataCache.bump(ReferenceDataCache.Resource.CLASSES);
         return classRepository.save(schoolClass);
     }
 
@@ -71,6 +85,7 @@ public class ClassService {
         SchoolClass schoolClass = classRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Class not found with id: " + id));
 
+        boolean renamed = !Objects.equals(schoolClass.getName(), classDTO.getName());
         schoolClass.setName(classDTO.getName());
 
         Set<Teacher> oldTeachers = new HashSet<>(schoolClass.getTeachers());
@@ -90,26 +105,19 @@ public class ClassService {
         }
         schoolClass.setTeachers(newTeachers);
 
-        return classRepository.save(schoolClass);
+        // Periods embed the class name
+        referenceDataCache.bump(ReferenceDataCache.Resource.CLASSES, ReferenceDataCache.Resource.PERIODS);
+        SchoolClass saved = classRepository.save(schoolClass);
+        if (renamed) {
+            // So do the students' search entries
+            searchIndexService.indexStudentsOfClass(id);
+        }
+        return saved;
     }
 
-    @Transactional
-    public void deleteClass(Long id) {
-        SchoolClass schoolClass = classRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Class not found with id: " + id));
-
-        // IMPORTANT: Unassign students from this class before deleting it
-        // to avoid foreign key constraint violations.
-        List<Student> studentsInClass = studentRepository.findAllBySchoolClass(schoolClass);
-        for (Student student : studentsInClass) {
-            student.setSchoolClass(null);
-        }
-        studentRepository.saveAll(studentsInClass);
-        
-        // Unassign teachers (clears the join table entries)
-        schoolClass.getTeachers().clear();
-        
-        classRepository.delete(schoolClass);
+    /** Deletes the class and everything hanging off it; see {@link BulkMutationService#deleteClass}. */
+    public Map<String, Integer> deleteClass(Long id) {
+        return bulkMutationService.deleteClass(id);
     }
 
     // New method to return all classes as ClassResponseDTO (with teacher names)
@@ -139,14 +147,16 @@ public class ClassService {
     // Helper to convert SchoolClass to ClassResponseDTO
     private ClassResponseDTO convertToResponseDto(SchoolClass schoolClass) {
         if (schoolClass == null) return null;
+        // Sorted so the same data always gives the same JSON, and so the same ETag
         Set<TeacherSummaryDTO> teacherDTOs = schoolClass.getTeachers().stream()
+                .sorted(Comparator.comparing(Teacher::getId))
                 .map(teacher -> new TeacherSummaryDTO(
                         teacher.getId(),
                         teacher.getFirstName(),
                         teacher.getLastName(),
                         teacher.getEmail()
                 ))
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
         return new ClassResponseDTO(schoolClass.getId(), schoolClass.getName(), teacherDTOs);
     }
 
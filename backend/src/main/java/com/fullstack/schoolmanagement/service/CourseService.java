@@ -18,6 +18,12 @@ public class CourseService {
     @Autowired
     private TeacherRepository teacherRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
     public List<Course> getAllCourses() {
         return courseRepository.findAll();
     }
@@ -33,7 +39,10 @@ public class CourseService {
                 .ifPresent(course::setTeacher);
         }
         // No credits logic
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        referenceDataCache.bump(ReferenceDataCache.Resource.COURSES);
+        searchIndexService.indexCourse(saved.getId(), saved.getCourseCode(), saved.getCourseName());
+        return saved;
     }
 
     @org.springframework.transaction.annotation.Transactional
@@ -53,11 +62,16 @@ public class CourseService {
             course.setTeacher(null);
         }
         
+        // Periods embed the course name
+        referenceDataCache.bump(ReferenceDataCache.Resource.COURSES, ReferenceDataCache.Resource.PERIODS);
+        searchIndexService.indexCourse(course.getId(), course.getCourseCode(), course.getCourseName());
         return courseRepository.save(course);
     }
 
     public void deleteCourse(Long id) {
         courseRepository.deleteById(id);
+        searchIndexService.remove(SearchIndexService.Type.COURSE, id);
+        referenceDataCache.bump(ReferenceDataCache.Resource.COURSES, ReferenceDataCache.Resource.PERIODS);
     }
 
     public Optional<Course> getCourseByCourseCode(String courseCode) {
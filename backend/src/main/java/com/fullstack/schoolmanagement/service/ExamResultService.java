@@ -1,19 +1,38 @@
 package com.fullstack.schoolmanagement.service;
 
+import com.fullstack.schoolmanagement.dto.BulkExamResultRequest;
+import com.fullstack.schoolmanagement.dto.BulkExamResultResponse;
 import com.fullstack.schoolmanagement.dto.ExamResultInputDTO;
 import com.fullstack.schoolmanagement.dto.ExamResultViewDTO;
 import com.fullstack.schoolmanagement.entity.*;
+import com.fullstack.schoolmanagement.outbox.ExamResultRecorded;
 import com.fullstack.schoolmanagement.repository.*;
 import com.fullstack.schoolmanagement.repository.ClassRepository;
+import com.fullstack.schoolmanagement.VersionConflictException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.security.Principal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import com.fullstack.schoolmanagement.dto.StudentSummaryDTO;
 import com.fullstack.schoolmanagement.ResourceNotFoundException;
@@ -36,6 +55,18 @@ public class ExamResultService {
     private TeacherRepository teacherRepository;
     @Autowired
     private CourseRepository courseRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private GradingSchemeService gradingSchemeService;
+    @Autowired
+    private RankingService rankingService;
+    @Autowired
+    private TranscriptService transcriptService;
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
 
     public ExamResultService() {
@@ -55,6 +86,10 @@ public class ExamResultService {
         return examResultRepository.findById(id).map(this::convertToViewDTO);
     }
 
+    private static final String INSERT_SQL =
+            "INSERT INTO exam_results (exam_type, exam_date, student_id, class_id, course_id, marks_obtained, grade, remarks, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0) ON CONFLICT (course_id, exam_type, exam_date, student_id) DO NOTHING RETURNING id";
+
     @Transactional
     public ExamResultViewDTO createExamResult(ExamResultInputDTO dto, Principal principal) {
         logger.info("createExamResult called with DTO: {} and principal: {}", dto, principal != null ? principal.getName() : "null");
@@ -67,15 +102,7 @@ public class ExamResultService {
                 throw new IllegalArgumentException("Marks must be between 0 and 100.");
             }
 
-            // --- 2. Check for Duplicates ---
-            boolean exists = examResultRepository.existsByStudentIdAndCourseIdAndExamTypeAndExamDate(
-                dto.getStudentId(), dto.getCourseId(), dto.getExamType(), dto.getExamDate()
-            );
-            if (exists) {
-                throw new RuntimeException("An exam result for this student, course, and exam already exists on this date.");
-            }
-
-            // --- 3. Role-Based Permission Check ---
+            // --- 2. Role-Based Permission Check ---
             String username = principal.getName();
             User currentUser = userRepository.findById(username).orElseThrow(() -> new RuntimeException("Current user not found."));
             boolean isAdmin = SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
@@ -89,16 +116,28 @@ public class ExamResultService {
 
             }
 
-            // --- 4. Create and Save Entity ---
-            ExamResult result = new ExamResult();
-            result.setStudent(student);
-            result.setSchoolClass(schoolClass);
-            result.setCourse(course);
-            result.setExamType(dto.getExamType());
-            result.setExamDate(dto.getExamDate());
-            result.setMarksObtained(dto.getMarksObtained());
-            result.setGrade(calculateGrade(dto.getMarksObtained().doubleValue()));
-            ExamResult savedResult = examResultRepository.save(result);
+            // --- 3. Insert; the unique constraint rejects duplicates, including concurrent ones ---
+            ExamResult savedResult = new ExamResult();
+            savedResult.setStudent(student);
+            savedResult.setSchoolClass(schoolClass);
+            savedResult.setCourse(course);
+            savedResult.setExamType(dto.getExamType());
+            savedResult.setExamDate(dto.getExamDate());
+            savedResult.setMarksObtained(dto.getMarksObtained());
+            savedResult.setGrade(gradingSchemeService.grade(dto.getExamDate(), dto.getCourseId(), dto.getMarksObtained()));
+            List<Long> inserted = jdbcTemplate.queryForList(INSERT_SQL, Long.class, savedResult.getExamType(),
+                    Date.valueOf(savedResult.getExamDate()), student.getId(), schoolClass.getId(), course.getId(),
+                    savedResult.getMarksObtained(), savedResult.getGrade(), savedResult.getRemarks());
+            if (inserted.isEmpty()) {
+                throw duplicate(course.getId(), dto.getExamType(), dto.getExamDate(), student.getId());
+            }
+            savedResult.setId(inserted.get(0));
+            savedResult.setVersion(0L);
+            rankingService.invalidate(dto.getClassId(), dto.getCourseId(), dto.getExamType(), dto.getExamDate());
+            // The transcript catches up from the outbox instead of locking the student here
+            outboxService.publish(new ExamResultRecorded(savedResult.getId(), student.getId(), schoolClass.getId(),
+                    course.getId(), savedResult.getExamType(), savedResult.getExamDate(),
+                    savedResult.getMarksObtained(), savedResult.getGrade()));
             return convertToViewDTO(savedResult);
         } catch (Exception e) {
             logger.error("Error in createExamResult: {}", e.getMessage(), e);
@@ -106,10 +145,117 @@ public class ExamResultService {
         }
     }
 
+    /**
+     * Creates results for a whole exam sheet (one class, course, exam type and date).
+     * Permission, class membership and duplicates are checked once for the whole sheet with
+     * set-based queries, and accepted rows are written with a single JDBC batch insert.
+     * Rows that fail validation are reported individually and do not abort the others.
+     */
+    @Transactional
+    public BulkExamResultResponse createExamResultsBulk(BulkExamResultRequest request, Principal principal) {
+        if (request.getClassId() == null || request.getCourseId() == null
+                || request.getExamType() == null || request.getExamType().isBlank() || request.getExamDate() == null) {
+            throw new IllegalArgumentException("classId, courseId, examType and examDate are required.");
+        }
+        if (request.getEntries() == null || request.getEntries().isEmpty()) {
+            throw new IllegalArgumentException("The exam sheet has no entries.");
+        }
+        if (!schoolClassRepository.existsById(request.getClassId())) {
+            throw new IllegalArgumentException("Class not found.");
+        }
+        if (!courseRepository.existsById(request.getCourseId())) {
+            throw new IllegalArgumentException("Course not found.");
+        }
+
+        boolean isAdmin = SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).anyMatch("ROLE_ADMIN"::equals);
+        if (!isAdmin && !teacherRepository.isAssignedToClass(principal.getName(), request.getClassId())) {
+            throw new RuntimeException("Permission Denied: You are not assigned to this class.");
+        }
+
+        Set<Long> requestedIds = new LinkedHashSet<>();
+        for (BulkExamResultRequest.Entry entry : request.getEntries()) {
+            if (entry.getStudentId() != null) {
+                requestedIds.add(entry.getStudentId());
+            }
+        }
+        Set<Long> inClass = requestedIds.isEmpty() ? Set.of()
+                : new HashSet<>(studentRepository.findIdsInClass(request.getClassId(), requestedIds));
+        Set<Long> alreadyGraded = requestedIds.isEmpty() ? new HashSet<>()
+                : new HashSet<>(examResultRepository.findStudentIdsWithResult(
+                        request.getCourseId(), request.getExamType(), request.getExamDate(), requestedIds));
+
+        List<BulkExamResultResponse.RowOutcome> outcomes = new ArrayList<>(request.getEntries().size());
+        List<Object[]> rows = new ArrayList<>();
+        List<Long> createdFor = new ArrayList<>();
+        List<Integer> createdOutcomes = new ArrayList<>();
+        GradingSchemeService.CompiledScheme scheme = gradingSchemeService.resolve(request.getExamDate(), request.getCourseId());
+        Date examDate = Date.valueOf(request.getExamDate());
+        for (BulkExamResultRequest.Entry entry : request.getEntries()) {
+            Long studentId = entry.getStudentId();
+            if (studentId == null || !inClass.contains(studentId)) {
+                outcomes.add(new BulkExamResultResponse.RowOutcome(studentId, BulkExamResultResponse.Status.NOT_IN_CLASS,
+                        "Student not found in the selected class."));
+            } else if (entry.getMarksObtained() == null || entry.getMarksObtained().doubleValue() < 0
+                    || entry.getMarksObtained().doubleValue() > 100) {
+                outcomes.add(new BulkExamResultResponse.RowOutcome(studentId, BulkExamResultResponse.Status.INVALID_MARKS,
+                        "Marks must be between 0 and 100."));
+            } else if (!alreadyGraded.add(studentId)) {
+                // Either already stored or listed twice in this sheet
+                outcomes.add(new BulkExamResultResponse.RowOutcome(studentId, BulkExamResultResponse.Status.DUPLICATE,
+                        "An exam result for this student, course, and exam already exists on this date."));
+            } else {
+                rows.add(new Object[]{request.getExamType(), examDate, studentId, request.getClassId(), request.getCourseId(),
+                        entry.getMarksObtained(), scheme.grade(entry.getMarksObtained()), entry.getRemarks()});
+                createdOutcomes.add(outcomes.size());
+                outcomes.add(new BulkExamResultResponse.RowOutcome(studentId, BulkExamResultResponse.Status.CREATED, null));
+                createdFor.add(studentId);
+            }
+        }
+
+        int created = rows.size();
+        if (!rows.isEmpty()) {
+            // Results stored by a concurrent request since the duplicate check are skipped, not failed
+            int[] counts = jdbcTemplate.batchUpdate("INSERT INTO exam_results (exam_type, exam_date, student_id, class_id, course_id, " +
+                    "marks_obtained, grade, remarks) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (course_id, exam_type, exam_date, student_id) DO NOTHING", rows);
+            Map<Long, Object[]> insertedRows = new HashMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    outcomes.set(createdOutcomes.get(i), new BulkExamResultResponse.RowOutcome(createdFor.get(i),
+                            BulkExamResultResponse.Status.DUPLICATE,
+                            "An exam result for this student, course, and exam already exists on this date."));
+                    created--;
+                } else {
+                    insertedRows.put(createdFor.get(i), rows.get(i));
+                }
+            }
+            if (!insertedRows.isEmpty()) {
+                rankingService.invalidate(request.getClassId(), request.getCourseId(), request.getExamType(), request.getExamDate());
+                // Same events as single creates, so transcripts catch up from the outbox
+                List<ExamResultRecorded> events = new ArrayList<>(insertedRows.size());
+                for (Object[] ids : examResultRepository.findIdsByStudent(request.getCourseId(), request.getExamType(),
+                        request.getExamDate(), insertedRows.keySet())) {
+                    Object[] row = insertedRows.get((Long) ids[1]);
+                    events.add(new ExamResultRecorded((Long) ids[0], (Long) ids[1], request.getClassId(), request.getCourseId(),
+                            request.getExamType(), request.getExamDate(), (BigDecimal) row[5], (String) row[6]));
+                }
+                outboxService.publishAll(events);
+            }
+        }
+        logger.info("Bulk exam sheet for class {} course {} ({} {}): {} created, {} rejected", request.getClassId(),
+                request.getCourseId(), request.getExamType(), request.getExamDate(), created, outcomes.size() - created);
+        return new BulkExamResultResponse(created, outcomes.size() - created, outcomes);
+    }
+
     @Transactional
     public ExamResultViewDTO updateExamResult(Long id, ExamResultInputDTO resultDTO, Principal principal) {
         ExamResult existingResult = examResultRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Exam result not found with id: " + id));
+        if (resultDTO.getVersion() != null && !resultDTO.getVersion().equals(existingResult.getVersion())) {
+            throw new VersionConflictException("This exam result was changed by someone else. Please reload it.",
+                    id, existingResult.getVersion());
+        }
 
         // Validate permissions - teachers can only update results for their assigned classes
         String username = principal.getName();
@@ -144,13 +290,13 @@ public class ExamResultService {
 //            throw new IllegalArgumentException("Course does not belong to the selected class");
 //        }
 
-        // Check for duplicates (excluding the current result being updated)
-        boolean exists = examResultRepository.existsByStudentIdAndCourseIdAndExamTypeAndExamDateAndIdNot(
-            resultDTO.getStudentId(), resultDTO.getCourseId(), resultDTO.getExamType(), resultDTO.getExamDate(), id
-        );
-        if (exists) {
-            throw new RuntimeException("An exam result for this student, course, and exam already exists on this date.");
-        }
+        Long previousStudentId = existingResult.getStudent().getId();
+        TranscriptService.ResultFacts previousFacts = TranscriptService.ResultFacts.of(existingResult);
+
+        // The result may move to another exam, so both cohorts change
+        rankingService.invalidate(existingResult.getSchoolClass().getId(), existingResult.getCourse().getId(),
+                existingResult.getExamType(), existingResult.getExamDate());
+        rankingService.invalidate(resultDTO.getClassId(), resultDTO.getCourseId(), resultDTO.getExamType(), resultDTO.getExamDate());
 
         // Update the exam result
         existingResult.setSchoolClass(schoolClass);
@@ -159,17 +305,46 @@ public class ExamResultService {
         existingResult.setExamType(resultDTO.getExamType());
         existingResult.setExamDate(resultDTO.getExamDate());
         existingResult.setMarksObtained(resultDTO.getMarksObtained());
-        existingResult.setGrade(calculateGrade(resultDTO.getMarksObtained().doubleValue()));
+        existingResult.setGrade(gradingSchemeService.grade(resultDTO.getExamDate(), resultDTO.getCourseId(), resultDTO.getMarksObtained()));
 
-        ExamResult updatedResult = examResultRepository.save(existingResult);
+        // Flushed here so a duplicate or a concurrent update surfaces as a conflict
+        ExamResult updatedResult;
+        try {
+            updatedResult = examResultRepository.saveAndFlush(existingResult);
+        } catch (DataIntegrityViolationException e) {
+            // The failed flush aborted this transaction, so the row it collided with is read in a new one
+            TransactionTemplate lookup = new TransactionTemplate(transactionManager);
+            lookup.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            lookup.setReadOnly(true);
+            throw lookup.execute(status -> duplicate(resultDTO.getCourseId(), resultDTO.getExamType(),
+                    resultDTO.getExamDate(), resultDTO.getStudentId()));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new VersionConflictException("This exam result was changed by someone else. Please reload it.", id,
+                    jdbcTemplate.queryForObject("SELECT version FROM exam_results WHERE id = ?", Long.class, id));
+        }
+        transcriptService.recordRemoved(previousStudentId, id, previousFacts);
+        transcriptService.recordAdded(student.getId(), id, TranscriptService.ResultFacts.of(updatedResult));
         return convertToViewDTO(updatedResult);
     }
 
+    // 409 for a result that already exists, with that row's id and version so the client can load it
+    private VersionConflictException duplicate(Long courseId, String examType, LocalDate examDate, Long studentId) {
+        List<Map<String, Object>> existing = jdbcTemplate.queryForList("SELECT id, version FROM exam_results " +
+                "WHERE course_id = ? AND exam_type = ? AND exam_date = ? AND student_id = ?",
+                courseId, examType, Date.valueOf(examDate), studentId);
+        return new VersionConflictException("An exam result for this student, course, and exam already exists on this date.",
+                existing.isEmpty() ? null : (Long) existing.get(0).get("id"),
+                existing.isEmpty() ? null : (Long) existing.get(0).get("version"));
+    }
+
     @Transactional
     public void deleteExamResult(Long id) {
         ExamResult result = examResultRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Exam result not found with id: " + id));
+        transcriptService.recordRemoved(result.getStudent().getId(), id, TranscriptService.ResultFacts.of(result));
         examResultRepository.delete(result);
+        rankingService.invalidate(result.getSchoolClass().getId(), result.getCourse().getId(),
+                result.getExamType(), result.getExamDate());
     }
 
     // FIX: Remove methods that reference non-existent fields or methods unless you add them to the repository
@@ -192,15 +367,6 @@ public class ExamResultService {
 
     // Add similar methods as needed for your use case
 
-    private String calculateGrade(double marks) {
-        if (marks >= 90) return "A+";
-        if (marks >= 80) return "A";
-        if (marks >= 70) return "B";
-        if (marks >= 60) return "C";
-        if (marks >= 50) return "D";
-        return "F";
-    }
-
     private ExamResultViewDTO convertToViewDTO(ExamResult result) {
         ExamResultViewDTO dto = new ExamResultViewDTO();
         dto.setId(result.getId());
@@ -221,6 +387,7 @@ public class ExamResultService {
         dto.setMarksObtained(result.getMarksObtained());
         dto.setGrade(result.getGrade());
         dto.setRemarks(result.getRemarks());
+        dto.setVersion(result.getVersion());
         return dto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,376 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fullstack.schoolmanagement.dto.BatchJobDTO;
+import com.fullstack.schoolmanagement.dto.GradingSchemeDTO;
+import com.fullstack.schoolmanagement.entity.AcademicSession;
+import com.fullstack.schoolmanagement.entity.Course;
+import com.fullstack.schoolmanagement.entity.GradeBand;
+import com.fullstack.schoolmanagement.entity.GradingScheme;
+import com.fullstack.schoolmanagement.job.BatchJobHandler;
+import com.fullstack.schoolmanagement.repository.AcademicSessionRepository;
+import com.fullstack.schoolmanagement.repository.CourseRepository;
+import com.fullstack.schoolmanagement.repository.GradingSchemeRepository;
+import com.fullstack.schoolmanagement.tenant.TenantScoped;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Grading schemes stored as data, per academic session and optionally per course.
+ * Each scheme is compiled into a grade-per-hundredth-of-a-mark array, so grading a result is
+ * an array index rather than a chain of comparisons. Results whose exam date falls outside
+ * every session with a scheme use the built-in A+/A/B/C/D/F boundaries.
+ */
+@Service
+public class GradingSchemeService implements BatchJobHandler {
+    private static final Logger logger = LoggerFactory.getLogger(GradingSchemeService.class);
+
+    private static final String REGRADE_JOB = "regrade";
+
+    /** Marks are stored with two decimals between 0 and 100, so 10001 slots cover every value. */
+    private static final int SLOTS = 100 * 100 + 1;
+
+    public static final CompiledScheme DEFAULT = CompiledScheme.compile(null, List.of(
+            new GradeBand(BigDecimal.valueOf(90), "A+"),
+            new GradeBand(BigDecimal.valueOf(80), "A"),
+            new GradeBand(BigDecimal.valueOf(70), "B"),
+            new GradeBand(BigDecimal.valueOf(60), "C"),
+            new GradeBand(BigDecimal.valueOf(50), "D"),
+            new GradeBand(BigDecimal.ZERO, "F")));
+
+    @Autowired
+    private GradingSchemeRepository gradingSchemeRepository;
+    @Autowired
+    private AcademicSessionRepository academicSessionRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private AcademicSessionService academicSessionService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private RankingService rankingService;
+    @Autowired
+    private TranscriptService transcriptService;
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+    @Autowired
+    private BatchJobService batchJobService;
+
+    @Value("${app.grading.regrade-chunk-size:5000}")
+    private int regradeChunkSize;
+
+    private final TenantScoped<AtomicLong> schemeVersion = new TenantScoped<>(AtomicLong::new);
+    private final TenantScoped<AtomicReference<Lookup>> lookup = new TenantScoped<>(AtomicReference::new);
+
+    /** A scheme compiled for constant-time grading. */
+    public static final class CompiledScheme {
+        private final Long schemeId;
+        private final List<GradeBand> bands; // ordered by minMarks descending
+        private final String[] gradeBySlot;
+
+        private CompiledScheme(Long schemeId, List<GradeBand> bands, String[] gradeBySlot) {
+            this.schemeId = schemeId;
+            this.bands = bands;
+            this.gradeBySlot = gradeBySlot;
+        }
+
+        static CompiledScheme compile(Long schemeId, List<GradeBand> bands) {
+            List<GradeBand> ordered = bands.stream()
+                    .sorted(Comparator.comparing(GradeBand::getMinMarks).reversed())
+                    .collect(Collectors.toList());
+            String[] gradeBySlot = new String[SLOTS];
+            int slot = SLOTS - 1;
+            for (GradeBand band : ordered) {
+                int floor = band.getMinMarks().movePointRight(2).setScale(0, RoundingMode.CEILING).intValueExact();
+                for (; slot >= floor; slot--) {
+                    gradeBySlot[slot] = band.getGrade();
+                }
+            }
+            return new CompiledScheme(schemeId, List.copyOf(ordered), gradeBySlot);
+        }
+
+        public Long getSchemeId() {
+            return schemeId;
+        }
+
+        public String grade(BigDecimal marks) {
+            int slot = marks.movePointRight(2).setScale(0, RoundingMode.FLOOR).intValue();
+            return gradeBySlot[Math.max(0, Math.min(SLOTS - 1, slot))];
+        }
+
+        /** SQL equivalent of {@link #grade}, as a CASE expression over marks_obtained. */
+        String caseExpression(List<Object> args) {
+            if (bands.size() == 1) {
+                args.add(bands.get(0).getGrade());
+                return "?";
+            }
+            StringBuilder sql = new StringBuilder("CASE");
+            for (int i = 0; i < bands.size() - 1; i++) {
+                sql.append(" WHEN marks_obtained >= ? THEN ?");
+                args.add(bands.get(i).getMinMarks());
+                args.add(bands.get(i).getGrade());
+            }
+            sql.append(" ELSE ? END");
+            args.add(bands.get(bands.size() - 1).getGrade());
+            return sql.toString();
+        }
+    }
+
+    private record Lookup(long schemeVersion, Map<String, CompiledScheme> schemes) {}
+
+    /** Returns the scheme that grades results of this course on this exam date. */
+    public CompiledScheme resolve(LocalDate examDate, Long courseId) {
+        Lookup current = currentLookup();
+        for (AcademicSession session : academicSessionService.findSessionsContaining(examDate)) {
+            CompiledScheme scheme = current.schemes().get(session.getId() + ":" + courseId);
+            if (scheme == null) {
+                scheme = current.schemes().get(session.getId() + ":*");
+            }
+            if (scheme != null) {
+                return scheme;
+            }
+        }
+        return DEFAULT;
+    }
+
+    public String grade(LocalDate examDate, Long courseId, BigDecimal marks) {
+        return resolve(examDate, courseId).grade(marks);
+    }
+
+    private Lookup currentLookup() {
+        long schemes = schemeVersion.get().get();
+        AtomicReference<Lookup> holder = lookup.get();
+        Lookup current = holder.get();
+        if (current == null || current.schemeVersion() != schemes) {
+            current = buildLookup(schemes);
+            holder.set(current);
+        }
+        return current;
+    }
+
+    private Lookup buildLookup(long schemes) {
+        Map<String, CompiledScheme> compiled = new HashMap<>();
+        for (GradingScheme scheme : gradingSchemeRepository.findAllWithBands()) {
+            if (!scheme.getBands().isEmpty()) {
+                compiled.put(key(scheme), CompiledScheme.compile(scheme.getId(), scheme.getBands()));
+            }
+        }
+        return new Lookup(schemes, compiled);
+    }
+
+    private static String key(GradingScheme scheme) {
+        return scheme.getSession().getId() + ":" + (scheme.getCourse() != null ? scheme.getCourse().getId() : "*");
+    }
+
+    @Transactional(readOnly = true)
+    public List<GradingSchemeDTO> getAllSchemes() {
+        return gradingSchemeRepository.findAllWithBands().stream().map(this::convertToDTO).collect(Collectors.toList());
+    }
+
+    @Transactional
+    public GradingSchemeDTO createScheme(GradingSchemeDTO dto) {
+        AcademicSession session = academicSessionRepository.findById(dto.getSessionId())
+                .orElseThrow(() -> new IllegalArgumentException("Academic session not found."));
+        Course course = dto.getCourseId() == null ? null : courseRepository.findById(dto.getCourseId())
+                .orElseThrow(() -> new IllegalArgumentException("Course not found."));
+        boolean exists = course == null
+                ? gradingSchemeRepository.existsBySessionIdAndCourseIsNull(session.getId())
+                : gradingSchemeRepository.existsBySessionIdAndCourseId(session.getId(), course.getId());
+        if (exists) {
+            throw new RuntimeException("A grading scheme already exists for this session and course.");
+        }
+
+        GradingScheme scheme = new GradingScheme();
+        scheme.setSession(session);
+        scheme.setCourse(course);
+        applyDetails(scheme, dto);
+        GradingScheme saved = gradingSchemeRepository.save(scheme);
+        invalidate();
+        return convertToDTO(saved);
+    }
+
+    /** Replaces the name and bands; stored grades only change once the scheme is regraded. */
+    @Transactional
+    public GradingSchemeDTO updateScheme(Long id, GradingSchemeDTO dto) {
+        GradingScheme scheme = gradingSchemeRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Grading scheme not found with id: " + id));
+        applyDetails(scheme, dto);
+        GradingScheme saved = gradingSchemeRepository.save(scheme);
+        invalidate();
+        return convertToDTO(saved);
+    }
+
+    @Transactional
+    public void deleteScheme(Long id) {
+        gradingSchemeRepository.deleteById(id);
+        invalidate();
+    }
+
+    /**
+     * Queues a job that re-applies the scheme to every stored result it governs. The job walks
+     * the rows in id order in chunks, and each chunk is one {@code UPDATE ... SET grade = CASE ...}
+     * in its own short transaction, so no lock is held for longer than a single chunk. Rows whose
+     * grade already matches are skipped rather than rewritten.
+     */
+    @Transactional
+    public BatchJobDTO regrade(Long id) {
+        GradingScheme scheme = findWithBands(id);
+        return batchJobService.submit(REGRADE_JOB, Map.of("schemeId", scheme.getId()));
+    }
+
+    @Override
+    public String type() {
+        return REGRADE_JOB;
+    }
+
+    // One regrade chunk; the checkpoint is the last exam result id walked and whether any grade changed so far
+    @Override
+    public Chunk runChunk(JsonNode params, JsonNode checkpoint) {
+        GradingScheme scheme = findWithBands(params.get("schemeId").asLong());
+        CompiledScheme compiled = CompiledScheme.compile(scheme.getId(), scheme.getBands());
+
+        // Rows governed by this scheme: exam date inside the session, and either the scheme's
+        // course or, for a session-wide scheme, any course without its own scheme
+        List<Object> filterArgs = new ArrayList<>();
+        StringBuilder filter = new StringBuilder("exam_date BETWEEN ? AND ?");
+        filterArgs.add(Date.valueOf(scheme.getSession().getStartDate()));
+        filterArgs.add(Date.valueOf(scheme.getSession().getEndDate()));
+        if (scheme.getCourse() != null) {
+            filter.append(" AND course_id = ?");
+            filterArgs.add(scheme.getCourse().getId());
+        } else {
+            filter.append(" AND course_id NOT IN (SELECT course_id FROM grading_schemes WHERE session_id = ? AND course_id IS NOT NULL)");
+            filterArgs.add(scheme.getSession().getId());
+        }
+
+        long lastId = checkpoint != null ? checkpoint.get("lastId").asLong() : 0;
+        boolean changed = checkpoint != null && checkpoint.get("changed").asBoolean();
+        Long total = checkpoint == null
+                ? jdbcTemplate.queryForObject("SELECT COUNT(*) FROM exam_results WHERE " + filter, Long.class, filterArgs.toArray())
+                : null;
+        List<Object> boundArgs = new ArrayList<>(filterArgs);
+        boundArgs.add(lastId);
+        boundArgs.add(regradeChunkSize);
+        Map<String, Object> chunk = jdbcTemplate.queryForMap("SELECT MAX(id) AS chunk_end, COUNT(*) AS chunk_size FROM " +
+                "(SELECT id FROM exam_results WHERE " + filter + " AND id > ? ORDER BY id LIMIT ?) chunk", boundArgs.toArray());
+        if (chunk.get("chunk_end") == null) {
+            // Caches are dropped once, when the last chunk commits; until then they may show old grades
+            if (changed) {
+                rankingService.invalidateAll(); // rank snapshots carry the stored grade
+                transcriptService.invalidateAll(); // session GPA is derived from grades
+            }
+            return new Chunk(null, 0, total, true);
+        }
+        long chunkEnd = ((Number) chunk.get("chunk_end")).longValue();
+
+        List<Object> caseArgs = new ArrayList<>();
+        String gradeCase = compiled.caseExpression(caseArgs);
+        List<Object> updateArgs = new ArrayList<>(caseArgs);
+        updateArgs.addAll(filterArgs);
+        updateArgs.add(lastId);
+        updateArgs.add(chunkEnd);
+        updateArgs.addAll(caseArgs);
+        int updated = jdbcTemplate.update("UPDATE exam_results SET grade = " + gradeCase + " WHERE " + filter
+                + " AND id > ? AND id <= ? AND grade <> " + gradeCase, updateArgs.toArray());
+        ObjectNode next = JsonNodeFactory.instance.objectNode().put("lastId", chunkEnd).put("changed", changed || updated > 0);
+        return new Chunk(next, ((Number) chunk.get("chunk_size")).longValue(), total, false);
+    }
+
+    private GradingScheme findWithBands(Long id) {
+        GradingScheme scheme = gradingSchemeRepository.findByIdWithBands(id)
+                .orElseThrow(() -> new RuntimeException("Grading scheme not found with id: " + id));
+        if (scheme.getBands().isEmpty()) {
+            throw new IllegalArgumentException("Grading scheme has no grade bands.");
+        }
+        return scheme;
+    }
+
+    private void applyDetails(GradingScheme scheme, GradingSchemeDTO dto) {
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            throw new IllegalArgumentException("Scheme name is required.");
+        }
+        if (dto.getBands() == null || dto.getBands().isEmpty()) {
+            throw new IllegalArgumentException("A grading scheme needs at least one grade band.");
+        }
+        List<GradeBand> bands = new ArrayList<>();
+        boolean coversZero = false;
+        for (GradingSchemeDTO.Band band : dto.getBands()) {
+            if (band.getMinMarks() == null || band.getGrade() == null || band.getGrade().isBlank()) {
+                throw new IllegalArgumentException("Every grade band needs minMarks and a grade.");
+            }
+            if (band.getMinMarks().signum() < 0 || band.getMinMarks().compareTo(BigDecimal.valueOf(100)) > 0) {
+                throw new IllegalArgumentException("Band boundaries must be between 0 and 100.");
+            }
+            if (bands.stream().anyMatch(b -> b.getMinMarks().compareTo(band.getMinMarks()) == 0)) {
+                throw new IllegalArgumentException("Duplicate band boundary: " + band.getMinMarks());
+            }
+            coversZero |= band.getMinMarks().signum() == 0;
+            bands.add(new GradeBand(band.getMinMarks().setScale(2, RoundingMode.HALF_UP), band.getGrade().trim()));
+        }
+        if (!coversZero) {
+            throw new IllegalArgumentException("The lowest grade band must start at 0.");
+        }
+        scheme.setName(dto.getName().trim());
+        scheme.getBands().clear();
+        scheme.getBands().addAll(bands);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        invalidationBus.subscribe(CacheInvalidationBus.Topic.GRADING_SCHEMES,
+                key -> schemeVersion.get().incrementAndGet(),
+                () -> schemeVersion.forEach(AtomicLong::incrementAndGet));
+    }
+
+    // Recompile on next use, once the change is visible to other transactions (on every node)
+    private void invalidate() {
+        invalidationBus.publish(CacheInvalidationBus.Topic.GRADING_SCHEMES, "*");
+        AtomicLong version = schemeVersion.get();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+
+    private GradingSchemeDTO convertToDTO(GradingScheme scheme) {
+        List<GradingSchemeDTO.Band> bands = scheme.getBands().stream()
+                .sorted(Comparator.comparing(GradeBand::getMinMarks).reversed())
+                .map(b -> new GradingSchemeDTO.Band(b.getMinMarks(), b.getGrade()))
+                .collect(Collectors.toList());
+        return new GradingSchemeDTO(scheme.getId(), scheme.getName(),
+                scheme.getSession().getId(), scheme.getSession().getName(),
+                scheme.getCourse() != null ? scheme.getCourse().getId() : null,
+                scheme.getCourse() != null ? scheme.getCourse().getCourseName() : null,
+                bands);
+    }
+}
@@ -0,0 +1,316 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fullstack.schoolmanagement.outbox.OutboxConsumer;
+import com.fullstack.schoolmanagement.outbox.OutboxEvent;
+import com.fullstack.schoolmanagement.tenant.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transactional outbox. Writers publish events inside their own transaction, so an event exists
+ * exactly when the change that caused it commits, and the side effects run later on background
+ * threads instead of the request thread.
+ *
+ * Each event is stored once per subscribed consumer. A poller claims due rows per consumer with
+ * FOR UPDATE SKIP LOCKED, leases them by pushing available_at into the future (another node picks
+ * them up again if this one dies) and hands them to that consumer's bounded executor, claiming no
+ * more than the executor has room for. A consumer handles an event in the same transaction that
+ * deletes its row, so database side effects happen once even if a lease expires mid-flight. Failures
+ * are retried with exponential backoff and moved to outbox_dead_letters after the last attempt.
+ */
+@Service
+public class OutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (consumer, event_type, payload) VALUES (?, ?, ?)";
+    private static final String CLAIM_SQL =
+            "UPDATE outbox_events SET available_at = now() + ? * interval '1 millisecond' WHERE id IN (" +
+            "SELECT id FROM outbox_events WHERE consumer = ? AND available_at <= now() ORDER BY id LIMIT ? " +
+            "FOR UPDATE SKIP LOCKED) RETURNING id, event_type, payload, attempts";
+    private static final String DEAD_LETTER_SQL =
+            "INSERT INTO outbox_dead_letters (id, consumer, event_type, payload, attempts, last_error, created_at) " +
+            "SELECT id, consumer, event_type, payload, ?, ?, created_at FROM outbox_events WHERE id = ?";
+    private static final String REQUEUE_SQL =
+            "INSERT INTO outbox_events (consumer, event_type, payload, created_at) " +
+            "SELECT consumer, event_type, payload, created_at FROM outbox_dead_letters WHERE id = ?";
+
+    private static final long MAX_BACKOFF_MS = 10 * 60 * 1000;
+
+    private static final Map<String, Class<? extends OutboxEvent>> EVENT_TYPES = new HashMap<>();
+
+    static {
+        for (Class<?> type : OutboxEvent.class.getPermittedSubclasses()) {
+            EVENT_TYPES.put(type.getSimpleName(), type.asSubclass(OutboxEvent.class));
+        }
+    }
+
+    private record Claimed(long id, String eventType, String payload, int attempts) {}
+
+    private record Registration(OutboxConsumer consumer, ThreadPoolExecutor executor) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private TenantService tenantService;
+    @Autowired
+    private List<OutboxConsumer> consumers;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.consumer-threads:2}")
+    private int consumerThreads;
+
+    @Value("${app.outbox.consumer-queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${app.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retry-backoff-ms:1000}")
+    private long retryBackoffMillis;
+
+    @Value("${app.outbox.lease-ms:60000}")
+    private long leaseMillis;
+
+    private final Map<String, Registration> registrations = new LinkedHashMap<>();
+    private final Map<Class<? extends OutboxEvent>, List<String>> consumersByType = new HashMap<>();
+
+    // Publishes wake the dispatcher right after commit instead of waiting for the next poll
+    private final Set<String> wakeUps = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        for (OutboxConsumer consumer : consumers) {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(consumerThreads, consumerThreads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                        Thread thread = new Thread(runnable, "outbox-" + consumer.name() + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            if (registrations.putIfAbsent(consumer.name(), new Registration(consumer, executor)) != null) {
+                throw new IllegalStateException("Duplicate outbox consumer name: " + consumer.name());
+            }
+            for (Class<? extends OutboxEvent> type : consumer.eventTypes()) {
+                consumersByType.computeIfAbsent(type, t -> new ArrayList<>()).add(consumer.name());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        dispatcher.shutdownNow();
+        for (Registration registration : registrations.values()) {
+            registration.executor().shutdown();
+        }
+        for (Registration registration : registrations.values()) {
+            // Unfinished events keep their lease and are picked up again once it expires
+            registration.executor().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /** Queues an event for every consumer subscribed to its type, as part of the caller's transaction. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OutboxEvent event) {
+        publishAll(List.of(event));
+    }
+
+    /** Like publish, for many events written in one batch. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(List<? extends OutboxEvent> events) {
+        List<Object[]> rows = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            List<String> names = consumersByType.getOrDefault(event.getClass(), List.of());
+            if (names.isEmpty()) {
+                continue;
+            }
+            String payload;
+            try {
+                payload = objectMapper.writeValueAsString(event);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize " + event, e);
+            }
+            String type = event.getClass().getSimpleName();
+            for (String name : names) {
+                rows.add(new Object[]{name, type, payload});
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+
+        String tenant = TenantContext.getTenant();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wakeUp(tenant);
+            }
+        });
+    }
+
+    // Picks up events of other nodes, retries that are due and leases that expired
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        if (enabled) {
+            tenantService.getTenants().forEach(this::wakeUp);
+        }
+    }
+
+    /** Pending and dead-lettered event counts per consumer, for the current tenant. */
+    public Map<String, Map<String, Long>> getStatus() {
+        Map<String, Map<String, Long>> status = new LinkedHashMap<>();
+        for (String name : registrations.keySet()) {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            counts.put("pending", 0L);
+            counts.put("retrying", 0L);
+            counts.put("deadLetters", 0L);
+            status.put(name, counts);
+        }
+        jdbcTemplate.query("SELECT consumer, COUNT(*) AS pending, COUNT(*) FILTER (WHERE attempts > 0) AS retrying " +
+                "FROM outbox_events GROUP BY consumer", rs -> {
+            Map<String, Long> counts = status.computeIfAbsent(rs.getString("consumer"), c -> new LinkedHashMap<>());
+            counts.put("pending", rs.getLong("pending"));
+            counts.put("retrying", rs.getLong("retrying"));
+        });
+        jdbcTemplate.query("SELECT consumer, COUNT(*) AS dead FROM outbox_dead_letters GROUP BY consumer", rs -> {
+            status.computeIfAbsent(rs.getString("consumer"), c -> new LinkedHashMap<>()).put("deadLetters", rs.getLong("dead"));
+        });
+        return status;
+    }
+
+    public List<Map<String, Object>> getDeadLetters() {
+        return jdbcTemplate.queryForList("SELECT id, consumer, event_type, payload, attempts, last_error, created_at, failed_at " +
+                "FROM outbox_dead_letters ORDER BY failed_at DESC LIMIT 200");
+    }
+
+    /** Puts a dead-lettered event back into the outbox with a fresh set of attempts. */
+    @Transactional
+    public void retryDeadLetter(Long id) {
+        if (jdbcTemplate.update(REQUEUE_SQL, id) == 0) {
+            throw new RuntimeException("Dead letter not found with id: " + id);
+        }
+        jdbcTemplate.update("DELETE FROM outbox_dead_letters WHERE id = ?", id);
+        wakeUp(TenantContext.getTenant());
+    }
+
+    private void wakeUp(String tenant) {
+        if (enabled && wakeUps.add(tenant)) {
+            dispatcher.execute(() -> {
+                wakeUps.remove(tenant);
+                try {
+                    TenantContext.run(tenant, this::dispatch);
+                } catch (RuntimeException e) {
+                    logger.warn("Outbox dispatch for tenant {} failed: {}", tenant, e.getMessage());
+                }
+            });
+        }
+    }
+
+    // Claims due events of the current tenant for every consumer that has room for them. Runs only
+    // on the dispatcher thread, so the room it sees cannot be taken by anyone else.
+    private void dispatch() {
+        String tenant = TenantContext.getTenant();
+        for (Registration registration : registrations.values()) {
+            int room = Math.min(batchSize, registration.executor().getQueue().remainingCapacity());
+            if (room <= 0) {
+                continue;
+            }
+            List<Claimed> claimed = jdbcTemplate.query(CLAIM_SQL, (rs, i) -> new Claimed(rs.getLong("id"),
+                    rs.getString("event_type"), rs.getString("payload"), rs.getInt("attempts")),
+                    leaseMillis, registration.consumer().name(), room);
+            claimed.sort(Comparator.comparingLong(Claimed::id));
+            for (Claimed event : claimed) {
+                registration.executor().execute(() -> TenantContext.run(tenant, () -> process(registration.consumer(), event)));
+            }
+        }
+    }
+
+    private void process(OutboxConsumer consumer, Claimed event) {
+        try {
+            Class<? extends OutboxEvent> type = EVENT_TYPES.get(event.eventType());
+            if (type == null) {
+                throw new IllegalStateException("Unknown event type " + event.eventType());
+            }
+            OutboxEvent payload = objectMapper.readValue(event.payload(), type);
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                consumer.handle(payload);
+                // Zero when the lease expired and another node already handled it
+                if (jdbcTemplate.update("DELETE FROM outbox_events WHERE id = ?", event.id()) == 0) {
+                    status.setRollbackOnly();
+                }
+            });
+        } catch (Exception e) {
+            fail(consumer, event, e);
+        }
+    }
+
+    private void fail(OutboxConsumer consumer, Claimed event, Exception cause) {
+        int attempts = event.attempts() + 1;
+        String error = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        try {
+            if (attempts >= maxAttempts) {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    jdbcTemplate.update(DEAD_LETTER_SQL, attempts, error, event.id());
+                    jdbcTemplate.update("DELETE FROM outbox_events WHERE id = ?", event.id());
+                });
+                logger.error("Outbox event {} ({}) failed {} times in consumer {}; moved to dead letters",
+                        event.id(), event.eventType(), attempts, consumer.name(), cause);
+            } else {
+                long backoff = Math.min(retryBackoffMillis << (attempts - 1), MAX_BACKOFF_MS);
+                jdbcTemplate.update("UPDATE outbox_events SET attempts = ?, last_error = ?, " +
+                        "available_at = now() + ? * interval '1 millisecond' WHERE id = ?", attempts, error, backoff, event.id());
+                logger.warn("Outbox event {} ({}) failed in consumer {}, retrying in {} ms: {}",
+                        event.id(), event.eventType(), consumer.name(), backoff, error);
+            }
+        } catch (RuntimeException e) {
+            // The lease still runs out, so the event is retried either way
+            logger.error("Could not record failure of outbox event {}", event.id(), e);
+        }
+    }
+}
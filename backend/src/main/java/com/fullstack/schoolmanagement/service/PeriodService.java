@@ -25,6 +25,9 @@ public class PeriodService {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     public List<PeriodDTO> getAllPeriods() {
         return periodRepository.findAll().stream()
             .map(this::convertToDTO)
@@ -65,6 +68,7 @@ public class PeriodService {
         period.setDayOfWeek(periodDTO.getDayOfWeek());
         
         Period saved = periodRepository.save(period);
+        referenceDataCache.bump(ReferenceDataCache.Resource.PERIODS);
         return convertToDTO(saved);
     }
 
@@ -86,11 +90,13 @@ public class PeriodService {
         period.setDayOfWeek(periodDTO.getDayOfWeek());
         
         Period updated = periodRepository.save(period);
+        referenceDataCache.bump(ReferenceDataCache.Resource.PERIODS);
         return convertToDTO(updated);
     }
 
     public void deletePeriod(Long id) {
         periodRepository.deleteById(id);
+        referenceDataCache.bump(ReferenceDataCache.Resource.PERIODS);
     }
 
     private PeriodDTO convertToDTO(Period period) {
@@ -0,0 +1,188 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fullstack.schoolmanagement.dto.ExamRankDTO;
+import com.fullstack.schoolmanagement.entity.Student;
+import com.fullstack.schoolmanagement.repository.StudentRepository;
+import com.fullstack.schoolmanagement.tenant.TenantScoped;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.security.Principal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class rank and percentile per exam, where an exam is (class, course, exam type, exam date).
+ * A cohort is ranked with one window-function query and kept as an immutable snapshot until
+ * that exam's results change, so reading a student's rank is a map lookup. Each tenant has its
+ * own snapshots.
+ */
+@Service
+public class RankingService {
+
+    public record ExamKey(Long classId, Long courseId, String examType, LocalDate examDate) {}
+
+    /** Immutable ranking of one exam cohort, ordered by rank; version is the cache version it was computed under. */
+    public record RankSnapshot(ExamKey key, long version, List<ExamRankDTO> ranks, Map<Long, ExamRankDTO> byStudent) {}
+
+    private static final String RANK_SQL =
+            "SELECT e.student_id, s.first_name, s.last_name, c.course_name, e.marks_obtained, e.grade, " +
+            "RANK() OVER (ORDER BY e.marks_obtained DESC) AS exam_rank, " +
+            "PERCENT_RANK() OVER (ORDER BY e.marks_obtained) AS pct, " +
+            "COUNT(*) OVER () AS cohort " +
+            "FROM exam_results e JOIN students s ON s.id = e.student_id JOIN courses c ON c.id = e.course_id " +
+            "WHERE e.class_id = ? AND e.course_id = ? AND e.exam_type = ? AND e.exam_date = ? " +
+            "ORDER BY exam_rank, s.last_name, s.first_name";
+
+    private static final String ALL = "*";
+
+    private static final String STUDENT_EXAMS_SQL =
+            "SELECT DISTINCT class_id, course_id, exam_type, exam_date FROM exam_results WHERE student_id = ? " +
+            "ORDER BY exam_date DESC, course_id, exam_type";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Value("${app.ranking.max-snapshots:5000}")
+    private int maxSnapshots;
+
+    private static final class Snapshots {
+        private final Map<ExamKey, RankSnapshot> snapshots = new ConcurrentHashMap<>();
+        // Bumped on every invalidation before snapshots are dropped; a snapshot computed while it
+        // changed may predate the change and is not kept. One counter, so nothing is kept per exam
+        private final AtomicLong version = new AtomicLong();
+    }
+
+    private final TenantScoped<Snapshots> tenantSnapshots = new TenantScoped<>(Snapshots::new);
+
+    @PostConstruct
+    public void subscribe() {
+        invalidationBus.subscribe(CacheInvalidationBus.Topic.RANKINGS, key -> {
+            Snapshots cache = tenantSnapshots.get();
+            if (ALL.equals(key)) {
+                dropAll(cache);
+            } else {
+                String[] parts = key.split("\\|", 4);
+                drop(cache, new ExamKey(Long.valueOf(parts[0]), Long.valueOf(parts[1]), parts[3], LocalDate.parse(parts[2])));
+            }
+        }, tenantSnapshots::clear);
+    }
+
+    public RankSnapshot getSnapshot(ExamKey key) {
+        Snapshots cache = tenantSnapshots.get();
+        RankSnapshot snapshot = cache.snapshots.get(key);
+        if (snapshot == null) {
+            long version = cache.version.get();
+            snapshot = compute(key, version);
+            if (cache.version.get() == version) {
+                if (cache.snapshots.size() >= maxSnapshots) {
+                    cache.snapshots.clear();
+                }
+                cache.snapshots.put(key, snapshot);
+                // An invalidation between the check and the put may have missed this entry
+                if (cache.version.get() != version) {
+                    cache.snapshots.remove(key, snapshot);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    public List<ExamRankDTO> getCohortRanking(Long classId, Long courseId, String examType, LocalDate examDate) {
+        return getSnapshot(new ExamKey(classId, courseId, examType, examDate)).ranks();
+    }
+
+    /** Rank and percentile of the logged-in student in every exam they have a result for. */
+    public List<ExamRankDTO> getRanksForStudent(Principal principal) {
+        if (principal == null) return List.of();
+        Student student = studentRepository.findByUser_UserId(principal.getName()).orElse(null);
+        if (student == null) return List.of();
+
+        List<ExamKey> exams = jdbcTemplate.query(STUDENT_EXAMS_SQL, (rs, i) -> new ExamKey(
+                rs.getLong("class_id"), rs.getLong("course_id"), rs.getString("exam_type"),
+                rs.getDate("exam_date").toLocalDate()), student.getId());
+        List<ExamRankDTO> ranks = new ArrayList<>(exams.size());
+        for (ExamKey exam : exams) {
+            ExamRankDTO rank = getSnapshot(exam).byStudent().get(student.getId());
+            if (rank != null) {
+                ranks.add(rank);
+            }
+        }
+        return ranks;
+    }
+
+    /** Drops the snapshot of one exam once the surrounding transaction commits. */
+    public void invalidate(Long classId, Long courseId, String examType, LocalDate examDate) {
+        ExamKey key = new ExamKey(classId, courseId, examType, examDate);
+        Snapshots cache = tenantSnapshots.get();
+        // The exam type goes last since it is free text
+        invalidationBus.publish(CacheInvalidationBus.Topic.RANKINGS, classId + "|" + courseId + "|" + examDate + "|" + examType);
+        afterCommit(() -> drop(cache, key));
+    }
+
+    /** Drops every snapshot, for changes that cut across exams (student edits, regrades). */
+    public void invalidateAll() {
+        Snapshots cache = tenantSnapshots.get();
+        invalidationBus.publish(CacheInvalidationBus.Topic.RANKINGS, ALL);
+        afterCommit(() -> dropAll(cache));
+    }
+
+    private static void drop(Snapshots cache, ExamKey key) {
+        cache.version.incrementAndGet();
+        cache.snapshots.remove(key);
+    }
+
+    private static void dropAll(Snapshots cache) {
+        cache.version.incrementAndGet();
+        cache.snapshots.clear();
+    }
+
+    private RankSnapshot compute(ExamKey key, long version) {
+        List<ExamRankDTO> ranks = jdbcTemplate.query(RANK_SQL, (rs, i) -> new ExamRankDTO(
+                rs.getLong("student_id"),
+                rs.getString("first_name") + " " + rs.getString("last_name"),
+                key.classId(), key.courseId(), rs.getString("course_name"),
+                key.examType(), key.examDate(),
+                rs.getBigDecimal("marks_obtained"), rs.getString("grade"),
+                rs.getInt("exam_rank"),
+                BigDecimal.valueOf(rs.getDouble("pct") * 100).setScale(1, RoundingMode.HALF_UP).doubleValue(),
+                rs.getInt("cohort")),
+                key.classId(), key.courseId(), key.examType(), Date.valueOf(key.examDate()));
+        Map<Long, ExamRankDTO> byStudent = new HashMap<>(ranks.size() * 2);
+        for (ExamRankDTO rank : ranks) {
+            byStudent.put(rank.getStudentId(), rank);
+        }
+        return new RankSnapshot(key, version, Collections.unmodifiableList(ranks), Collections.unmodifiableMap(byStudent));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
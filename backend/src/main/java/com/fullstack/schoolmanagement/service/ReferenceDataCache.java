@@ -0,0 +1,150 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fullstack.schoolmanagement.tenant.TenantScoped;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Versioned cache for reference data (courses, classes, periods, academic sessions).
+ * Each resource has a version counter that write paths bump after commit; a bump only makes
+ * the next read reload. Reads are served from the already-serialized JSON of the current
+ * version, tagged with a hash of that JSON, so every node and every restart hands out the same
+ * ETag for the same data, and clients presenting it get a 304 without a query or a Jackson pass. Versions and entries are kept
+ * per tenant, and bumps reach the other nodes through the {@link CacheInvalidationBus}.
+ */
+@Service
+public class ReferenceDataCache {
+
+    public enum Resource { COURSES, CLASSES, PERIODS, ACADEMIC_SESSIONS }
+
+    private record Entry(long version, String etag, byte[] body) {}
+
+    private final TenantScoped<Map<Resource, AtomicLong>> versions = new TenantScoped<>(ReferenceDataCache::newVersions);
+    private final TenantScoped<Map<String, Entry>> entries = new TenantScoped<>(ConcurrentHashMap::new);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @PostConstruct
+    public void subscribe() {
+        invalidationBus.subscribe(CacheInvalidationBus.Topic.REFERENCE_DATA,
+                key -> increment(versions.get(), Resource.valueOf(key)),
+                () -> versions.forEach(tenantVersions -> increment(tenantVersions, Resource.values())));
+    }
+
+    private static Map<Resource, AtomicLong> newVersions() {
+        Map<Resource, AtomicLong> versions = new EnumMap<>(Resource.class);
+        for (Resource resource : Resource.values()) {
+            versions.put(resource, new AtomicLong());
+        }
+        return versions;
+    }
+
+    public long version(Resource resource) {
+        return versions.get().get(resource).get();
+    }
+
+    /**
+     * Marks the given resources as changed. Inside a transaction the bump is deferred until
+     * after commit, so a concurrent reader can never cache pre-commit data under the new version.
+     */
+    public void bump(Resource... resources) {
+        Map<Resource, AtomicLong> tenantVersions = versions.get();
+        for (Resource resource : resources) {
+            invalidationBus.publish(CacheInvalidationBus.Topic.REFERENCE_DATA, resource.name());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(tenantVersions, resources);
+                }
+            });
+        } else {
+            increment(tenantVersions, resources);
+        }
+    }
+
+    /**
+     * Returns the cached JSON for (resource, variant), a 304 when ifNoneMatch matches the
+     * hash of the current body, or loads, serializes and caches the body otherwise.
+     */
+    public ResponseEntity<byte[]> respond(Resource resource, String variant, String ifNoneMatch, Supplier<?> loader) {
+        long version = version(resource);
+        String key = resource.name() + ":" + variant;
+        Map<String, Entry> tenantEntries = entries.get();
+        Entry entry = tenantEntries.get(key);
+        if (entry == null || entry.version() != version) {
+            entry = load(resource, version, loader);
+            tenantEntries.put(key, entry);
+        }
+
+        if (matches(ifNoneMatch, entry.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(entry.etag())
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(entry.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entry.body());
+    }
+
+    private Entry load(Resource resource, long version, Supplier<?> loader) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(loader.get());
+            return new Entry(version, "\"" + hash(body) + "\"", body);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize " + resource + " response", e);
+        }
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void increment(Map<Resource, AtomicLong> versions, Resource... resources) {
+        for (Resource resource : resources) {
+            versions.get(resource).incrementAndGet();
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,206 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fullstack.schoolmanagement.dto.RollCallProgressDTO;
+import com.fullstack.schoolmanagement.tenant.TenantContext;
+import com.fullstack.schoolmanagement.tenant.TenantScoped;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live roll-call progress per class period, pushed over Server-Sent Events instead of being polled.
+ *
+ * A committed roll call is counted once, with a single-row query, and the result fans out to
+ * every subscriber watching that day; other nodes learn about it through the invalidation bus and
+ * do the same for their own subscribers. Each subscriber has a bounded buffer drained by its own
+ * virtual thread, so a slow client only delays itself: when its buffer overflows the pending
+ * updates are dropped and it is sent a fresh snapshot instead.
+ */
+@Service
+public class RollCallProgressService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollCallProgressService.class);
+
+    private static final String PROGRESS_SQL =
+            "SELECT p.class_id, cl.name AS class_name, p.id AS period_id, p.period_number, c.course_name, " +
+            "(SELECT COUNT(*) FROM students s WHERE s.class_id = p.class_id) AS class_size, " +
+            "COUNT(a.id) AS marked, COUNT(a.id) FILTER (WHERE NOT a.present) AS absent " +
+            "FROM periods p JOIN classes cl ON cl.id = p.class_id JOIN courses c ON c.id = p.course_id " +
+            "LEFT JOIN attendance a ON a.class_id = p.class_id AND a.period_id = p.id AND a.attendance_date = ? ";
+    // The day's timetable, plus any other period someone took a roll call for on that day
+    private static final String SNAPSHOT_SQL = PROGRESS_SQL +
+            "GROUP BY p.id, cl.name, c.course_name HAVING p.day_of_week = ? OR COUNT(a.id) > 0 " +
+            "ORDER BY cl.name, p.period_number";
+    private static final String PERIOD_SQL = PROGRESS_SQL + "WHERE p.id = ? GROUP BY p.id, cl.name, c.course_name";
+
+    private static final class Subscriber {
+        private final String tenant;
+        private final LocalDate date;
+        private final SseEmitter emitter;
+        private final BlockingQueue<RollCallProgressDTO> buffer;
+        private volatile boolean overflowed;
+        private volatile boolean closed;
+
+        private Subscriber(String tenant, LocalDate date, SseEmitter emitter, int capacity) {
+            this.tenant = tenant;
+            this.date = date;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void offer(RollCallProgressDTO progress) {
+            if (!buffer.offer(progress)) {
+                overflowed = true;
+                buffer.clear();
+            }
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Value("${app.roll-call.stream.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.roll-call.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${app.roll-call.stream.heartbeat-ms:20000}")
+    private long heartbeatMillis;
+
+    private final TenantScoped<List<Subscriber>> tenantSubscribers = new TenantScoped<>(CopyOnWriteArrayList::new);
+
+    // Counts a committed roll call off the request thread
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "roll-call-progress");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void subscribe() {
+        invalidationBus.subscribe(CacheInvalidationBus.Topic.ROLL_CALL, key -> {
+            String[] parts = key.split("\\|", 2);
+            refresh(Long.valueOf(parts[0]), LocalDate.parse(parts[1]));
+        }, () -> tenantSubscribers.forEach(subscribers -> subscribers.forEach(s -> s.overflowed = true)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+        tenantSubscribers.forEach(subscribers -> subscribers.forEach(s -> s.emitter.complete()));
+    }
+
+    public List<RollCallProgressDTO> getProgress(LocalDate date) {
+        return jdbcTemplate.query(SNAPSHOT_SQL, progressMapper(date), Date.valueOf(date), date.getDayOfWeek().name());
+    }
+
+    /** Opens a stream that starts with a "snapshot" of the day and continues with "progress" updates. */
+    public SseEmitter stream(LocalDate date) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(TenantContext.getTenant(), date, emitter, bufferSize);
+        List<Subscriber> subscribers = tenantSubscribers.get();
+        Runnable close = () -> {
+            subscriber.closed = true;
+            subscribers.remove(subscriber);
+        };
+        emitter.onCompletion(close);
+        emitter.onTimeout(close);
+        emitter.onError(e -> close.run());
+        // Registered before the snapshot is read, so no roll call committed in between is missed;
+        // the drain loop starts by sending the snapshot, as after an overflow
+        subscribers.add(subscriber);
+        subscriber.overflowed = true;
+        Thread.ofVirtual().name("roll-call-stream").start(() -> drain(subscriber));
+        return emitter;
+    }
+
+    /** Pushes the period's new counts to all nodes once the roll call's transaction commits. */
+    public void recordRollCall(Long periodId, LocalDate date) {
+        invalidationBus.publish(CacheInvalidationBus.Topic.ROLL_CALL, periodId + "|" + date);
+        String tenant = TenantContext.getTenant();
+        Runnable refresh = () -> refresher.execute(() -> TenantContext.run(tenant, () -> refresh(periodId, date)));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh.run();
+                }
+            });
+        } else {
+            refresh.run();
+        }
+    }
+
+    private void refresh(Long periodId, LocalDate date) {
+        List<Subscriber> watching = tenantSubscribers.get().stream().filter(s -> s.date.equals(date)).toList();
+        if (watching.isEmpty()) {
+            return;
+        }
+        List<RollCallProgressDTO> progress = jdbcTemplate.query(PERIOD_SQL, progressMapper(date), Date.valueOf(date), periodId);
+        if (!progress.isEmpty()) {
+            watching.forEach(s -> s.offer(progress.get(0)));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (!subscriber.closed) {
+                if (subscriber.overflowed) {
+                    subscriber.overflowed = false;
+                    subscriber.buffer.clear();
+                    List<RollCallProgressDTO> snapshot = TenantContext.call(subscriber.tenant, () -> getProgress(subscriber.date));
+                    subscriber.emitter.send(SseEmitter.event().name("snapshot").data(snapshot));
+                    continue;
+                }
+                RollCallProgressDTO progress = subscriber.buffer.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                if (progress != null) {
+                    subscriber.emitter.send(SseEmitter.event().name("progress").data(progress));
+                } else if (!subscriber.closed) {
+                    // Keeps proxies from closing an idle stream and detects clients that went away
+                    subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Roll-call stream closed: {}", e.getMessage());
+            subscriber.emitter.completeWithError(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.warn("Roll-call stream failed", e);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private static RowMapper<RollCallProgressDTO> progressMapper(LocalDate date) {
+        return (rs, i) -> {
+            int classSize = rs.getInt("class_size");
+            int marked = rs.getInt("marked");
+            return new RollCallProgressDTO(rs.getLong("class_id"), rs.getString("class_name"), rs.getLong("period_id"),
+                    rs.getInt("period_number"), rs.getString("course_name"), date, classSize, marked,
+                    Math.max(classSize - marked, 0), rs.getInt("absent"));
+        };
+    }
+}
@@ -0,0 +1,351 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fullstack.schoolmanagement.ResourceNotFoundException;
+import com.fullstack.schoolmanagement.dto.BatchJobDTO;
+import com.fullstack.schoolmanagement.dto.RolloverDTO;
+import com.fullstack.schoolmanagement.dto.RolloverMoveDTO;
+import com.fullstack.schoolmanagement.dto.RolloverRequest;
+import com.fullstack.schoolmanagement.job.BatchJobHandler;
+import com.fullstack.schoolmanagement.repository.AcademicSessionRepository;
+import com.fullstack.schoolmanagement.repository.ClassRepository;
+import com.fullstack.schoolmanagement.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Year-end promotion of students into their next class and session. A rollover first plans the
+ * move of every student with a few set-based statements into student_rollover_moves (class and
+ * session mappings as CASE expressions, per-student overrides on top), which is also the diff a
+ * dry run returns. The plan is then applied by a batch job in student id order in chunks, each
+ * one {@code UPDATE students ... FROM student_rollover_moves} in the chunk's transaction that
+ * also advances the rollover's checkpoint. A rollover that failed or was cancelled is resumed
+ * from its checkpoint; since every chunk reads the checkpoint under the rollover's row lock, two
+ * runners of the same rollover never apply a chunk twice. A student whose class or session was
+ * changed after planning is skipped rather than overwritten.
+ */
+@Service
+public class RolloverService implements BatchJobHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RolloverService.class);
+
+    private static final String MOVE_COLUMNS =
+            "INSERT INTO student_rollover_moves (rollover_id, student_id, from_class_id, from_session_id, to_class_id, to_session_id) ";
+    private static final String CHUNK_SQL =
+            "SELECT MAX(student_id) AS chunk_end, COUNT(*) AS chunk_size FROM (SELECT student_id FROM student_rollover_moves " +
+            "WHERE rollover_id = ? AND student_id > ? ORDER BY student_id LIMIT ?) chunk";
+    // Moves the chunk's students that are still where the plan found them, and marks every move of the chunk
+    private static final String APPLY_SQL =
+            "WITH moved AS (UPDATE students s SET class_id = m.to_class_id, session_id = m.to_session_id " +
+            "FROM student_rollover_moves m WHERE m.rollover_id = ? AND m.student_id > ? AND m.student_id <= ? " +
+            "AND s.id = m.student_id AND s.class_id IS NOT DISTINCT FROM m.from_class_id " +
+            "AND s.session_id IS NOT DISTINCT FROM m.from_session_id " +
+            "RETURNING s.id, s.first_name, s.last_name, s.user_id, s.class_id), " +
+            "marked AS (UPDATE student_rollover_moves SET applied = student_id IN (SELECT id FROM moved) " +
+            "WHERE rollover_id = ? AND student_id > ? AND student_id <= ?) " +
+            "SELECT moved.id, moved.first_name, moved.last_name, moved.user_id, c.name AS class_name " +
+            "FROM moved LEFT JOIN classes c ON c.id = moved.class_id";
+    private static final String CHECKPOINT_SQL =
+            "UPDATE student_rollovers SET last_student_id = ?, moved_count = moved_count + ?, " +
+            "skipped_count = skipped_count + ?, updated_at = now() WHERE id = ?";
+    private static final String ROLLOVER_SQL =
+            "SELECT id, status, planned_count, moved_count, skipped_count, last_student_id, job_id, created_at, started_at, " +
+            "finished_at, error FROM student_rollovers";
+    private static final String MOVES_SQL =
+            "SELECT m.student_id, s.first_name, s.last_name, m.from_class_id, fc.name AS from_class_name, " +
+            "m.to_class_id, tc.name AS to_class_name, m.from_session_id, fs.name AS from_session_name, " +
+            "m.to_session_id, ts.name AS to_session_name, m.applied FROM student_rollover_moves m " +
+            "LEFT JOIN students s ON s.id = m.student_id " +
+            "LEFT JOIN classes fc ON fc.id = m.from_class_id LEFT JOIN classes tc ON tc.id = m.to_class_id " +
+            "LEFT JOIN academic_sessions fs ON fs.id = m.from_session_id " +
+            "LEFT JOIN academic_sessions ts ON ts.id = m.to_session_id " +
+            "WHERE m.rollover_id = ? ORDER BY fc.name NULLS FIRST, s.last_name, s.first_name, m.student_id";
+
+    private static final String JOB_TYPE = "rollover";
+
+    private record MovedStudent(Long id, String firstName, String lastName, String userId, String className) {}
+
+    private record ChunkOutcome(long lastStudentId, int students) {}
+
+    private static final RowMapper<RolloverDTO> ROLLOVER = (rs, i) -> new RolloverDTO(rs.getLong("id"),
+            rs.getString("status"), rs.getInt("planned_count"), rs.getInt("moved_count"), rs.getInt("skipped_count"),
+            rs.getLong("last_student_id"), rs.getObject("job_id", Long.class), toDateTime(rs.getTimestamp("created_at")), toDateTime(rs.getTimestamp("started_at")),
+            toDateTime(rs.getTimestamp("finished_at")), rs.getString("error"));
+
+    private static final RowMapper<RolloverMoveDTO> MOVE = (rs, i) -> new RolloverMoveDTO(rs.getLong("student_id"),
+            rs.getString("first_name") != null ? rs.getString("first_name") + " " + rs.getString("last_name") : null,
+            rs.getObject("from_class_id", Long.class), rs.getString("from_class_name"),
+            rs.getObject("to_class_id", Long.class), rs.getString("to_class_name"),
+            rs.getObject("from_session_id", Long.class), rs.getString("from_session_name"),
+            rs.getObject("to_session_id", Long.class), rs.getString("to_session_name"),
+            rs.getObject("applied", Boolean.class));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    @Autowired
+    private AcademicSessionRepository academicSessionRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private BatchJobService batchJobService;
+
+    @Value("${app.rollover.chunk-size:1000}")
+    private int chunkSize;
+
+    /** Plans the rollover and returns its diff without storing or moving anything. */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<RolloverMoveDTO> preview(RolloverRequest request) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<RolloverMoveDTO> moves = getMoves(plan(request));
+            status.setRollbackOnly();
+            return moves;
+        });
+    }
+
+    /** Plans the rollover and queues the job that applies it. */
+    @Transactional
+    public RolloverDTO start(RolloverRequest request) {
+        long id = plan(request);
+        submitJob(id);
+        return getRollover(id);
+    }
+
+    /** Continues a failed or cancelled rollover from its checkpoint. */
+    @Transactional
+    public RolloverDTO resume(Long id) {
+        RolloverDTO rollover = getRollover(id);
+        if ("COMPLETED".equals(rollover.getStatus())) {
+            throw new IllegalStateException("Rollover " + id + " has already completed.");
+        }
+        if (rollover.getJobId() == null) {
+            jdbcTemplate.update("UPDATE student_rollovers SET status = 'RUNNING', error = NULL, updated_at = now() WHERE id = ?", id);
+            submitJob(id);
+        } else {
+            // The job marks the rollover as running again when it picks it up
+            batchJobService.retry(rollover.getJobId());
+        }
+        return getRollover(id);
+    }
+
+    public RolloverDTO getRollover(Long id) {
+        List<RolloverDTO> rollovers = jdbcTemplate.query(ROLLOVER_SQL + " WHERE id = ?", ROLLOVER, id);
+        if (rollovers.isEmpty()) {
+            throw new ResourceNotFoundException("Rollover not found with id: " + id);
+        }
+        return rollovers.get(0);
+    }
+
+    public List<RolloverDTO> getRollovers() {
+        return jdbcTemplate.query(ROLLOVER_SQL + " ORDER BY id DESC", ROLLOVER);
+    }
+
+    public List<RolloverMoveDTO> getMoves(Long id) {
+        return jdbcTemplate.query(MOVES_SQL, MOVE, id);
+    }
+
+    private long plan(RolloverRequest request) {
+        Map<Long, Long> classMapping = request.getClassMapping() != null ? request.getClassMapping() : Map.of();
+        Map<Long, Long> sessionMapping = request.getSessionMapping() != null ? request.getSessionMapping() : Map.of();
+        List<RolloverRequest.StudentOverride> overrides = request.getOverrides() != null ? request.getOverrides() : List.of();
+        if (classMapping.isEmpty() && overrides.isEmpty()) {
+            throw new IllegalArgumentException("A rollover needs a class mapping or student overrides.");
+        }
+        validate(classMapping, sessionMapping, overrides);
+
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO student_rollovers (status, started_at) VALUES ('RUNNING', now()) RETURNING id", Long.class);
+        List<Object> sessionArgs = new ArrayList<>();
+        String sessionCase = sessionCase(sessionMapping, sessionArgs);
+
+        if (!classMapping.isEmpty()) {
+            List<Object> args = new ArrayList<>();
+            args.add(id);
+            StringBuilder classCase = new StringBuilder("CASE s.class_id");
+            classMapping.forEach((from, to) -> {
+                classCase.append(" WHEN ? THEN CAST(? AS bigint)");
+                args.add(from);
+                args.add(to);
+            });
+            classCase.append(" END");
+            args.addAll(sessionArgs);
+            args.addAll(classMapping.keySet());
+            jdbcTemplate.update(MOVE_COLUMNS + "SELECT ?, s.id, s.class_id, s.session_id, " + classCase + ", " + sessionCase +
+                    " FROM students s WHERE s.is_active AND s.class_id IN (" + placeholders(classMapping.size()) + ")",
+                    args.toArray());
+        }
+
+        List<Object[]> moved = new ArrayList<>();
+        List<Object[]> excluded = new ArrayList<>();
+        for (RolloverRequest.StudentOverride override : overrides) {
+            if (override.isExclude()) {
+                excluded.add(new Object[]{id, override.getStudentId()});
+                continue;
+            }
+            List<Object> args = new ArrayList<>(List.of(id));
+            args.add(override.getClassId());
+            args.add(override.getSessionId());
+            args.addAll(sessionArgs);
+            args.add(override.getStudentId());
+            moved.add(args.toArray());
+        }
+        if (!moved.isEmpty()) {
+            jdbcTemplate.batchUpdate(MOVE_COLUMNS + "SELECT ?, s.id, s.class_id, s.session_id, CAST(? AS bigint), " +
+                    "COALESCE(CAST(? AS bigint), " + sessionCase + ") FROM students s WHERE s.id = ? " +
+                    "ON CONFLICT (rollover_id, student_id) DO UPDATE SET to_class_id = EXCLUDED.to_class_id, " +
+                    "to_session_id = EXCLUDED.to_session_id", moved);
+        }
+        if (!excluded.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM student_rollover_moves WHERE rollover_id = ? AND student_id = ?", excluded);
+        }
+
+        // Students already where they are going
+        jdbcTemplate.update("DELETE FROM student_rollover_moves WHERE rollover_id = ? " +
+                "AND from_class_id IS NOT DISTINCT FROM to_class_id AND from_session_id IS NOT DISTINCT FROM to_session_id", id);
+        jdbcTemplate.update("UPDATE student_rollovers SET planned_count = " +
+                "(SELECT COUNT(*) FROM student_rollover_moves WHERE rollover_id = ?) WHERE id = ?", id, id);
+        return id;
+    }
+
+    @Override
+    public String type() {
+        return JOB_TYPE;
+    }
+
+    @Override
+    public Chunk runChunk(JsonNode params, JsonNode checkpoint) {
+        long id = params.get("rolloverId").asLong();
+        jdbcTemplate.update("UPDATE student_rollovers SET status = 'RUNNING', error = NULL, updated_at = now() " +
+                "WHERE id = ? AND status IN ('FAILED', 'CANCELLED')", id);
+        Long total = checkpoint == null ? (long) getRollover(id).getPlannedCount() : null;
+        ChunkOutcome outcome = applyChunk(id);
+        if (outcome == null) {
+            RolloverDTO rollover = getRollover(id);
+            logger.info("Rollover {} {}: {} of {} students moved, {} skipped", id, rollover.getStatus(),
+                    rollover.getMovedCount(), rollover.getPlannedCount(), rollover.getSkippedCount());
+            return new Chunk(null, 0, total, true);
+        }
+        return new Chunk(LongNode.valueOf(outcome.lastStudentId()), outcome.students(), total, false);
+    }
+
+    @Override
+    public void stopped(JsonNode params, String status, String error) {
+        jdbcTemplate.update("UPDATE student_rollovers SET status = ?, error = ?, updated_at = now() WHERE id = ? AND status = 'RUNNING'",
+                status, error, params.get("rolloverId").asLong());
+    }
+
+    private void submitJob(long id) {
+        BatchJobDTO job = batchJobService.submit(JOB_TYPE, Map.of("rolloverId", id));
+        jdbcTemplate.update("UPDATE student_rollovers SET job_id = ? WHERE id = ?", job.getId(), id);
+    }
+
+    // Applies the next chunk after the checkpoint; null once the plan is done or the rollover stopped
+    private ChunkOutcome applyChunk(long id) {
+        List<Long> checkpoint = jdbcTemplate.queryForList(
+                "SELECT last_student_id FROM student_rollovers WHERE id = ? AND status = 'RUNNING' FOR UPDATE", Long.class, id);
+        if (checkpoint.isEmpty()) {
+            return null;
+        }
+        long lastId = checkpoint.get(0);
+        Map<String, Object> chunk = jdbcTemplate.queryForMap(CHUNK_SQL, id, lastId, chunkSize);
+        if (chunk.get("chunk_end") == null) {
+            jdbcTemplate.update("UPDATE student_rollovers SET status = 'COMPLETED', finished_at = now(), updated_at = now() " +
+                    "WHERE id = ?", id);
+            return null;
+        }
+        long chunkEnd = ((Number) chunk.get("chunk_end")).longValue();
+        int size = ((Number) chunk.get("chunk_size")).intValue();
+
+        List<MovedStudent> moved = jdbcTemplate.query(APPLY_SQL, (rs, i) -> new MovedStudent(rs.getLong("id"),
+                rs.getString("first_name"), rs.getString("last_name"), rs.getString("user_id"), rs.getString("class_name")),
+                id, lastId, chunkEnd, id, lastId, chunkEnd);
+        jdbcTemplate.update(CHECKPOINT_SQL, chunkEnd, moved.size(), size - moved.size(), id);
+        // Search results show the student's class
+        for (MovedStudent student : moved) {
+            searchIndexService.indexStudent(student.id(), student.firstName(), student.lastName(), student.userId(),
+                    student.className());
+        }
+        return new ChunkOutcome(chunkEnd, size);
+    }
+
+    private void validate(Map<Long, Long> classMapping, Map<Long, Long> sessionMapping,
+                          List<RolloverRequest.StudentOverride> overrides) {
+        if (sessionMapping.values().stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Every mapped session needs a next session.");
+        }
+        Set<Long> classIds = new HashSet<>(classMapping.values());
+        Set<Long> sessionIds = new HashSet<>(sessionMapping.values());
+        Set<Long> studentIds = new HashSet<>();
+        for (RolloverRequest.StudentOverride override : overrides) {
+            if (override.getStudentId() == null) {
+                throw new IllegalArgumentException("Every override needs a student id.");
+            }
+            studentIds.add(override.getStudentId());
+            classIds.add(override.getClassId());
+            sessionIds.add(override.getSessionId());
+        }
+        classIds.remove(null);
+        sessionIds.remove(null);
+        if (classRepository.findAllById(classIds).size() != classIds.size()) {
+            throw new IllegalArgumentException("The rollover refers to a class that does not exist.");
+        }
+        if (academicSessionRepository.findAllById(sessionIds).size() != sessionIds.size()) {
+            throw new IllegalArgumentException("The rollover refers to an academic session that does not exist.");
+        }
+        if (studentRepository.findAllById(studentIds).size() != studentIds.size()) {
+            throw new IllegalArgumentException("The rollover overrides a student that does not exist.");
+        }
+    }
+
+    private static String sessionCase(Map<Long, Long> sessionMapping, List<Object> args) {
+        if (sessionMapping.isEmpty()) {
+            return "s.session_id";
+        }
+        StringBuilder sessionCase = new StringBuilder("CASE s.session_id");
+        sessionMapping.forEach((from, to) -> {
+            sessionCase.append(" WHEN ? THEN CAST(? AS bigint)");
+            args.add(from);
+            args.add(to);
+        });
+        return sessionCase.append(" ELSE s.session_id END").toString();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static LocalDateTime toDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
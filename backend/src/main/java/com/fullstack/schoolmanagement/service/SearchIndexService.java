@@ -0,0 +1,449 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fullstack.schoolmanagement.dto.SearchHitDTO;
+import com.fullstack.schoolmanagement.tenant.TenantContext;
+import com.fullstack.schoolmanagement.tenant.TenantScoped;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory typeahead index over student and teacher names, user IDs, and course codes and names.
+ * Every term is indexed by its prefixes (for as-you-type matches) and by its trigrams (for
+ * matches inside a word and small typos), so a query touches only the postings of its own
+ * tokens. Each tenant has its own index, loaded in the background when the application is ready
+ * (or when a new tenant is first seen) and kept current by the write paths. Until its first
+ * load finishes, queries go to PostgreSQL, using pg_trgm similarity when the extension is available.
+ */
+@Service
+public class SearchIndexService {
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    public enum Type { STUDENT, TEACHER, COURSE }
+
+    private static final int MAX_PREFIX = 12;
+    private static final double MIN_TRIGRAM_SIMILARITY = 0.3;
+
+    private static final String STUDENTS_SQL = "SELECT s.id, s.first_name, s.last_name, s.user_id, c.name AS class_name " +
+            "FROM students s LEFT JOIN classes c ON c.id = s.class_id";
+    private static final String TEACHERS_SQL = "SELECT id, first_name, last_name, user_id, specialization FROM teachers";
+    private static final String COURSES_SQL = "SELECT id, course_code, course_name FROM courses";
+
+    private record DocKey(Type type, long id) {}
+
+    private record Doc(DocKey key, String label, String detail, List<String> terms) {}
+
+    private static final class Index {
+        private final Map<DocKey, Doc> docs = new ConcurrentHashMap<>();
+        private final Map<String, Set<DocKey>> prefixes = new ConcurrentHashMap<>();
+        private final Map<String, Set<DocKey>> trigrams = new ConcurrentHashMap<>();
+        // Writes that arrive while the initial load runs are replayed on top of it
+        private final List<Runnable> pendingWrites = new ArrayList<>();
+        private volatile boolean ready;
+        // pg_trgm is installed per database and must be visible from the tenant's schema
+        private volatile boolean trigramExtension;
+    }
+
+    private final TenantScoped<Index> indexes = new TenantScoped<>(this::newIndex);
+    // Tenants are loaded one at a time so a restart does not hit the database with all of them at once
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-index-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TenantService tenantService;
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    // Other nodes publish "TYPE:id" for each entry they changed; it is re-read from the database
+    @PostConstruct
+    public void subscribe() {
+        invalidationBus.subscribe(CacheInvalidationBus.Topic.SEARCH_INDEX, key -> {
+            String[] parts = key.split(":", 2);
+            refresh(Type.valueOf(parts[0]), Long.parseLong(parts[1]));
+        }, indexes::clear);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        tenantService.forEachTenant(indexes::get);
+    }
+
+    public boolean isReady() {
+        return indexes.get().ready;
+    }
+
+    /** Reloads the current tenant's index from the database. */
+    public void rebuild() {
+        rebuild(indexes.get());
+    }
+
+    private Index newIndex() {
+        Index index = new Index();
+        String tenant = TenantContext.getTenant();
+        loader.execute(() -> TenantContext.run(tenant, () -> rebuild(index)));
+        return index;
+    }
+
+    private void rebuild(Index index) {
+        long started = System.currentTimeMillis();
+        synchronized (index.pendingWrites) {
+            index.ready = false;
+        }
+        try {
+            index.trigramExtension = detectTrigramExtension();
+            index.docs.clear();
+            index.prefixes.clear();
+            index.trigrams.clear();
+            for (Type type : Type.values()) {
+                jdbcTemplate.query(sql(type), rs -> {
+                    load(index, type, rs);
+                });
+            }
+            synchronized (index.pendingWrites) {
+                index.pendingWrites.forEach(Runnable::run);
+                index.pendingWrites.clear();
+                index.ready = true;
+            }
+            logger.info("Search index of tenant {} built with {} entries in {} ms (pg_trgm fallback: {})",
+                    TenantContext.getTenant(), index.docs.size(), System.currentTimeMillis() - started, index.trigramExtension);
+        } catch (RuntimeException e) {
+            synchronized (index.pendingWrites) {
+                index.pendingWrites.clear();
+            }
+            logger.error("Search index build of tenant {} failed, searches will use the database: {}",
+                    TenantContext.getTenant(), e.getMessage(), e);
+        }
+    }
+
+    public void indexStudent(Long id, String firstName, String lastName, String userId, String className) {
+        Index index = indexes.get();
+        publish(Type.STUDENT, id);
+        afterCommit(() -> write(index, () -> put(index, Type.STUDENT, id, fullName(firstName, lastName), detail(userId, className), userId)));
+    }
+
+    public void indexTeacher(Long id, String firstName, String lastName, String userId, String specialization) {
+        Index index = indexes.get();
+        publish(Type.TEACHER, id);
+        afterCommit(() -> write(index, () -> put(index, Type.TEACHER, id, fullName(firstName, lastName), detail(userId, specialization), userId)));
+    }
+
+    public void indexCourse(Long id, String courseCode, String courseName) {
+        Index index = indexes.get();
+        publish(Type.COURSE, id);
+        afterCommit(() -> write(index, () -> put(index, Type.COURSE, id, courseName, courseCode, courseCode)));
+    }
+
+    /** Re-reads the entries of a class's students, whose detail shows the class name. */
+    public void indexStudentsOfClass(Long classId) {
+        Index index = indexes.get();
+        for (Long id : jdbcTemplate.queryForList("SELECT id FROM students WHERE class_id = ?", Long.class, classId)) {
+            publish(Type.STUDENT, id);
+        }
+        afterCommit(() -> write(index, () -> jdbcTemplate.query(STUDENTS_SQL + " WHERE s.class_id = ?", rs -> {
+            load(index, Type.STUDENT, rs);
+        }, classId)));
+    }
+
+    public void remove(Type type, Long id) {
+        Index index = indexes.get();
+        publish(type, id);
+        afterCommit(() -> write(index, () -> removeDoc(index, new DocKey(type, id))));
+    }
+
+    // Re-reads one entry changed on another node, dropping it if the row is gone
+    private void refresh(Type type, long id) {
+        Index index = indexes.get();
+        String where = type == Type.STUDENT ? " WHERE s.id = ?" : " WHERE id = ?";
+        write(index, () -> {
+            removeDoc(index, new DocKey(type, id));
+            jdbcTemplate.query(sql(type) + where, rs -> {
+                load(index, type, rs);
+            }, id);
+        });
+    }
+
+    private void publish(Type type, Long id) {
+        invalidationBus.publish(CacheInvalidationBus.Topic.SEARCH_INDEX, type.name() + ":" + id);
+    }
+
+    private static String sql(Type type) {
+        return switch (type) {
+            case STUDENT -> STUDENTS_SQL;
+            case TEACHER -> TEACHERS_SQL;
+            case COURSE -> COURSES_SQL;
+        };
+    }
+
+    private static void load(Index index, Type type, ResultSet rs) throws SQLException {
+        switch (type) {
+            case STUDENT -> put(index, type, rs.getLong("id"), fullName(rs.getString("first_name"), rs.getString("last_name")),
+                    detail(rs.getString("user_id"), rs.getString("class_name")), rs.getString("user_id"));
+            case TEACHER -> put(index, type, rs.getLong("id"), fullName(rs.getString("first_name"), rs.getString("last_name")),
+                    detail(rs.getString("user_id"), rs.getString("specialization")), rs.getString("user_id"));
+            case COURSE -> put(index, type, rs.getLong("id"), rs.getString("course_name"), rs.getString("course_code"),
+                    rs.getString("course_code"));
+        }
+    }
+
+    /** Ranked typeahead matches for the query, limited to the given entity types. */
+    public List<SearchHitDTO> search(String query, Set<Type> types, int limit) {
+        List<String> words = terms(query);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<Type> wanted = types == null || types.isEmpty() ? EnumSet.allOf(Type.class) : types;
+        Index index = indexes.get();
+        if (!index.ready) {
+            return searchDatabase(String.join(" ", words), wanted, limit);
+        }
+
+        Map<DocKey, Double> scores = new HashMap<>();
+        // Prefix matches: every query word must start some term of the entry
+        String anchor = words.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        for (DocKey key : index.prefixes.getOrDefault(prefix(anchor), Set.of())) {
+            Doc doc = index.docs.get(key);
+            if (doc == null || !wanted.contains(key.type())) continue;
+            double score = prefixScore(doc, words);
+            if (score > 0) {
+                scores.put(key, score);
+            }
+        }
+
+        // Trigram matches catch infixes and typos once the query is long enough
+        String joined = String.join(" ", words);
+        if (scores.size() < limit && joined.length() >= 3) {
+            Set<String> queryGrams = trigramsOf(words);
+            Map<DocKey, Integer> shared = new HashMap<>();
+            for (String gram : queryGrams) {
+                for (DocKey key : index.trigrams.getOrDefault(gram, Set.of())) {
+                    if (wanted.contains(key.type()) && !scores.containsKey(key)) {
+                        shared.merge(key, 1, Integer::sum);
+                    }
+                }
+            }
+            shared.forEach((key, count) -> {
+                double similarity = (double) count / queryGrams.size();
+                if (similarity >= MIN_TRIGRAM_SIMILARITY && index.docs.containsKey(key)) {
+                    scores.put(key, similarity); // always below a prefix match
+                }
+            });
+        }
+
+        List<SearchHitDTO> hits = new ArrayList<>(scores.size());
+        scores.forEach((key, score) -> {
+            Doc doc = index.docs.get(key);
+            if (doc != null) {
+                hits.add(new SearchHitDTO(key.type().name(), key.id(), doc.label(), doc.detail(), score));
+            }
+        });
+        hits.sort(Comparator.comparingDouble(SearchHitDTO::getScore).reversed()
+                .thenComparing(SearchHitDTO::getLabel, Comparator.nullsLast(Comparator.naturalOrder())));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    // 1 + (3 for each word equal to a term, 2 for each word that is a prefix of a term) + a bonus for short labels
+    private static double prefixScore(Doc doc, List<String> words) {
+        double score = 1;
+        for (String word : words) {
+            int best = 0;
+            for (String term : doc.terms()) {
+                if (term.equals(word)) {
+                    best = 3;
+                    break;
+                }
+                if (term.startsWith(word)) {
+                    best = 2;
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            score += best;
+        }
+        return score + 1.0 / (1 + (doc.label() != null ? doc.label().length() : 0));
+    }
+
+    // Applies a write now, or queues it for replay if a load is in progress
+    private static void write(Index index, Runnable change) {
+        synchronized (index.pendingWrites) {
+            if (!index.ready) {
+                index.pendingWrites.add(change);
+                return;
+            }
+        }
+        change.run();
+    }
+
+    private static void put(Index index, Type type, long id, String label, String detail, String extraTerm) {
+        DocKey key = new DocKey(type, id);
+        removeDoc(index, key);
+        List<String> terms = new ArrayList<>(terms(label));
+        terms.addAll(terms(extraTerm));
+        Doc doc = new Doc(key, label, detail, List.copyOf(new LinkedHashSet<>(terms)));
+        index.docs.put(key, doc);
+        for (String token : prefixTokens(doc.terms())) {
+            index.prefixes.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        for (String gram : trigramsOf(doc.terms())) {
+            index.trigrams.computeIfAbsent(gram, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private static void removeDoc(Index index, DocKey key) {
+        Doc previous = index.docs.remove(key);
+        if (previous == null) return;
+        for (String token : prefixTokens(previous.terms())) {
+            Set<DocKey> postings = index.prefixes.get(token);
+            if (postings != null) postings.remove(key);
+        }
+        for (String gram : trigramsOf(previous.terms())) {
+            Set<DocKey> postings = index.trigrams.get(gram);
+            if (postings != null) postings.remove(key);
+        }
+    }
+
+    private List<SearchHitDTO> searchDatabase(String query, Set<Type> types, int limit) {
+        boolean trigram = indexes.get().trigramExtension;
+        List<String> selects = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        String escaped = query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        if (types.contains(Type.STUDENT)) {
+            addDatabaseSelect(selects, args, "STUDENT", "s.id", "s.first_name || ' ' || s.last_name",
+                    "s.user_id", "students s", query, escaped, trigram);
+        }
+        if (types.contains(Type.TEACHER)) {
+            addDatabaseSelect(selects, args, "TEACHER", "t.id", "t.first_name || ' ' || t.last_name",
+                    "t.user_id", "teachers t", query, escaped, trigram);
+        }
+        if (types.contains(Type.COURSE)) {
+            addDatabaseSelect(selects, args, "COURSE", "c.id", "c.course_name",
+                    "c.course_code", "courses c", query, escaped, trigram);
+        }
+        args.add(limit);
+        String sql = String.join(" UNION ALL ", selects) + " ORDER BY score DESC, label LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, i) -> new SearchHitDTO(rs.getString("type"), rs.getLong("id"),
+                rs.getString("label"), rs.getString("detail"), rs.getDouble("score")), args.toArray());
+    }
+
+    private void addDatabaseSelect(List<String> selects, List<Object> args, String type, String id, String label,
+                                   String detail, String from, String query, String escaped, boolean trigram) {
+        if (trigram) {
+            // Matches the gin_trgm_ops expression indexes created by the V4 migration
+            String haystack = "lower(coalesce(" + label + ", '') || ' ' || coalesce(" + detail + ", ''))";
+            selects.add("SELECT '" + type + "' AS type, " + id + " AS id, " + label + " AS label, " + detail
+                    + " AS detail, similarity(" + haystack + ", ?) AS score FROM " + from
+                    + " WHERE " + haystack + " % ? OR " + haystack + " LIKE ?");
+            args.add(query);
+            args.add(query);
+            args.add("%" + escaped + "%");
+        } else {
+            selects.add("SELECT '" + type + "' AS type, " + id + " AS id, " + label + " AS label, " + detail
+                    + " AS detail, 1.0 AS score FROM " + from
+                    + " WHERE lower(" + label + ") LIKE ? OR lower(" + detail + ") LIKE ?");
+            args.add(escaped + "%");
+            args.add(escaped + "%");
+        }
+    }
+
+    private boolean detectTrigramExtension() {
+        try {
+            // Resolved through the current tenant's search_path
+            Boolean available = jdbcTemplate.queryForObject(
+                    "SELECT to_regprocedure('similarity(text,text)') IS NOT NULL", Boolean.class);
+            return Boolean.TRUE.equals(available);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static Set<String> prefixTokens(List<String> terms) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String term : terms) {
+            for (int length = 1; length <= Math.min(term.length(), MAX_PREFIX); length++) {
+                tokens.add(term.substring(0, length));
+            }
+        }
+        return tokens;
+    }
+
+    private static String prefix(String word) {
+        return word.length() > MAX_PREFIX ? word.substring(0, MAX_PREFIX) : word;
+    }
+
+    private static Set<String> trigramsOf(List<String> terms) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String term : terms) {
+            String padded = "  " + term + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    // Lower-cased, accent-free words
+    private static List<String> terms(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String word : folded.split("[^\\p{Alnum}]+")) {
+            if (!word.isEmpty()) {
+                terms.add(word);
+            }
+        }
+        return Collections.unmodifiableList(terms);
+    }
+
+    private static String fullName(String firstName, String lastName) {
+        return ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+    }
+
+    private static String detail(String first, String second) {
+        if (first == null) return second;
+        return second == null ? first : first + " · " + second;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fullstack.schoolmanagement.archive.ArchivedAttendance;
+import com.fullstack.schoolmanagement.archive.ArchivedExamResult;
+import com.fullstack.schoolmanagement.archive.SegmentReader;
+import com.fullstack.schoolmanagement.archive.SegmentWriter;
+import com.fullstack.schoolmanagement.entity.AcademicSession;
+import com.fullstack.schoolmanagement.entity.ArchiveSegment;
+import com.fullstack.schoolmanagement.repository.AcademicSessionRepository;
+import com.fullstack.schoolmanagement.repository.ArchiveSegmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves the attendance and exam results of closed academic sessions out of the hot tables into
+ * compressed, checksummed segment files (see the archive package), then deletes them. Archived
+ * rows stay readable through {@link ArchiveQueryService}.
+ *
+ * Export and delete share one REPEATABLE READ transaction: the delete only sees the rows that
+ * were exported, and the manifest row becomes visible together with the delete.
+ */
+@Service
+public class SessionArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionArchiveService.class);
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private static final String ATTENDANCE_SQL =
+            "SELECT id, student_id, class_id, course_id, period_id, attendance_date, present, marked_by, remarks " +
+            "FROM attendance WHERE attendance_date BETWEEN ? AND ? ORDER BY student_id, attendance_date, id";
+    private static final String EXAM_RESULTS_SQL =
+            "SELECT id, student_id, class_id, course_id, exam_type, exam_date, marks_obtained, grade, remarks " +
+            "FROM exam_results WHERE exam_date BETWEEN ? AND ? ORDER BY student_id, exam_date, id";
+
+    @Autowired
+    private AcademicSessionRepository academicSessionRepository;
+    @Autowired
+    private ArchiveSegmentRepository archiveSegmentRepository;
+    @Autowired
+    private ArchiveQueryService archiveQueryService;
+    @Autowired
+    private RankingService rankingService;
+    @Autowired
+    private TranscriptService transcriptService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private TenantService tenantService;
+
+    @Value("${app.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.archive.grace-days:30}")
+    private int graceDays;
+
+    @Value("${app.archive.rows-per-block:4096}")
+    private int rowsPerBlock;
+
+    @Scheduled(cron = "${app.archive.cron:0 45 2 * * *}")
+    public void archiveClosedSessions() {
+        if (enabled) {
+            tenantService.forEachTenant(this::archiveClosedSessionsOfTenant);
+        }
+    }
+
+    private void archiveClosedSessionsOfTenant() {
+        LocalDate cutoff = LocalDate.now().minusDays(graceDays);
+        for (AcademicSession session : academicSessionRepository.findAll()) {
+            if (session.isCurrentSession() || !session.getEndDate().isBefore(cutoff) || !hasHotRows(session)) {
+                continue;
+            }
+            try {
+                archiveSession(session.getId());
+            } catch (RuntimeException e) {
+                logger.error("Archiving session {} failed", session.getName(), e);
+            }
+        }
+    }
+
+    public List<ArchiveSegment> getSegments() {
+        return archiveSegmentRepository.findAllByOrderByCreatedAtDesc();
+    }
+
+    public List<ArchiveSegment> archiveSession(Long sessionId) {
+        AcademicSession session = academicSessionRepository.findById(sessionId)
+                .orElseThrow(() -> new RuntimeException("Academic session not found with id: " + sessionId));
+        LocalDate today = LocalDate.now();
+        if (session.isCurrentSession() || !session.getEndDate().isBefore(today)) {
+            throw new IllegalArgumentException("Only sessions that have ended can be archived");
+        }
+        // Rows are selected by date, so an open session sharing those dates would lose live data
+        for (AcademicSession other : academicSessionRepository.findAll()) {
+            boolean open = other.isCurrentSession() || !other.getEndDate().isBefore(today);
+            if (open && !other.getStartDate().isAfter(session.getEndDate()) && !other.getEndDate().isBefore(session.getStartDate())) {
+                throw new IllegalArgumentException("Session " + session.getName() + " overlaps the open session " + other.getName());
+            }
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        List<Path> written = new ArrayList<>();
+        List<ArchiveSegment> segments;
+        try {
+            segments = transaction.execute(status -> {
+                List<ArchiveSegment> created = new ArrayList<>();
+                ArchiveSegment attendance = export(session, ArchiveSegment.Kind.ATTENDANCE, written);
+                if (attendance != null) {
+                    delete("DELETE FROM attendance WHERE attendance_date BETWEEN ? AND ?", session, attendance);
+                    created.add(attendance);
+                }
+                ArchiveSegment examResults = export(session, ArchiveSegment.Kind.EXAM_RESULTS, written);
+                if (examResults != null) {
+                    delete("DELETE FROM exam_results WHERE exam_date BETWEEN ? AND ?", session, examResults);
+                    created.add(examResults);
+                }
+                return created;
+            });
+        } catch (RuntimeException e) {
+            written.forEach(SessionArchiveService::deleteQuietly);
+            throw e;
+        }
+
+        if (segments.stream().anyMatch(s -> s.getKind() == ArchiveSegment.Kind.EXAM_RESULTS)) {
+            // Rank snapshots of the archived exams are gone; transcripts rebuild from hot rows plus archive
+            rankingService.invalidateAll();
+            transcriptService.invalidateAll();
+        }
+        segments.forEach(s -> logger.info("Archived {} {} rows of session {} to {}",
+                s.getRowCount(), s.getKind(), session.getName(), s.getPath()));
+        return segments;
+    }
+
+    private boolean hasHotRows(AcademicSession session) {
+        Date start = Date.valueOf(session.getStartDate());
+        Date end = Date.valueOf(session.getEndDate());
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM attendance WHERE attendance_date BETWEEN ? AND ?) " +
+                "OR EXISTS (SELECT 1 FROM exam_results WHERE exam_date BETWEEN ? AND ?)", Boolean.class, start, end, start, end));
+    }
+
+    // Streams the session's rows into a new segment; returns null when there was nothing to archive
+    private ArchiveSegment export(AcademicSession session, ArchiveSegment.Kind kind, List<Path> written) {
+        String relativePath = "session-" + session.getId() + "/" + kind.name().toLowerCase()
+                + "-" + LocalDateTime.now().format(FILE_STAMP) + ".seg";
+        Path target = archiveQueryService.resolve(relativePath);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        SegmentWriter.Summary summary;
+        try {
+            Files.createDirectories(target.getParent());
+            written.add(temp);
+            try (SegmentWriter writer = new SegmentWriter(temp, rowsPerBlock)) {
+                JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+                streaming.setFetchSize(rowsPerBlock);
+                RowCallbackHandler handler = kind == ArchiveSegment.Kind.ATTENDANCE
+                        ? rs -> append(writer, rs.getLong("student_id"), new ArchivedAttendance(rs.getLong("id"),
+                                rs.getLong("student_id"), rs.getLong("class_id"), rs.getLong("course_id"), rs.getLong("period_id"),
+                                rs.getDate("attendance_date").toLocalDate(), rs.getBoolean("present"),
+                                rs.getObject("marked_by", Long.class), rs.getString("remarks"))::write)
+                        : rs -> append(writer, rs.getLong("student_id"), new ArchivedExamResult(rs.getLong("id"),
+                                rs.getLong("student_id"), rs.getLong("class_id"), rs.getLong("course_id"), rs.getString("exam_type"),
+                                rs.getDate("exam_date").toLocalDate(), rs.getBigDecimal("marks_obtained"),
+                                rs.getString("grade"), rs.getString("remarks"))::write);
+                streaming.query(kind == ArchiveSegment.Kind.ATTENDANCE ? ATTENDANCE_SQL : EXAM_RESULTS_SQL, handler,
+                        Date.valueOf(session.getStartDate()), Date.valueOf(session.getEndDate()));
+                summary = writer.finish();
+            }
+            if (summary.rowCount() == 0) {
+                Files.delete(temp);
+                written.remove(temp);
+                return null;
+            }
+            // Re-read what is on disk before the hot rows are deleted
+            SegmentReader.verify(temp, summary.sha256());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            written.set(written.indexOf(temp), target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write archive segment " + relativePath, e);
+        }
+
+        ArchiveSegment segment = new ArchiveSegment();
+        segment.setSessionId(session.getId());
+        segment.setKind(kind);
+        segment.setFirstDate(session.getStartDate());
+        segment.setLastDate(session.getEndDate());
+        segment.setPath(relativePath);
+        segment.setRowCount(summary.rowCount());
+        segment.setBlockCount(summary.blockCount());
+        segment.setSha256(summary.sha256());
+        segment.setCreatedAt(LocalDateTime.now());
+        return archiveSegmentRepository.save(segment);
+    }
+
+    private void delete(String sql, AcademicSession session, ArchiveSegment segment) {
+        int deleted = jdbcTemplate.update(sql, Date.valueOf(session.getStartDate()), Date.valueOf(session.getEndDate()));
+        if (deleted != segment.getRowCount()) {
+            throw new IllegalStateException("Archived " + segment.getRowCount() + " " + segment.getKind()
+                    + " rows but deleted " + deleted + "; rolled back");
+        }
+    }
+
+    private static void append(SegmentWriter writer, long studentId, SegmentWriter.RowWriter row) {
+        try {
+            writer.append(studentId, row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not remove incomplete archive segment {}", path, e);
+        }
+    }
+}
@@ -1,12 +1,13 @@
 package com.fullstack.schoolmanagement.service;
 
+import com.fullstack.schoolmanagement.dto.PagedResponse;
 import com.fullstack.schoolmanagement.dto.StudentDTO;
 import com.fullstack.schoolmanagement.entity.SchoolClass;
 import com.fullstack.schoolmanagement.entity.Student;
 import com.fullstack.schoolmanagement.entity.User;
 import com.fullstack.schoolmanagement.ResourceNotFoundException; // You might need to create this custom exception class
-import com.fullstack.schoolmanagement.repository.ExamResultRepository;
 import com.fullstack.schoolmanagement.repository.StudentRepository;
+import com.fullstack.schoolmanagement.repository.StudentRepositoryCustom;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +18,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.validation.Validator;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -27,9 +29,6 @@ public class StudentService {
     @Autowired
     private StudentRepository studentRepository;
 
-    @Autowired
-    private ExamResultRepository examResultRepository;
-
     @Autowired
     private SchoolClassService schoolClassService;
 
@@ -42,6 +41,18 @@ public class StudentService {
     @Autowired
     private Validator validator;
 
+    @Autowired
+    private RankingService rankingService;
+
+    @Autowired
+    private TranscriptService transcriptService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private BulkMutationService bulkMutationService;
+
     /**
      * Converts a Student entity to a StudentDTO.
      * This helper method centralizes the conversion logic.
@@ -75,17 +86,39 @@ public class StudentService {
      */
     @Transactional(readOnly = true)
     public List<StudentDTO> getAllStudents(Long classId) {
-        List<Student> students;
-        if (classId != null) {
-            logger.info("Fetching students for classId: {}", classId);
-            students = studentRepository.findBySchoolClassId(classId);
-        } else {
-            logger.info("Fetching all students");
-            students = studentRepository.findAll();
+        logger.debug("Fetching students for classId: {}", classId);
+        return studentRepository.findDirectory(classId, null, null);
+    }
+
+    /**
+     * Fetches one page of the student directory.
+     *
+     * @param sort Sort field optionally followed by a direction, e.g. "lastName,desc".
+     */
+    @Transactional(readOnly = true)
+    public PagedResponse<StudentDTO> getStudentPage(Long classId, Boolean active, String namePrefix,
+                                                    int page, int size, String sort) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page index must not be negative.");
+        }
+        if (size < 1 || size > 200) {
+            throw new IllegalArgumentException("Page size must be between 1 and 200.");
+        }
+        if ((long) page * size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Page index is too large.");
+        }
+        String sortField = "id";
+        boolean ascending = true;
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",");
+            sortField = parts[0].trim();
+            ascending = parts.length < 2 || !"desc".equalsIgnoreCase(parts[1].trim());
+        }
+        if (!StudentRepositoryCustom.DIRECTORY_SORT_FIELDS.contains(sortField)) {
+            throw new IllegalArgumentException("Unknown sort field: " + sortField + ". Allowed: "
+                    + String.join(", ", StudentRepositoryCustom.DIRECTORY_SORT_FIELDS) + ".");
         }
-        return students.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return studentRepository.findDirectoryPage(classId, active, namePrefix, page, size, sortField, ascending);
     }
 
     /**
@@ -139,10 +172,15 @@ public class StudentService {
         }
 
         Student savedStudent = studentRepository.save(student);
+        indexForSearch(savedStudent);
         logger.info("Created new student with id: {}", savedStudent.getId());
         return convertToDto(savedStudent);
     }
 
+    public Long findStudentIdByUserId(String userId) {
+        return studentRepository.findByUser_UserId(userId).map(Student::getId).orElse(null);
+    }
+
     @Transactional
     public StudentDTO updateStudent(Long id, StudentDTO studentDTO) {
         Student student = getStudentById(id); // This will throw an exception if not found
@@ -172,20 +210,19 @@ public class StudentService {
         }
 
         Student updatedStudent = studentRepository.save(student);
+        indexForSearch(updatedStudent);
+        rankingService.invalidateAll(); // rank snapshots embed student names
         logger.info("Updated student with id: {}", updatedStudent.getId());
         return convertToDto(updatedStudent);
     }
 
-    @Transactional
-    public void deleteStudent(Long id) {
-        Student student = getStudentById(id); // This will throw an exception if not found
-
-        // Delete related ExamResults first to avoid constraint violations
-        logger.info("Deleting exam results for student id: {}", id);
-        examResultRepository.deleteByStudent(student); // Assuming a deleteByStudent method exists for efficiency
+    public Map<String, Integer> deleteStudent(Long id) {
+        return bulkMutationService.deleteStudent(id);
+    }
 
-        // Now delete the student
-        studentRepository.delete(student);
-        logger.info("Deleted student with id: {}", id);
+    private void indexForSearch(Student student) {
+        searchIndexService.indexStudent(student.getId(), student.getFirstName(), student.getLastName(),
+                student.getUser() != null ? student.getUser().getUserId() : null,
+                student.getSchoolClass() != null ? student.getSchoolClass().getName() : null);
     }
-}
\ No newline at end of file
+}
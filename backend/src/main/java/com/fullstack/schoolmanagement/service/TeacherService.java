@@ -31,6 +31,12 @@ public class TeacherService {
     @Autowired
     private Validator validator;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
     @Transactional(readOnly = true)
     public List<TeacherDTO> getAllTeachers() {
         return teacherRepository.findAll().stream().map(teacher -> {
@@ -67,6 +73,8 @@ public class TeacherService {
 
 
         teacherRepository.delete(teacher);
+        searchIndexService.remove(SearchIndexService.Type.TEACHER, id);
+        referenceDataCache.bump(ReferenceDataCache.Resource.COURSES, ReferenceDataCache.Resource.CLASSES);
     }
 
     // This is the correct and only update method, using a DTO.
@@ -102,6 +110,10 @@ public class TeacherService {
             throw new RuntimeException(message);
         }
 
+        // Course and class listings embed teacher names and emails
+        referenceDataCache.bump(ReferenceDataCache.Resource.COURSES, ReferenceDataCache.Resource.CLASSES);
+        searchIndexService.indexTeacher(teacher.getId(), teacher.getFirstName(), teacher.getLastName(),
+                teacher.getUser() != null ? teacher.getUser().getUserId() : null, teacher.getSpecialization());
         return teacherRepository.save(teacher);
     }
 }
\ No newline at end of file
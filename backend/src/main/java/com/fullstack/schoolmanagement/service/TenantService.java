@@ -0,0 +1,152 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fullstack.schoolmanagement.dto.TenantRequest;
+import com.fullstack.schoolmanagement.tenant.TenantContext;
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of the schools served by this deployment (public.tenants) and provisioning of their
+ * schemas. Tenant schemas are migrated with the same scripts as public: new ones when they are
+ * provisioned, existing ones at startup right after Flyway has migrated public.
+ */
+@Service
+public class TenantService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantService.class);
+
+    // Unknown ids are looked up again at most this often, for schools provisioned by another instance
+    private static final long RELOAD_INTERVAL_MS = 10_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+    // Lazy: the filter chain that defines the encoder depends on this service
+    @Lazy
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private ObjectProvider<Flyway> flyway;
+
+    private volatile Set<String> tenants;
+    private volatile long loadedAt;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Flyway migrations = flyway.getIfAvailable();
+        if (migrations == null) {
+            return;
+        }
+        for (String tenant : getTenants()) {
+            if (!TenantContext.DEFAULT.equals(tenant)) {
+                migrate(migrations, tenant);
+            }
+        }
+    }
+
+    /** Ids of all tenants, "public" first. */
+    public Set<String> getTenants() {
+        Set<String> current = tenants;
+        return current != null ? current : reload();
+    }
+
+    public boolean isKnown(String tenant) {
+        if (getTenants().contains(tenant)) {
+            return true;
+        }
+        if (System.currentTimeMillis() - loadedAt < RELOAD_INTERVAL_MS || !TenantContext.isValidId(tenant)) {
+            return false;
+        }
+        return reload().contains(tenant);
+    }
+
+    public List<Map<String, Object>> listTenants() {
+        return jdbcTemplate.queryForList("SELECT id, name, created_at FROM public.tenants ORDER BY id");
+    }
+
+    /** Runs the action once as every tenant; a failure for one school does not stop the others. */
+    public void forEachTenant(Runnable action) {
+        for (String tenant : getTenants()) {
+            try {
+                TenantContext.run(tenant, action);
+            } catch (RuntimeException e) {
+                logger.error("Task failed for tenant {}", tenant, e);
+            }
+        }
+    }
+
+    /** Creates and migrates the schema of a new school and its first administrator. */
+    public Map<String, Object> provision(TenantRequest request) {
+        String id = request.getId();
+        if (!TenantContext.isValidId(id) || TenantContext.DEFAULT.equals(id)) {
+            throw new IllegalArgumentException("Invalid tenant id: " + id);
+        }
+        if (reload().contains(id)) {
+            throw new IllegalStateException("Tenant already exists: " + id);
+        }
+        Flyway migrations = flyway.getIfAvailable();
+        if (migrations == null) {
+            throw new IllegalStateException("Tenants cannot be provisioned while Flyway is disabled");
+        }
+
+        migrate(migrations, id);
+        LocalDateTime createdAt = LocalDateTime.now();
+        String password = passwordEncoder.encode(request.getAdminPassword());
+        // Plain JDBC: the request's JPA session stays bound to the calling (public) tenant
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        TenantContext.run(id, () -> transaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO users (user_id, password, role, is_active, email) VALUES ('ADM-1', ?, 'ROLE_ADMIN', true, ?)",
+                    password, request.getAdminEmail());
+            jdbcTemplate.update("INSERT INTO public.tenants (id, name, created_at) VALUES (?, ?, ?)",
+                    id, request.getName().trim(), createdAt);
+        }));
+        reload();
+        logger.info("Provisioned tenant {} ({})", id, request.getName());
+
+        Map<String, Object> tenant = new LinkedHashMap<>();
+        tenant.put("id", id);
+        tenant.put("name", request.getName().trim());
+        tenant.put("created_at", createdAt);
+        tenant.put("adminUserId", "ADM-1");
+        return tenant;
+    }
+
+    private void migrate(Flyway migrations, String tenant) {
+        Flyway.configure()
+                .configuration(migrations.getConfiguration())
+                .schemas(tenant)
+                .defaultSchema(tenant)
+                .createSchemas(true)
+                .load()
+                .migrate();
+    }
+
+    private synchronized Set<String> reload() {
+        Set<String> ids = new LinkedHashSet<>();
+        ids.add(TenantContext.DEFAULT);
+        ids.addAll(jdbcTemplate.queryForList("SELECT id FROM public.tenants ORDER BY id", String.class));
+        tenants = Collections.unmodifiableSet(ids);
+        loadedAt = System.currentTimeMillis();
+        return tenants;
+    }
+}
@@ -0,0 +1,260 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fullstack.schoolmanagement.archive.ArchivedExamResult;
+import com.fullstack.schoolmanagement.dto.TranscriptDTO;
+import com.fullstack.schoolmanagement.entity.AcademicSession;
+import com.fullstack.schoolmanagement.entity.Course;
+import com.fullstack.schoolmanagement.entity.ExamResult;
+import com.fullstack.schoolmanagement.entity.StudentTranscript;
+import com.fullstack.schoolmanagement.outbox.ExamResultRecorded;
+import com.fullstack.schoolmanagement.outbox.OutboxConsumer;
+import com.fullstack.schoolmanagement.outbox.OutboxEvent;
+import com.fullstack.schoolmanagement.repository.CourseRepository;
+import com.fullstack.schoolmanagement.repository.StudentTranscriptRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the per-student transcript read model (per-course averages, per-session GPA and
+ * counts). Result edits and deletes apply a delta in the caller's transaction; set-based writes
+ * drop the affected rows, which are rebuilt from exam_results on the next read. New results are
+ * picked up from the outbox and added with their current values.
+ *
+ * student_transcript_results lists the results a transcript has counted. A delta is only
+ * applied when it changes that list, so a create event that arrives after an edit, after a
+ * rebuild that already counted the result, or twice, changes nothing.
+ *
+ * Rebuilds also fold in the student's results from archived sessions (ArchiveQueryService).
+ *
+ * Writers and rebuilds both lock the student's row first, so a rebuild can never miss a
+ * concurrent write that saw no transcript and skipped its delta.
+ */
+@Service
+public class TranscriptService implements OutboxConsumer {
+
+    // 4.0 scale; grades from custom schemes that are not listed here count as 0
+    private static final Map<String, BigDecimal> GRADE_POINTS = Map.ofEntries(
+            Map.entry("A+", new BigDecimal("4.0")), Map.entry("A", new BigDecimal("4.0")),
+            Map.entry("A-", new BigDecimal("3.7")), Map.entry("B+", new BigDecimal("3.3")),
+            Map.entry("B", new BigDecimal("3.0")), Map.entry("B-", new BigDecimal("2.7")),
+            Map.entry("C+", new BigDecimal("2.3")), Map.entry("C", new BigDecimal("2.0")),
+            Map.entry("C-", new BigDecimal("1.7")), Map.entry("D+", new BigDecimal("1.3")),
+            Map.entry("D", new BigDecimal("1.0")));
+
+    private static final String COUNT_ALL_SQL =
+            "INSERT INTO student_transcript_results (student_id, result_id) SELECT student_id, id FROM exam_results WHERE student_id = ?";
+    // Totals of exactly the results recorded by COUNT_ALL_SQL, even if another was created in between
+    private static final String REBUILD_SQL =
+            "SELECT e.course_id, c.course_name, e.exam_date, e.grade, COUNT(*) AS n, SUM(e.marks_obtained) AS total " +
+            "FROM student_transcript_results r JOIN exam_results e ON e.id = r.result_id " +
+            "JOIN courses c ON c.id = e.course_id WHERE r.student_id = ? " +
+            "GROUP BY e.course_id, c.course_name, e.exam_date, e.grade";
+    private static final String CURRENT_FACTS_SQL =
+            "SELECT e.course_id, c.course_name, e.exam_date, e.marks_obtained, e.grade " +
+            "FROM exam_results e JOIN courses c ON c.id = e.course_id WHERE e.id = ? AND e.student_id = ?";
+    private static final String COUNT_SQL =
+            "INSERT INTO student_transcript_results (student_id, result_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+    private static final String UNCOUNT_SQL =
+            "DELETE FROM student_transcript_results WHERE student_id = ? AND result_id = ?";
+
+    /** The fields of one exam result that the transcript aggregates. */
+    public record ResultFacts(Long courseId, String courseName, LocalDate examDate, BigDecimal marks, String grade) {
+        public static ResultFacts of(ExamResult result) {
+            return new ResultFacts(result.getCourse().getId(), result.getCourse().getCourseName(),
+                    result.getExamDate(), result.getMarksObtained(), result.getGrade());
+        }
+    }
+
+    @Autowired
+    private StudentTranscriptRepository transcriptRepository;
+    @Autowired
+    private AcademicSessionService academicSessionService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ArchiveQueryService archiveQueryService;
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Override
+    public String name() {
+        return "transcripts";
+    }
+
+    @Override
+    public Set<Class<? extends OutboxEvent>> eventTypes() {
+        return Set.of(ExamResultRecorded.class);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        ExamResultRecorded recorded = (ExamResultRecorded) event;
+        lockStudent(recorded.studentId());
+        // Edited or deleted since: the edit counted its own values, or moved the result to another
+        // student whose transcript counted it
+        List<ResultFacts> current = jdbcTemplate.query(CURRENT_FACTS_SQL, (rs, i) -> new ResultFacts(
+                rs.getLong("course_id"), rs.getString("course_name"), rs.getDate("exam_date").toLocalDate(),
+                rs.getBigDecimal("marks_obtained"), rs.getString("grade")), recorded.resultId(), recorded.studentId());
+        if (!current.isEmpty()) {
+            apply(recorded.studentId(), recorded.resultId(), current.get(0), 1);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAdded(Long studentId, Long resultId, ResultFacts facts) {
+        apply(studentId, resultId, facts, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRemoved(Long studentId, Long resultId, ResultFacts facts) {
+        apply(studentId, resultId, facts, -1);
+    }
+
+    @Transactional
+    public void invalidate(Collection<Long> studentIds) {
+        if (!studentIds.isEmpty()) {
+            transcriptRepository.deleteByStudentIds(studentIds);
+        }
+    }
+
+    @Transactional
+    public void invalidateAll() {
+        transcriptRepository.deleteAllInBulk();
+    }
+
+    @Transactional
+    public TranscriptDTO getTranscript(Long studentId) {
+        StudentTranscript transcript = transcriptRepository.findById(studentId).orElse(null);
+        if (transcript == null) {
+            lockStudent(studentId);
+            transcript = transcriptRepository.findById(studentId).orElseGet(() -> rebuild(studentId));
+        }
+        return convertToDTO(transcript);
+    }
+
+    private void apply(Long studentId, Long resultId, ResultFacts facts, int sign) {
+        lockStudent(studentId);
+        StudentTranscript transcript = transcriptRepository.findById(studentId).orElse(null);
+        if (transcript == null) {
+            return; // built on first read, after this transaction's change is visible
+        }
+        if (jdbcTemplate.update(sign > 0 ? COUNT_SQL : UNCOUNT_SQL, studentId, resultId) == 0) {
+            return; // already counted, or never was
+        }
+        BigDecimal marks = sign > 0 ? facts.marks() : facts.marks().negate();
+        transcript.setResultCount(transcript.getResultCount() + sign);
+        transcript.setMarksTotal(transcript.getMarksTotal().add(marks));
+        addCourse(transcript, facts.courseId(), facts.courseName(), sign, marks);
+        addSession(transcript, session(facts.examDate()), sign, gradePoints(facts.grade()).multiply(BigDecimal.valueOf(sign)));
+        transcript.setUpdatedAt(LocalDateTime.now());
+        transcriptRepository.save(transcript);
+    }
+
+    private StudentTranscript rebuild(Long studentId) {
+        StudentTranscript transcript = new StudentTranscript();
+        transcript.setStudentId(studentId);
+        jdbcTemplate.update("DELETE FROM student_transcript_results WHERE student_id = ?", studentId);
+        jdbcTemplate.update(COUNT_ALL_SQL, studentId);
+        jdbcTemplate.query(REBUILD_SQL, rs -> {
+            int count = rs.getInt("n");
+            BigDecimal total = rs.getBigDecimal("total");
+            transcript.setResultCount(transcript.getResultCount() + count);
+            transcript.setMarksTotal(transcript.getMarksTotal().add(total));
+            addCourse(transcript, rs.getLong("course_id"), rs.getString("course_name"), count, total);
+            addSession(transcript, session(rs.getDate("exam_date").toLocalDate()), count,
+                    gradePoints(rs.getString("grade")).multiply(BigDecimal.valueOf(count)));
+        }, studentId);
+        // Results of archived sessions are no longer in exam_results
+        List<ArchivedExamResult> archived = archiveQueryService.findExamResults(studentId);
+        if (!archived.isEmpty()) {
+            Map<Long, String> courseNames = courseRepository.findAllById(
+                    archived.stream().map(ArchivedExamResult::courseId).distinct().toList()).stream()
+                    .collect(Collectors.toMap(Course::getId, Course::getCourseName));
+            for (ArchivedExamResult result : archived) {
+                transcript.setResultCount(transcript.getResultCount() + 1);
+                transcript.setMarksTotal(transcript.getMarksTotal().add(result.marksObtained()));
+                addCourse(transcript, result.courseId(), courseNames.get(result.courseId()), 1, result.marksObtained());
+                addSession(transcript, session(result.examDate()), 1, gradePoints(result.grade()));
+            }
+        }
+        transcript.setUpdatedAt(LocalDateTime.now());
+        return transcriptRepository.save(transcript);
+    }
+
+    // Serializes transcript writers only: NO KEY UPDATE does not block inserts that reference the student
+    private void lockStudent(Long studentId) {
+        jdbcTemplate.queryForList("SELECT id FROM students WHERE id = ? FOR NO KEY UPDATE", Long.class, studentId);
+    }
+
+    private static void addCourse(StudentTranscript transcript, Long courseId, String courseName, int count, BigDecimal marks) {
+        StudentTranscript.CourseTotals totals = transcript.getCourses().stream()
+                .filter(c -> c.getCourseId().equals(courseId)).findFirst().orElse(null);
+        if (totals == null) {
+            totals = new StudentTranscript.CourseTotals(courseId, courseName, 0, BigDecimal.ZERO);
+            transcript.getCourses().add(totals);
+        }
+        totals.setCourseName(courseName);
+        totals.setCount(totals.getCount() + count);
+        totals.setMarksTotal(totals.getMarksTotal().add(marks));
+        if (totals.getCount() <= 0) {
+            transcript.getCourses().remove(totals);
+        }
+    }
+
+    private static void addSession(StudentTranscript transcript, AcademicSession session, int count, BigDecimal gradePoints) {
+        Long sessionId = session != null ? session.getId() : null;
+        StudentTranscript.SessionTotals totals = transcript.getSessions().stream()
+                .filter(s -> Objects.equals(s.getSessionId(), sessionId)).findFirst().orElse(null);
+        if (totals == null) {
+            totals = new StudentTranscript.SessionTotals(sessionId, session != null ? session.getName() : null, 0, BigDecimal.ZERO);
+            transcript.getSessions().add(totals);
+        }
+        totals.setCount(totals.getCount() + count);
+        totals.setGradePointTotal(totals.getGradePointTotal().add(gradePoints));
+        if (totals.getCount() <= 0) {
+            transcript.getSessions().remove(totals);
+        }
+    }
+
+    private AcademicSession session(LocalDate examDate) {
+        List<AcademicSession> sessions = academicSessionService.findSessionsContaining(examDate);
+        return sessions.isEmpty() ? null : sessions.get(0);
+    }
+
+    private static BigDecimal gradePoints(String grade) {
+        return grade == null ? BigDecimal.ZERO : GRADE_POINTS.getOrDefault(grade.trim(), BigDecimal.ZERO);
+    }
+
+    private static BigDecimal average(BigDecimal total, int count) {
+        return count == 0 ? BigDecimal.ZERO : total.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    private TranscriptDTO convertToDTO(StudentTranscript transcript) {
+        List<TranscriptDTO.CourseAverage> courses = transcript.getCourses().stream()
+                .map(c -> new TranscriptDTO.CourseAverage(c.getCourseId(), c.getCourseName(), c.getCount(),
+                        average(c.getMarksTotal(), c.getCount())))
+                .sorted(Comparator.comparing(TranscriptDTO.CourseAverage::getCourseName, Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.toList());
+        List<TranscriptDTO.SessionGpa> sessions = transcript.getSessions().stream()
+                .map(s -> new TranscriptDTO.SessionGpa(s.getSessionId(), s.getSessionName(), s.getCount(),
+                        average(s.getGradePointTotal(), s.getCount())))
+                .collect(Collectors.toList());
+        return new TranscriptDTO(transcript.getStudentId(), transcript.getResultCount(),
+                average(transcript.getMarksTotal(), transcript.getResultCount()), courses, sessions, transcript.getUpdatedAt());
+    }
+}
@@ -0,0 +1,17 @@
+package com.fullstack.schoolmanagement.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/** Opens every Hibernate session for the tenant of the current thread. */
+public class CurrentTenantResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.getTenant();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return true;
+    }
+}
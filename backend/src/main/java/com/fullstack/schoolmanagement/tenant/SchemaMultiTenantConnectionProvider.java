@@ -0,0 +1,64 @@
+package com.fullstack.schoolmanagement.tenant;
+
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Schema-per-tenant connections for Hibernate. The schema itself is applied by
+ * {@link TenantAwareDataSource} when the pool hands out the physical connection, which behind
+ * the read replica's lazy proxy only happens at the first statement; that is always on the
+ * session's own thread, so the session's tenant has to be the thread's tenant.
+ */
+public class SchemaMultiTenantConnectionProvider implements MultiTenantConnectionProvider<String> {
+
+    private final DataSource dataSource;
+
+    public SchemaMultiTenantConnectionProvider(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String tenant) throws SQLException {
+        if (!tenant.equals(TenantContext.getTenant())) {
+            throw new IllegalStateException("Session for tenant " + tenant + " used while working for " + TenantContext.getTenant());
+        }
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void releaseConnection(String tenant, Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> type) {
+        return type.isInstance(this);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> type) {
+        if (type.isInstance(this)) {
+            return (T) this;
+        }
+        throw new IllegalArgumentException("Cannot unwrap to " + type);
+    }
+}
@@ -0,0 +1,61 @@
+package com.fullstack.schoolmanagement.tenant;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Points each connection handed out by the pool at the current tenant's schema, so all tenants
+ * share one pool. The tenant schema comes first on the search_path and "public" second, for the
+ * extensions and the tenant registry that live there.
+ *
+ * The search_path a physical connection was last given is remembered, so a checkout for the
+ * same tenant as the previous one costs no round trip. Anything else that changes a pooled
+ * connection's search_path must put it back (Flyway does).
+ */
+public class TenantAwareDataSource extends DelegatingDataSource {
+
+    private final Map<Connection, String> applied = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public TenantAwareDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = obtainTargetDataSource().getConnection();
+        try {
+            switchTo(connection, TenantContext.getTenant());
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    private void switchTo(Connection connection, String tenant) throws SQLException {
+        Connection physical = connection.isWrapperFor(Connection.class) ? connection.unwrap(Connection.class) : connection;
+        if (tenant.equals(applied.getOrDefault(physical, TenantContext.DEFAULT))) {
+            return;
+        }
+        if (!TenantContext.isValidId(tenant)) {
+            throw new SQLException("Invalid tenant id: " + tenant);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(TenantContext.DEFAULT.equals(tenant)
+                    ? "SET search_path TO DEFAULT"
+                    : "SET search_path TO " + tenant + ", public");
+        }
+        if (!connection.getAutoCommit()) {
+            // A rollback of the caller's work must not undo the switch
+            connection.commit();
+        }
+        applied.put(physical, tenant);
+    }
+}
@@ -0,0 +1,65 @@
+package com.fullstack.schoolmanagement.tenant;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * The school the current thread works for. Each tenant has its own PostgreSQL schema named after
+ * its id; the original single-school data lives in "public", which is also the default so that
+ * existing deployments and tokens keep working unchanged.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT = "public";
+
+    // Used verbatim as a schema name, so kept to unquoted-identifier characters
+    private static final Pattern ID = Pattern.compile("[a-z][a-z0-9_]{0,39}");
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String getTenant() {
+        String tenant = CURRENT.get();
+        return tenant != null ? tenant : DEFAULT;
+    }
+
+    public static boolean isDefault() {
+        return DEFAULT.equals(getTenant());
+    }
+
+    public static void setTenant(String tenant) {
+        CURRENT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static boolean isValidId(String tenant) {
+        return tenant != null && ID.matcher(tenant).matches() && !tenant.startsWith("pg_");
+    }
+
+    /** Runs the action as the given tenant, restoring the previous one afterwards. */
+    public static void run(String tenant, Runnable action) {
+        call(tenant, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static <T> T call(String tenant, Supplier<T> action) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
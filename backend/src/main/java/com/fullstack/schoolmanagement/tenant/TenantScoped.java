@@ -0,0 +1,34 @@
+package com.fullstack.schoolmanagement.tenant;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Holds one instance of some in-memory state per tenant, so caches never serve one school's
+ * data to another. The instance for a tenant is created on first use.
+ */
+public class TenantScoped<T> {
+
+    private final Map<String, T> values = new ConcurrentHashMap<>();
+    private final Supplier<T> factory;
+
+    public TenantScoped(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    /** The current tenant's instance. */
+    public T get() {
+        return values.computeIfAbsent(TenantContext.getTenant(), tenant -> factory.get());
+    }
+
+    /** Applies the action to the instance of every tenant seen so far. */
+    public void forEach(Consumer<T> action) {
+        values.values().forEach(action);
+    }
+
+    public void clear() {
+        values.clear();
+    }
+}
@@ -0,0 +1,16 @@
+-- Responses to POSTs sent with an Idempotency-Key header (IdempotencyStore). A row without a
+-- response_status is a claim held by the node running the request until locked_until.
+create table idempotency_keys (
+    created_at timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    idempotency_key varchar(255) not null,
+    locked_until timestamp(6),
+    principal varchar(255) not null,
+    request_hash varchar(64) not null,
+    response_body bytea,
+    response_content_type varchar(255),
+    response_status integer,
+    primary key (principal, idempotency_key)
+);
+
+create index idx_idempotency_keys_expires_at on idempotency_keys (expires_at);
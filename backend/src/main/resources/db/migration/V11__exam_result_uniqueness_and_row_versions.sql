@@ -0,0 +1,28 @@
+-- One result per student and exam, enforced by the database instead of a check-then-insert in
+-- ExamResultService. Duplicates written before this keep their earliest row; the later ones are
+-- moved to exam_result_duplicates (with the id of the row that was kept) for someone to review,
+-- and the transcripts of the affected students are dropped and rebuilt on their next read.
+create table exam_result_duplicates (like exam_results);
+alter table exam_result_duplicates add column kept_id bigint not null, add column moved_at timestamp not null default now();
+
+with moved as (
+    delete from exam_results e using exam_results d
+    where d.course_id = e.course_id and d.exam_type = e.exam_type and d.exam_date = e.exam_date
+        and d.student_id = e.student_id and d.id < e.id
+    returning e.*
+)
+insert into exam_result_duplicates
+select m.*, (select min(k.id) from exam_results k
+             where k.course_id = m.course_id and k.exam_type = m.exam_type and k.exam_date = m.exam_date
+                 and k.student_id = m.student_id), now()
+from moved m;
+
+delete from student_transcripts where student_id in (select student_id from exam_result_duplicates);
+
+-- Same columns as the duplicate-check index it replaces; also the ON CONFLICT target for inserts
+alter table exam_results add constraint exam_results_exam_student_key unique (course_id, exam_type, exam_date, student_id);
+drop index if exists idx_exam_results_exam_student;
+
+-- Optimistic locking (@Version) for edits of results and roll calls
+alter table exam_results add column version bigint not null default 0;
+alter table attendance add column version bigint not null default 0;
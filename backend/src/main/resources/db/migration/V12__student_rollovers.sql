@@ -0,0 +1,33 @@
+-- Year-end promotions (RolloverService). A rollover plans the move of every student up front and
+-- applies the plan in chunks; last_student_id is the checkpoint a resumed rollover continues from.
+create table student_rollovers (
+    created_at timestamp(6) not null default now(),
+    finished_at timestamp(6),
+    id bigserial not null,
+    last_student_id bigint not null default 0,
+    moved_count integer not null default 0,
+    planned_count integer not null default 0,
+    skipped_count integer not null default 0,
+    started_at timestamp(6),
+    updated_at timestamp(6) not null default now(),
+    error varchar(1000),
+    status varchar(20) not null,
+    primary key (id)
+);
+
+-- One planned move per student. applied stays null until its chunk ran and is false for a student
+-- whose class or session changed after planning. No foreign key to students, so deleting a
+-- student does not need to touch past rollovers.
+create table student_rollover_moves (
+    applied boolean,
+    from_class_id bigint,
+    from_session_id bigint,
+    rollover_id bigint not null,
+    student_id bigint not null,
+    to_class_id bigint,
+    to_session_id bigint,
+    primary key (rollover_id, student_id)
+);
+
+alter table if exists student_rollover_moves add constraint fk_student_rollover_moves_rollover
+    foreign key (rollover_id) references student_rollovers on delete cascade;
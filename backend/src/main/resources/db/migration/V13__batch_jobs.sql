@@ -0,0 +1,26 @@
+-- Long-running maintenance work run in the background (BatchJobService). A job runs in chunks;
+-- checkpoint is the handler's position after the last committed chunk, so a job whose node died
+-- or that failed continues from there.
+create table batch_jobs (
+    cancel_requested boolean not null default false,
+    chunks integer not null default 0,
+    created_at timestamp(6) not null default now(),
+    finished_at timestamp(6),
+    id bigserial not null,
+    processed bigint not null default 0,
+    started_at timestamp(6),
+    total bigint,
+    updated_at timestamp(6) not null default now(),
+    checkpoint text,
+    error varchar(1000),
+    params text not null,
+    requested_by varchar(255),
+    status varchar(20) not null,
+    type varchar(100) not null,
+    primary key (id)
+);
+
+create index idx_batch_jobs_runnable on batch_jobs (id) where status in ('QUEUED', 'RUNNING');
+
+-- Rollovers are applied by a batch job
+alter table student_rollovers add column job_id bigint;
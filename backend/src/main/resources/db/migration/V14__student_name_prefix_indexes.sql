@@ -0,0 +1,8 @@
+-- Name-prefix filter of the student directory (StudentRepositoryCustomImpl):
+-- lower(first_name) LIKE 'x%' OR lower(last_name) LIKE 'x%'. text_pattern_ops lets the prefix
+-- LIKE use the index regardless of the database collation. Built CONCURRENTLY like V3.
+create index concurrently if not exists idx_students_lower_first_name
+    on students (lower(first_name) text_pattern_ops);
+
+create index concurrently if not exists idx_students_lower_last_name
+    on students (lower(last_name) text_pattern_ops);
@@ -0,0 +1,15 @@
+-- Results each transcript has counted (TranscriptService). Creates, edits and deletes add or
+-- subtract a result only when this table says it is (not) counted yet, so outbox events can be
+-- applied in any order and more than once. The check is deferred because a rebuild records
+-- its results before it saves the transcript.
+create table student_transcript_results (
+    result_id bigint not null,
+    student_id bigint not null,
+    primary key (student_id, result_id)
+);
+
+alter table if exists student_transcript_results add constraint fk_student_transcript_results_transcript
+    foreign key (student_id) references student_transcripts on delete cascade deferrable initially deferred;
+
+-- Existing transcripts do not say which results they counted; they are rebuilt on the next read
+delete from student_transcripts;
@@ -0,0 +1,153 @@
+-- Baseline schema, identical to what Hibernate generated under ddl-auto=update
+-- (including its constraint names), so existing databases can be baselined at version 1.
+
+create table academic_sessions (
+    current_session boolean not null,
+    end_date date not null,
+    start_date date not null,
+    id bigserial not null,
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+create table attendance (
+    attendance_date date not null,
+    present boolean not null,
+    class_id bigint not null,
+    course_id bigint not null,
+    id bigserial not null,
+    marked_by bigint,
+    period_id bigint not null,
+    student_id bigint not null,
+    remarks varchar(255),
+    primary key (id),
+    unique (student_id, class_id, course_id, period_id, attendance_date)
+);
+
+create table class_courses (
+    class_id bigint not null,
+    course_id bigint not null,
+    primary key (class_id, course_id)
+);
+
+create table class_teachers (
+    class_id bigint not null,
+    teacher_id bigint not null,
+    primary key (class_id, teacher_id)
+);
+
+create table classes (
+    id bigserial not null,
+    name varchar(255) unique,
+    primary key (id)
+);
+
+create table courses (
+    id bigserial not null,
+    teacher_id bigint,
+    course_code varchar(255) not null unique,
+    course_name varchar(255) not null,
+    description varchar(255),
+    primary key (id)
+);
+
+create table exam_results (
+    exam_date date not null,
+    marks_obtained numeric(5,2) not null,
+    class_id bigint not null,
+    course_id bigint not null,
+    id bigserial not null,
+    student_id bigint not null,
+    exam_type varchar(255) not null,
+    grade varchar(255) not null,
+    remarks varchar(255),
+    primary key (id)
+);
+
+create table periods (
+    end_time time(6) not null,
+    period_number integer not null,
+    start_time time(6) not null,
+    class_id bigint not null,
+    course_id bigint not null,
+    id bigserial not null,
+    day_of_week varchar(255) not null,
+    primary key (id),
+    unique (class_id, day_of_week, period_number)
+);
+
+create table students (
+    admission_date date,
+    date_of_birth date,
+    is_active boolean not null,
+    class_id bigint,
+    id bigserial not null,
+    session_id bigint,
+    address varchar(255),
+    first_name varchar(255),
+    gender varchar(255),
+    last_name varchar(255),
+    phone varchar(255) unique,
+    user_id varchar(255) unique,
+    primary key (id)
+);
+
+create table teacher_classes (
+    class_id bigint not null,
+    teacher_id bigint not null,
+    primary key (class_id, teacher_id)
+);
+
+create table teacher_courses (
+    course_id bigint not null,
+    teacher_id bigint not null,
+    primary key (course_id, teacher_id)
+);
+
+create table teachers (
+    experience integer,
+    hire_date date,
+    id bigserial not null,
+    address varchar(255),
+    email varchar(255),
+    first_name varchar(255),
+    gender varchar(255),
+    last_name varchar(255),
+    phone varchar(255) unique,
+    qualification varchar(255),
+    specialization varchar(255),
+    user_id varchar(255) unique,
+    primary key (id)
+);
+
+create table users (
+    is_active boolean not null,
+    email varchar(255) not null unique,
+    password varchar(255) not null,
+    role varchar(255) not null,
+    user_id varchar(255) not null,
+    primary key (user_id)
+);
+alter table if exists attendance add constraint FKn38ldxe7u4udeu15ikqfsplnm foreign key (course_id) references courses;
+alter table if exists attendance add constraint FK7k86x0jyfhe1kvte7ed7kf860 foreign key (marked_by) references teachers;
+alter table if exists attendance add constraint FKjgyqr3f9lugmkkjlxryoy3trr foreign key (period_id) references periods;
+alter table if exists attendance add constraint FKrx58locko31i5sa3goghxssli foreign key (class_id) references classes;
+alter table if exists attendance add constraint FK7121lveuhtmu9wa6m90ayd5yg foreign key (student_id) references students;
+alter table if exists class_courses add constraint FK5j1wc68rkjltlyqoy9c63hghk foreign key (course_id) references courses;
+alter table if exists class_courses add constraint FKas9u8h4dbrfaj0twpfgdongyj foreign key (class_id) references classes;
+alter table if exists class_teachers add constraint FKtgibxes1nwrf7naum2xysl84g foreign key (teacher_id) references teachers;
+alter table if exists class_teachers add constraint FK94wm4w7nt2qv1lhsw07ca1v52 foreign key (class_id) references classes;
+alter table if exists courses add constraint FK468oyt88pgk2a0cxrvxygadqg foreign key (teacher_id) references teachers;
+alter table if exists exam_results add constraint FKpa30txm0sxc6p3s4y3mr67u8m foreign key (course_id) references courses;
+alter table if exists exam_results add constraint FK9iv2nxnkhpprh62lgriylp4m9 foreign key (class_id) references classes;
+alter table if exists exam_results add constraint FKr7qgl670f47u65kkdm8ex5119 foreign key (student_id) references students;
+alter table if exists periods add constraint FKaaakwoyc848nm397p7wb8xuhq foreign key (course_id) references courses;
+alter table if exists periods add constraint FKg3yfsmueqyadym87p0bjwwl1o foreign key (class_id) references classes;
+alter table if exists students add constraint FKhnslh0rm5bthlble8vjunbnwe foreign key (class_id) references classes;
+alter table if exists students add constraint FKgxp7aek51tcsk1kkj4ba7u62t foreign key (session_id) references academic_sessions;
+alter table if exists students add constraint FKdt1cjx5ve5bdabmuuf3ibrwaq foreign key (user_id) references users;
+alter table if exists teacher_classes add constraint FK3fdju9wytitbkyphm15b0uqw2 foreign key (class_id) references classes;
+alter table if exists teacher_classes add constraint FKtfqjapwyb01dh5kb7dcx00p0p foreign key (teacher_id) references teachers;
+alter table if exists teacher_courses add constraint FK998yb1badftsiklfh13bcw3ol foreign key (course_id) references courses;
+alter table if exists teacher_courses add constraint FKg5rpjxn8vjt9v81ura5taiulf foreign key (teacher_id) references teachers;
+alter table if exists teachers add constraint FKb8dct7w2j1vl1r2bpstw5isc0 foreign key (user_id) references users;
@@ -0,0 +1,41 @@
+-- Tables added after the baseline. IF NOT EXISTS because databases that ran with
+-- ddl-auto=update may already have them; constraint names match what Hibernate generated.
+
+create table if not exists grading_schemes (
+    course_id bigint,
+    id bigserial not null,
+    session_id bigint not null,
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table if not exists grading_scheme_bands (
+    min_marks numeric(5,2) not null,
+    scheme_id bigint not null,
+    grade varchar(255) not null
+);
+
+create table if not exists student_transcripts (
+    marks_total numeric(12,2) not null,
+    result_count integer not null,
+    student_id bigint not null,
+    updated_at timestamp(6) not null,
+    courses jsonb not null,
+    sessions jsonb not null,
+    primary key (student_id)
+);
+
+do $$
+begin
+    if not exists (select 1 from pg_constraint where conname = 'fkl3yv13wfdcaeplphakm95n6ee') then
+        alter table grading_scheme_bands add constraint FKl3yv13wfdcaeplphakm95n6ee foreign key (scheme_id) references grading_schemes;
+    end if;
+    if not exists (select 1 from pg_constraint where conname = 'fkfakdkputuqof9e7ou3al5s5vh') then
+        alter table grading_schemes add constraint FKfakdkputuqof9e7ou3al5s5vh foreign key (course_id) references courses;
+    end if;
+    if not exists (select 1 from pg_constraint where conname = 'fkihjt5mw6exjcj0wlbvo6lis13') then
+        alter table grading_schemes add constraint FKihjt5mw6exjcj0wlbvo6lis13 foreign key (session_id) references academic_sessions;
+    end if;
+end $$;
+
+create index if not exists idx_grading_scheme_bands_scheme on grading_scheme_bands (scheme_id);
@@ -0,0 +1,40 @@
+-- Indexes derived from the repository query patterns. Built CONCURRENTLY so that applying
+-- this to a populated database does not block writes (see V3__query_indexes.sql.conf).
+
+-- AttendanceRepository.findByStudentIdAndAttendanceDateBetween (student history by date range)
+create index concurrently if not exists idx_attendance_student_date
+    on attendance (student_id, attendance_date);
+
+-- AttendanceRepository.findByClassAndDateRange (class report by date range) and
+-- findBySchoolClassIdAndCourseIdAndPeriodIdAndAttendanceDate (one roll call)
+create index concurrently if not exists idx_attendance_class_date
+    on attendance (class_id, attendance_date, period_id, course_id);
+
+-- ExamResultRepository.findByStudent / countByStudent / deleteByStudent, transcripts, student ranks
+create index concurrently if not exists idx_exam_results_student_date
+    on exam_results (student_id, exam_date);
+
+-- Duplicate checks: existsByStudentIdAndCourseIdAndExamTypeAndExamDate[AndIdNot], findStudentIdsWithResult
+create index concurrently if not exists idx_exam_results_exam_student
+    on exam_results (course_id, exam_type, exam_date, student_id);
+
+-- Ranking of one exam cohort; covering, so the window query reads the index only
+create index concurrently if not exists idx_exam_results_cohort
+    on exam_results (class_id, course_id, exam_type, exam_date) include (student_id, marks_obtained, grade);
+
+-- StudentRepository.findBySchoolClassId / countBySchoolClass / findIdsInClass and the
+-- class-filtered student directory sorted by name
+create index concurrently if not exists idx_students_class_name
+    on students (class_id, last_name, first_name);
+
+create index concurrently if not exists idx_students_session
+    on students (session_id);
+
+-- PeriodRepository lookups are served by the (class_id, day_of_week, period_number) unique index.
+
+-- Reverse direction of the join-table primary keys (teacher -> classes/courses, course -> classes)
+create index concurrently if not exists idx_class_teachers_teacher on class_teachers (teacher_id);
+create index concurrently if not exists idx_teacher_classes_teacher on teacher_classes (teacher_id);
+create index concurrently if not exists idx_teacher_courses_teacher on teacher_courses (teacher_id);
+create index concurrently if not exists idx_class_courses_course on class_courses (course_id);
+create index concurrently if not exists idx_courses_teacher on courses (teacher_id);
@@ -0,0 +1,23 @@
+-- Trigram indexes for the database fallback of the typeahead search (SearchIndexService).
+-- pg_trgm needs CREATE privilege on the database; without it the search falls back to
+-- prefix LIKE and these indexes are skipped.
+
+do $$
+begin
+    create extension if not exists pg_trgm;
+exception
+    when insufficient_privilege or undefined_file then
+        raise notice 'pg_trgm is not available, skipping trigram search indexes';
+end $$;
+
+do $$
+begin
+    if exists (select 1 from pg_extension where extname = 'pg_trgm') then
+        create index if not exists idx_students_search_trgm on students
+            using gin (lower(coalesce(first_name || ' ' || last_name, '') || ' ' || coalesce(user_id, '')) gin_trgm_ops);
+        create index if not exists idx_teachers_search_trgm on teachers
+            using gin (lower(coalesce(first_name || ' ' || last_name, '') || ' ' || coalesce(user_id, '')) gin_trgm_ops);
+        create index if not exists idx_courses_search_trgm on courses
+            using gin (lower(coalesce(course_name, '') || ' ' || coalesce(course_code, '')) gin_trgm_ops);
+    end if;
+end $$;
@@ -0,0 +1,64 @@
+-- attendance becomes a range-partitioned table with one partition per month of attendance_date.
+-- The partition key has to be part of every unique constraint, so the primary key is
+-- (id, attendance_date); ids still come from the original sequence and stay unique on their own.
+-- Further partitions are created ahead of time by AttendancePartitionService.
+
+alter table attendance rename to attendance_unpartitioned;
+alter index attendance_pkey rename to attendance_unpartitioned_pkey;
+
+create table attendance (
+    attendance_date date not null,
+    present boolean not null,
+    class_id bigint not null,
+    course_id bigint not null,
+    id bigint not null,
+    marked_by bigint,
+    period_id bigint not null,
+    student_id bigint not null,
+    remarks varchar(255),
+    constraint attendance_pkey primary key (id, attendance_date),
+    constraint attendance_roll_call_key unique (student_id, class_id, course_id, period_id, attendance_date)
+) partition by range (attendance_date);
+
+do $$
+declare
+    seq text := pg_get_serial_sequence('attendance_unpartitioned', 'id');
+    first_month date;
+    last_month date;
+    month date;
+begin
+    -- Keep the id sequence when the old table is dropped
+    execute format('alter sequence %s owned by none', seq);
+    execute format('alter table attendance alter column id set default nextval(%L::regclass)', seq);
+
+    select date_trunc('month', least(min(attendance_date), current_date)),
+           date_trunc('month', greatest(max(attendance_date), current_date + interval '3 months'))
+      into first_month, last_month
+      from attendance_unpartitioned;
+
+    month := first_month;
+    while month <= last_month loop
+        execute format('create table attendance_p%s partition of attendance for values from (%L) to (%L)',
+                       to_char(month, 'YYYYMM'), month, (month + interval '1 month')::date);
+        month := month + interval '1 month';
+    end loop;
+
+    insert into attendance (attendance_date, present, class_id, course_id, id, marked_by, period_id, student_id, remarks)
+    select attendance_date, present, class_id, course_id, id, marked_by, period_id, student_id, remarks
+      from attendance_unpartitioned;
+
+    drop table attendance_unpartitioned;
+    execute format('alter sequence %s owned by attendance.id', seq);
+end $$;
+
+-- Same indexes as V3; created on the parent, so every partition (present and future) gets its own copy
+create index idx_attendance_student_date on attendance (student_id, attendance_date);
+create index idx_attendance_class_date on attendance (class_id, attendance_date, period_id, course_id);
+
+alter table attendance add constraint FKn38ldxe7u4udeu15ikqfsplnm foreign key (course_id) references courses;
+alter table attendance add constraint FK7k86x0jyfhe1kvte7ed7kf860 foreign key (marked_by) references teachers;
+alter table attendance add constraint FKjgyqr3f9lugmkkjlxryoy3trr foreign key (period_id) references periods;
+alter table attendance add constraint FKrx58locko31i5sa3goghxssli foreign key (class_id) references classes;
+alter table attendance add constraint FK7121lveuhtmu9wa6m90ayd5yg foreign key (student_id) references students;
+
+analyze attendance;
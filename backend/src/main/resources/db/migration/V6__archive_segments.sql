@@ -0,0 +1,18 @@
+-- Manifest of cold-archive segment files (SessionArchiveService)
+create table archive_segments (
+    block_count integer not null,
+    first_date date not null,
+    last_date date not null,
+    created_at timestamp(6) not null,
+    id bigserial not null,
+    row_count bigint not null,
+    session_id bigint not null,
+    sha256 varchar(64) not null,
+    kind varchar(255) not null check (kind in ('ATTENDANCE','EXAM_RESULTS')),
+    path varchar(255) not null,
+    primary key (id)
+);
+
+create index idx_archive_segments_kind_dates on archive_segments (kind, first_date, last_date);
+
+alter table if exists archive_segments add constraint fk_archive_segments_session foreign key (session_id) references academic_sessions;
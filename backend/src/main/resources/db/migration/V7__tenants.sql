@@ -0,0 +1,24 @@
+-- Registry of the schools served by this database. Each tenant's data lives in a schema named
+-- after its id, migrated with these same scripts; "public" holds the original school and this
+-- registry, so the table is always created there.
+create table if not exists public.tenants (
+    id varchar(40) not null,
+    name varchar(255) not null,
+    created_at timestamp(6) not null,
+    primary key (id)
+);
+
+-- V2 skipped these foreign keys when a constraint of the same name existed in any schema,
+-- which is always the case for a tenant schema migrated after public
+do $$
+begin
+    if not exists (select 1 from pg_constraint where conname = 'fkl3yv13wfdcaeplphakm95n6ee' and connamespace = current_schema()::regnamespace) then
+        alter table grading_scheme_bands add constraint FKl3yv13wfdcaeplphakm95n6ee foreign key (scheme_id) references grading_schemes;
+    end if;
+    if not exists (select 1 from pg_constraint where conname = 'fkfakdkputuqof9e7ou3al5s5vh' and connamespace = current_schema()::regnamespace) then
+        alter table grading_schemes add constraint FKfakdkputuqof9e7ou3al5s5vh foreign key (course_id) references courses;
+    end if;
+    if not exists (select 1 from pg_constraint where conname = 'fkihjt5mw6exjcj0wlbvo6lis13' and connamespace = current_schema()::regnamespace) then
+        alter table grading_schemes add constraint FKihjt5mw6exjcj0wlbvo6lis13 foreign key (session_id) references academic_sessions;
+    end if;
+end $$;
@@ -0,0 +1,45 @@
+-- Transactional outbox (OutboxService): written in the same transaction as the change that caused
+-- the event, one row per consumer, and removed in the transaction that handles it. A row is leased
+-- to a node by moving available_at into the future, and pushed back by the retry backoff on failure.
+create table outbox_events (
+    attempts integer not null default 0,
+    available_at timestamp(6) not null default now(),
+    created_at timestamp(6) not null default now(),
+    id bigserial not null,
+    consumer varchar(50) not null,
+    event_type varchar(50) not null,
+    last_error text,
+    payload text not null,
+    primary key (id)
+);
+
+create index idx_outbox_events_consumer_available on outbox_events (consumer, available_at, id);
+
+-- Events whose consumer kept failing after the last retry; re-queued by an admin
+create table outbox_dead_letters (
+    attempts integer not null,
+    created_at timestamp(6) not null,
+    failed_at timestamp(6) not null default now(),
+    id bigint not null,
+    consumer varchar(50) not null,
+    event_type varchar(50) not null,
+    last_error text,
+    payload text not null,
+    primary key (id)
+);
+
+-- Lifetime attendance counters per student, maintained from AttendanceMarked events. Seeded from
+-- the hot table; sessions archived before this migration are not counted.
+create table student_attendance_stats (
+    marked_count integer not null,
+    present_count integer not null,
+    student_id bigint not null,
+    updated_at timestamp(6) not null default now(),
+    primary key (student_id)
+);
+
+alter table if exists student_attendance_stats add constraint fk_student_attendance_stats_student
+    foreign key (student_id) references students on delete cascade;
+
+insert into student_attendance_stats (student_id, marked_count, present_count)
+select student_id, count(*), count(*) filter (where present) from attendance group by student_id;
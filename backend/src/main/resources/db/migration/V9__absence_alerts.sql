@@ -0,0 +1,22 @@
+-- Pending and delivered absence alerts, one row per student and period (AbsenceAlertService).
+-- A row is re-armed by every change before delivery, so a student marked absent and then
+-- present again within the debounce window never produces an alert.
+create table absence_alerts (
+    absent boolean not null,
+    attendance_date date not null,
+    changed_at timestamp(6) not null,
+    created_at timestamp(6) not null,
+    delivered_at timestamp(6),
+    id bigserial not null,
+    period_id bigint not null,
+    student_id bigint not null,
+    primary key (id),
+    unique (student_id, attendance_date, period_id)
+);
+
+create index idx_absence_alerts_pending on absence_alerts (student_id, attendance_date) where delivered_at is null;
+
+alter table if exists absence_alerts add constraint fk_absence_alerts_student
+    foreign key (student_id) references students on delete cascade;
+alter table if exists absence_alerts add constraint fk_absence_alerts_period
+    foreign key (period_id) references periods on delete cascade;
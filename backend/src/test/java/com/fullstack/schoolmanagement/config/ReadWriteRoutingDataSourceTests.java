@@ -0,0 +1,123 @@
+package com.fullstack.schoolmanagement.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against two independent PostgreSQL instances standing in for a primary and its replica;
+ * their database names tell which one served a transaction.
+ */
+@SpringBootTest(properties = {
+        "app.seed.enabled=false",
+        "app.datasource.replica.pin-window-ms=500",
+        "app.datasource.replica.check-interval-ms=200"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadWriteRoutingDataSourceTests {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:16-alpine").withDatabaseName("primary_db");
+
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:16-alpine").withDatabaseName("replica_db");
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.datasource.replica.url", replica::getJdbcUrl);
+        registry.add("app.datasource.replica.username", replica::getUsername);
+        registry.add("app.datasource.replica.password", replica::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void clearPrincipal() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Order(1)
+    void readOnlyTransactionsUseTheReplica() {
+        assertThat(database(true)).isEqualTo("replica_db");
+        assertThat(database(false)).isEqualTo("primary_db");
+    }
+
+    @Test
+    @Order(2)
+    void readsArePinnedToThePrimaryAfterAWrite() throws InterruptedException {
+        authenticate("T-1");
+        database(false);
+        assertThat(database(true)).isEqualTo("replica_db");
+
+        write();
+        assertThat(database(true)).isEqualTo("primary_db");
+
+        authenticate("T-2");
+        assertThat(database(true)).isEqualTo("replica_db");
+
+        Thread.sleep(700);
+        authenticate("T-1");
+        assertThat(database(true)).isEqualTo("replica_db");
+    }
+
+    @Test
+    @Order(3)
+    void onlyStatementsThatCanChangeDataCountAsWrites() {
+        assertThat(ReadWriteRoutingDataSource.isWrite("select * from students for update")).isFalse();
+        assertThat(ReadWriteRoutingDataSource.isWrite("/* load */ (SELECT 1) UNION SELECT 2")).isFalse();
+        assertThat(ReadWriteRoutingDataSource.isWrite("SET LOCAL statement_timeout = 100")).isFalse();
+        assertThat(ReadWriteRoutingDataSource.isWrite("insert into students values (?)")).isTrue();
+        assertThat(ReadWriteRoutingDataSource.isWrite("-- tidy\nDELETE FROM periods")).isTrue();
+        assertThat(ReadWriteRoutingDataSource.isWrite("WITH moved AS (UPDATE students SET class_id = 1 RETURNING id) SELECT * FROM moved")).isTrue();
+    }
+
+    @Test
+    @Order(4)
+    void readsFallBackToThePrimaryWhenTheReplicaIsDown() {
+        replica.stop();
+        assertThat(database(true)).isEqualTo("primary_db");
+    }
+
+    private String database(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+    }
+
+    private void write() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TEMPORARY TABLE pin_probe (id integer)");
+            jdbcTemplate.update("INSERT INTO pin_probe VALUES (1)");
+        });
+    }
+
+    private static void authenticate(String userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId, null, List.of()));
+    }
+}
@@ -0,0 +1,75 @@
+package com.fullstack.schoolmanagement.idempotency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.seed.enabled=false")
+@Testcontainers(disabledWithoutDocker = true)
+class IdempotencyStoreTests {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Test
+    void concurrentDuplicatesRunOnceAndGetTheSameResponse() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<String>> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            responses.add(pool.submit(() -> {
+                IdempotencyStore.Claim claim = store.begin("TCH-1", "concurrent", "hash");
+                if (claim.getReplay() != null) {
+                    return new String(claim.getReplay().body(), StandardCharsets.UTF_8);
+                }
+                executions.incrementAndGet();
+                Thread.sleep(200);
+                store.complete(claim, new IdempotencyStore.StoredResponse(200, "application/json", "{\"ok\":true}".getBytes()));
+                return "{\"ok\":true}";
+            }));
+        }
+        for (Future<String> response : responses) {
+            assertThat(response.get()).isEqualTo("{\"ok\":true}");
+        }
+        pool.shutdown();
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void keyIsBoundToTheFirstRequest() {
+        IdempotencyStore.Claim claim = store.begin("TCH-1", "bound", "hash-a");
+        store.complete(claim, new IdempotencyStore.StoredResponse(201, null, new byte[0]));
+
+        assertThatThrownBy(() -> store.begin("TCH-1", "bound", "hash-b")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.begin("TCH-1", "bound", "hash-a").getReplay().status()).isEqualTo(201);
+        // Keys are per user
+        assertThat(store.begin("TCH-2", "bound", "hash-b").getReplay()).isNull();
+    }
+
+    @Test
+    void releasedKeyRunsAgain() {
+        IdempotencyStore.Claim claim = store.begin("TCH-1", "released", "hash");
+        store.release(claim);
+
+        assertThat(store.begin("TCH-1", "released", "hash").getReplay()).isNull();
+    }
+}
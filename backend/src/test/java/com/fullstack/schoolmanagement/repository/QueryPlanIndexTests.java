@@ -0,0 +1,193 @@
+package com.fullstack.schoolmanagement.repository;
+
+import com.fullstack.schoolmanagement.entity.SchoolClass;
+import com.fullstack.schoolmanagement.entity.Student;
+import com.fullstack.schoolmanagement.service.AttendancePartitionService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the repository queries are planned against the indexes from the Flyway
+ * migrations. The SQL Hibernate actually generates is captured, prepared, and explained with
+ * sequential scans disabled, so a missing or mismatched index shows up as a failing plan.
+ */
+@SpringBootTest(properties = {
+        "app.seed.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.fullstack.schoolmanagement.repository.QueryPlanIndexTests$CapturingInspector"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanIndexTests {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 1, 31);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+    @Autowired
+    private ExamResultRepository examResultRepository;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private PeriodRepository periodRepository;
+    @Autowired
+    private ClassRepository classRepository;
+    @Autowired
+    private AttendancePartitionService attendancePartitionService;
+
+    private static boolean seeded;
+
+    /** Records every statement Hibernate prepares. */
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeAll
+    static void resetCapture() {
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @BeforeEach
+    void seed() {
+        if (seeded) return;
+        jdbcTemplate.execute("insert into academic_sessions (name, start_date, end_date, current_session) " +
+                "values ('2024', date '2024-01-01', date '2024-12-31', true)");
+        jdbcTemplate.execute("insert into classes (name) select 'Class ' || g from generate_series(1, 40) g");
+        jdbcTemplate.execute("insert into courses (course_code, course_name) select 'C' || g, 'Course ' || g " +
+                "from generate_series(1, 20) g");
+        jdbcTemplate.execute("insert into students (first_name, last_name, is_active, class_id, session_id) " +
+                "select 'First' || g, 'Last' || g, true, g % 40 + 1, 1 from generate_series(1, 4000) g");
+        jdbcTemplate.execute("insert into periods (class_id, course_id, day_of_week, period_number, start_time, end_time) " +
+                "select c, (c + p) % 20 + 1, d, p, time '08:00', time '09:00' from generate_series(1, 40) c, " +
+                "unnest(array['MONDAY','TUESDAY','WEDNESDAY','THURSDAY','FRIDAY']) d, generate_series(1, 5) p");
+        attendancePartitionService.ensurePartitions(FROM, FROM.plusDays(59));
+        jdbcTemplate.execute("insert into attendance (student_id, class_id, course_id, period_id, attendance_date, present) " +
+                "select s.id, s.class_id, p.course_id, p.id, date '2024-01-01' + d, d % 7 <> 0 from students s " +
+                "join periods p on p.class_id = s.class_id and p.day_of_week = 'MONDAY' and p.period_number = 1 " +
+                "cross join generate_series(0, 59) d");
+        jdbcTemplate.execute("insert into exam_results (student_id, class_id, course_id, exam_type, exam_date, marks_obtained, grade) " +
+                "select s.id, s.class_id, c, t, date '2024-03-01' + c, (s.id * 7 + c) % 100, 'B' from students s " +
+                "cross join generate_series(1, 5) c cross join unnest(array['Midterm','Final']) t");
+        jdbcTemplate.execute("analyze");
+        seeded = true;
+    }
+
+    // Attendance is partitioned by month: a January range must only touch January's partition,
+    // through that partition's copy of the index
+    @Test
+    void attendanceQueriesArePrunedToOnePartition() {
+        assertThat(assertPlanUses("attendance_p202401_student_id_attendance_date",
+                () -> attendanceRepository.findByStudentIdAndAttendanceDateBetween(42L, FROM, TO), 42L, FROM, TO))
+                .doesNotContain("attendance_p202402");
+        assertThat(assertPlanUses("attendance_p202401_class_id_attendance_date",
+                () -> attendanceRepository.findByClassAndDateRange(3L, FROM, TO), 3L, FROM, TO))
+                .doesNotContain("attendance_p202402");
+        assertThat(assertPlanUses("attendance_p202401_class_id_attendance_date",
+                () -> attendanceRepository.findBySchoolClassIdAndCourseIdAndPeriodIdAndAttendanceDate(3L, 4L, 5L, FROM),
+                3L, 4L, 5L, FROM))
+                .doesNotContain("attendance_p202402");
+    }
+
+    @Test
+    void examResultQueriesUseIndexes() {
+        Student student = studentRepository.findById(42L).orElseThrow();
+        assertPlanUses("idx_exam_results_student_date", () -> examResultRepository.findByStudent(student), 42L);
+        assertPlanUses("idx_exam_results_student_date", () -> examResultRepository.countByStudent(student), 42L);
+        assertPlanUses("exam_results_exam_student_key",
+                () -> examResultRepository.findStudentIdsWithResult(2L, "Final", FROM, List.of(1L, 2L, 3L)),
+                2L, "Final", FROM, 1L, 2L, 3L);
+    }
+
+    @Test
+    void studentQueriesUseIndexes() {
+        SchoolClass schoolClass = classRepository.findById(3L).orElseThrow();
+        assertPlanUses("idx_students_class_name", () -> studentRepository.findBySchoolClassId(3L), 3L);
+        assertPlanUses("idx_students_class_name", () -> studentRepository.countBySchoolClass(schoolClass), 3L);
+        assertPlanUses(List.of("idx_students_class_name", "students_pkey"),
+                () -> studentRepository.findIdsInClass(3L, List.of(43L, 83L)), 3L, 43L, 83L);
+    }
+
+    @Test
+    void periodQueriesUseIndexes() {
+        assertPlanUses("periods_class_id_day_of_week_period_number_key",
+                () -> periodRepository.findBySchoolClassIdAndDayOfWeekOrderByPeriodNumberAsc(3L, "MONDAY"), 3L, "MONDAY");
+        assertPlanUses("periods_class_id_day_of_week_period_number_key",
+                () -> periodRepository.findBySchoolClassIdOrderByPeriodNumberAsc(3L), 3L);
+    }
+
+    private String assertPlanUses(String index, Runnable query, Object... params) {
+        return assertPlanUses(List.of(index), query, params);
+    }
+
+    // Explains the first statement the query issues; later ones are eager association fetches
+    private String assertPlanUses(List<String> indexes, Runnable query, Object... params) {
+        CapturingInspector.STATEMENTS.clear();
+        query.run();
+        String sql = CapturingInspector.STATEMENTS.get(0);
+        String plan = explain(sql, params);
+        assertThat(plan).as("plan for %s%n%s", sql, plan).doesNotContain("Seq Scan");
+        assertThat(indexes).as("plan for %s%n%s", sql, plan).anyMatch(plan::contains);
+        return plan;
+    }
+
+    // PREPARE the captured statement and EXPLAIN EXECUTE it with the given parameter values
+    private String explain(String sql, Object... params) {
+        StringBuilder prepared = new StringBuilder();
+        int position = 0;
+        for (char c : sql.toCharArray()) {
+            prepared.append(c == '?' ? "$" + (++position) : String.valueOf(c));
+        }
+        assertThat(position).as("parameter count for %s", sql).isEqualTo(params.length);
+        List<String> literals = new ArrayList<>();
+        for (Object param : params) {
+            literals.add(param instanceof Number ? param.toString() : "'" + param + "'");
+        }
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set enable_seqscan = off");
+                statement.execute("prepare plan_check as " + prepared);
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery("explain execute plan_check(" + String.join(", ", literals) + ")")) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                statement.execute("deallocate plan_check");
+                statement.execute("reset enable_seqscan");
+                return plan.toString();
+            }
+        });
+    }
+}
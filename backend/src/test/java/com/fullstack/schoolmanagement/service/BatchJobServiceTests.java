@@ -0,0 +1,183 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fullstack.schoolmanagement.dto.BatchJobDTO;
+import com.fullstack.schoolmanagement.job.BatchJobHandler;
+import com.fullstack.schoolmanagement.tenant.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.seed.enabled=false",
+        "app.jobs.poll-interval-ms=100",
+        "app.jobs.stale-after-ms=500"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class BatchJobServiceTests {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    /** Counts from 0 to params.size two units per chunk; the second chunk can be held at a gate. */
+    static class CountingHandler implements BatchJobHandler {
+        final List<Integer> starts = new CopyOnWriteArrayList<>();
+        final List<String> stops = new CopyOnWriteArrayList<>();
+        volatile CountDownLatch atGate;
+        volatile CountDownLatch gate;
+
+        @Override
+        public String type() {
+            return "test-count";
+        }
+
+        @Override
+        public Chunk runChunk(JsonNode params, JsonNode checkpoint) {
+            int size = params.get("size").asInt();
+            int next = checkpoint != null ? checkpoint.get("next").asInt() : 0;
+            starts.add(next);
+            if (gate != null && starts.size() == 2) {
+                atGate.countDown();
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            int end = Math.min(next + 2, size);
+            return new Chunk(JsonNodeFactory.instance.objectNode().put("next", end), end - next, (long) size, end == size);
+        }
+
+        @Override
+        public void stopped(JsonNode params, String status, String error) {
+            stops.add(status);
+        }
+    }
+
+    @TestConfiguration
+    static class Handlers {
+        @Bean
+        CountingHandler countingHandler() {
+            return new CountingHandler();
+        }
+    }
+
+    @Autowired
+    private BatchJobService batchJobService;
+    @Autowired
+    private CountingHandler handler;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void reset() {
+        handler.starts.clear();
+        handler.stops.clear();
+        handler.atGate = null;
+        handler.gate = null;
+        jdbcTemplate.update("DELETE FROM batch_jobs");
+    }
+
+    @Test
+    void jobsRunInChunksToCompletion() throws InterruptedException {
+        BatchJobDTO job = batchJobService.submit("test-count", Map.of("size", 5));
+
+        BatchJobDTO done = awaitStatus(job.getId(), "COMPLETED");
+        assertThat(handler.starts).containsExactly(0, 2, 4);
+        assertThat(done.getProcessed()).isEqualTo(5);
+        assertThat(done.getTotal()).isEqualTo(5L);
+        assertThat(done.getChunks()).isEqualTo(3);
+    }
+
+    @Test
+    void orphanedJobsResumeFromTheirCheckpoint() throws InterruptedException {
+        // Left RUNNING by a node that died after its third chunk
+        Long id = jdbcTemplate.queryForObject("INSERT INTO batch_jobs (type, params, status, checkpoint, processed, " +
+                "chunks, started_at, updated_at) VALUES ('test-count', '{\"size\":10}', 'RUNNING', '{\"next\":6}', 6, 3, " +
+                "now(), now() - interval '1 hour') RETURNING id", Long.class);
+
+        BatchJobDTO done = awaitStatus(id, "COMPLETED");
+        assertThat(handler.starts).containsExactly(6, 8);
+        assertThat(done.getProcessed()).isEqualTo(10);
+        assertThat(done.getChunks()).isEqualTo(5);
+    }
+
+    @Test
+    void cancelledJobsStopBeforeTheirNextChunk() throws InterruptedException {
+        handler.atGate = new CountDownLatch(1);
+        handler.gate = new CountDownLatch(1);
+        BatchJobDTO job = batchJobService.submit("test-count", Map.of("size", 10));
+        assertThat(handler.atGate.await(10, TimeUnit.SECONDS)).isTrue();
+
+        batchJobService.cancel(job.getId());
+        handler.gate.countDown();
+
+        BatchJobDTO cancelled = awaitStatus(job.getId(), "CANCELLED");
+        // The chunk running when the job was cancelled still commits
+        assertThat(handler.starts).containsExactly(0, 2);
+        assertThat(cancelled.getProcessed()).isEqualTo(4);
+        assertThat(cancelled.getCheckpoint()).isEqualTo("{\"next\":4}");
+        assertThat(handler.stops).containsExactly("CANCELLED");
+    }
+
+    @Test
+    void chunksWaitForTheNodeHoldingTheJobLock() throws Exception {
+        Long id = jdbcTemplate.queryForObject("INSERT INTO batch_jobs (type, params, status) " +
+                "VALUES ('test-count', '{\"size\":4}', 'QUEUED') RETURNING id", Long.class);
+
+        // Another node in the middle of a chunk of this job
+        try (Connection otherNode = dataSource.getConnection()) {
+            otherNode.setAutoCommit(false);
+            try (PreparedStatement lock = otherNode.prepareStatement(
+                    "SELECT pg_advisory_xact_lock(hashtext('batch_jobs:' || ?), CAST(? AS integer))")) {
+                lock.setString(1, TenantContext.DEFAULT);
+                lock.setLong(2, id);
+                lock.execute();
+            }
+            awaitStatus(id, "RUNNING");
+            Thread.sleep(300);
+            assertThat(handler.starts).isEmpty();
+            assertThat(batchJobService.getJob(id).getChunks()).isZero();
+            otherNode.rollback();
+        }
+
+        // Nobody advances it any more, so a poll takes it over once it is stale
+        BatchJobDTO done = awaitStatus(id, "COMPLETED");
+        assertThat(handler.starts).containsExactly(0, 2);
+        assertThat(done.getProcessed()).isEqualTo(4);
+    }
+
+    private BatchJobDTO awaitStatus(Long id, String status) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            BatchJobDTO job = batchJobService.getJob(id);
+            if (status.equals(job.getStatus())) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Job " + id + " did not reach " + status + ": " + batchJobService.getJob(id));
+    }
+}
@@ -0,0 +1,142 @@
+package com.fullstack.schoolmanagement.service;
+
+import com.fullstack.schoolmanagement.outbox.AttendanceMarked;
+import com.fullstack.schoolmanagement.outbox.OutboxConsumer;
+import com.fullstack.schoolmanagement.outbox.OutboxEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.seed.enabled=false",
+        "app.outbox.poll-interval-ms=100",
+        "app.outbox.retry-backoff-ms=50",
+        "app.outbox.max-attempts=3"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxServiceTests {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    /** Fails its first {@code failures} calls, then records the events it handles. */
+    static class FlakyConsumer implements OutboxConsumer {
+        final AtomicInteger handled = new AtomicInteger();
+        volatile int failures;
+
+        @Override
+        public String name() {
+            return "test-flaky";
+        }
+
+        @Override
+        public Set<Class<? extends OutboxEvent>> eventTypes() {
+            return Set.of(AttendanceMarked.class);
+        }
+
+        @Override
+        public void handle(OutboxEvent event) {
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("simulated failure");
+            }
+            handled.incrementAndGet();
+        }
+    }
+
+    @TestConfiguration
+    static class Consumers {
+        @Bean
+        FlakyConsumer flakyConsumer() {
+            return new FlakyConsumer();
+        }
+    }
+
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private FlakyConsumer consumer;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void reset() {
+        consumer.handled.set(0);
+        consumer.failures = 0;
+        jdbcTemplate.update("DELETE FROM outbox_dead_letters");
+    }
+
+    @Test
+    void eventsOfRolledBackTransactionsAreNeverDelivered() throws InterruptedException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            outboxService.publish(event());
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status -> outboxService.publish(event()));
+
+        awaitEmptyOutbox();
+        assertThat(consumer.handled.get()).isEqualTo(1);
+    }
+
+    @Test
+    void failedEventsAreRetriedAndThenDeadLettered() throws InterruptedException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        consumer.failures = 2;
+        transaction.executeWithoutResult(status -> outboxService.publish(event()));
+        awaitEmptyOutbox();
+        assertThat(consumer.handled.get()).isEqualTo(1);
+
+        consumer.failures = 3;
+        transaction.executeWithoutResult(status -> outboxService.publish(event()));
+        awaitEmptyOutbox();
+        assertThat(consumer.handled.get()).isEqualTo(1);
+        assertThat(outboxService.getDeadLetters()).hasSize(1);
+        assertThat(outboxService.getDeadLetters().get(0).get("attempts")).isEqualTo(3);
+
+        Long id = (Long) outboxService.getDeadLetters().get(0).get("id");
+        outboxService.retryDeadLetter(id);
+        awaitEmptyOutbox();
+        assertThat(consumer.handled.get()).isEqualTo(2);
+        assertThat(outboxService.getDeadLetters()).isEmpty();
+    }
+
+    private static AttendanceMarked event() {
+        return new AttendanceMarked(1L, 1L, 1L, LocalDate.now(), 1L,
+                List.of(new AttendanceMarked.Mark(1L, 1L, true, null)));
+    }
+
+    private void awaitEmptyOutbox() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Integer pending = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM outbox_events WHERE consumer = 'test-flaky'", Integer.class);
+            if (pending == 0) {
+                // Let the consumer thread finish after its row is gone
+                Thread.sleep(100);
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Outbox was not drained");
+    }
+}
@@ -0,0 +1,95 @@
+package com.fullstack.schoolmanagement.tenant;
+
+import com.fullstack.schoolmanagement.dto.TenantRequest;
+import com.fullstack.schoolmanagement.entity.Course;
+import com.fullstack.schoolmanagement.repository.CourseRepository;
+import com.fullstack.schoolmanagement.service.TenantService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {"app.seed.enabled=false", "spring.jpa.show-sql=false"})
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MultiTenancyTests {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private TenantService tenantService;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    void provisionTenants() {
+        for (String id : List.of("north", "south")) {
+            TenantRequest request = new TenantRequest();
+            request.setId(id);
+            request.setName(id + " school");
+            request.setAdminEmail("admin@" + id + ".edu");
+            request.setAdminPassword("secret");
+            tenantService.provision(request);
+        }
+    }
+
+    @Test
+    void eachTenantHasItsOwnData() {
+        TenantContext.run("north", () -> courseRepository.save(course("MATH101", "North maths")));
+        // Unique only within a school
+        TenantContext.run("south", () -> courseRepository.save(course("MATH101", "South maths")));
+
+        assertThat(TenantContext.call("north", () -> courseRepository.findAll()))
+                .extracting(Course::getCourseName).containsExactly("North maths");
+        assertThat(TenantContext.call("south", () -> courseRepository.findAll()))
+                .extracting(Course::getCourseName).containsExactly("South maths");
+        assertThat(courseRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void jdbcSharesTheTenantOfTheTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        String schema = TenantContext.call("south", () -> transaction.execute(status -> {
+            courseRepository.count();
+            return jdbcTemplate.queryForObject("SELECT current_schema()", String.class);
+        }));
+        assertThat(schema).isEqualTo("south");
+        assertThat(jdbcTemplate.queryForObject("SELECT current_schema()", String.class)).isEqualTo("public");
+    }
+
+    @Test
+    void tenantsAreRegistered() {
+        assertThat(tenantService.getTenants()).containsExactly("public", "north", "south");
+        assertThat(tenantService.isKnown("west")).isFalse();
+        TenantRequest duplicate = new TenantRequest();
+        duplicate.setId("north");
+        duplicate.setName("again");
+        assertThatThrownBy(() -> tenantService.provision(duplicate)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static Course course(String code, String name) {
+        Course course = new Course();
+        course.setCourseCode(code);
+        course.setCourseName(name);
+        return course;
+    }
+}
@@ -9,6 +9,10 @@ const instance = axios.create({
 instance.interceptors.request.use((config) => {
     // Try localStorage first, then sessionStorage as fallback
     const token = localStorage.getItem("token") || sessionStorage.getItem("token");
+    // Deployments serving one school of a shared backend pick it here; tokens carry it afterwards
+    if (import.meta.env.VITE_TENANT_ID) {
+        config.headers["X-Tenant-ID"] = import.meta.env.VITE_TENANT_ID;
+    }
     if (token) {
         config.headers.Authorization = `Bearer ${token}`;
         console.log("Request with token:", config.url);
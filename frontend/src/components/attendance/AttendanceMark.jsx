@@ -92,7 +92,8 @@ const AttendanceMark = () => {
             response.data.forEach(record => {
                 existingAttendance[record.studentId] = {
                     present: record.present,
-                    remarks: record.remarks || ''
+                    remarks: record.remarks || '',
+                    version: record.version
                 };
             });
             setAttendance(prev => ({ ...prev, ...existingAttendance }));
@@ -133,11 +134,20 @@ const AttendanceMark = () => {
                 students: Object.entries(attendance).map(([studentId, data]) => ({
                     studentId: parseInt(studentId),
                     present: data.present,
-                    remarks: data.remarks
+                    remarks: data.remarks,
+                    version: data.version
                 }))
             };
 
-            await axios.post('/attendance/mark', attendanceData);
+            const response = await axios.post('/attendance/mark', attendanceData);
+            // Later submits must carry the versions just written
+            setAttendance(prev => {
+                const next = { ...prev };
+                response.data.forEach(record => {
+                    next[record.studentId] = { ...next[record.studentId], version: record.version };
+                });
+                return next;
+            });
             setSuccess('Attendance marked successfully!');
             setTimeout(() => setSuccess(''), 3000);
         } catch (err) {
@@ -111,9 +111,9 @@ const StudentDashboard = () => {
 
     // Render the dashboard content once data is loaded successfully
     const student = stats.student || {};
-    const userId = student.user && student.user.userId ? student.user.userId : '-';
+    const userId = student.userId || '-';
     const name = student.firstName && student.lastName ? `${student.firstName} ${student.lastName}` : (student.firstName || student.lastName ? `${student.firstName || ''}${student.lastName || ''}` : '-');
-    const className = student.schoolClass && student.schoolClass.name ? student.schoolClass.name : '-';
+    const className = student.className || '-';
     const registeredYear = student.admissionDate ? new Date(student.admissionDate).getFullYear() : '-';
 
     return (
@@ -112,7 +112,8 @@ export default function ExamResultFormModal({ isOpen, onClose, onSuccess, editDa
                 marksObtained: parseFloat(marks),
             };
             if (isEditMode) {
-                await axios.put(`/exam-results/${editData.id}`, payload);
+                // A result changed by someone else since it was loaded is rejected with 409
+                await axios.put(`/exam-results/${editData.id}`, { ...payload, version: editData.version });
             } else {
                 await axios.post('/exam-results', payload);
             }
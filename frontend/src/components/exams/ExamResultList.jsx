@@ -70,7 +70,19 @@ const ExamResultList = () => {
         try {
             let response;
             if (user && user.role === 'ROLE_STUDENT') {
-                response = await axios.get('/exam-results/mine');
+                const [mine, ranks] = await Promise.all([
+                    axios.get('/exam-results/mine'),
+                    axios.get('/exam-results/mine/ranks').catch(() => ({ data: [] })),
+                ]);
+                // Attach class rank to each result (an exam is course + type + date for the student's class)
+                const rankByExam = new Map((Array.isArray(ranks.data) ? ranks.data : [])
+                    .map(r => [`${r.courseName}|${r.examType}|${r.examDate}`, r]));
+                response = {
+                    data: (Array.isArray(mine.data) ? mine.data : []).map(r => {
+                        const rank = rankByExam.get(`${r.courseName}|${r.examType}|${r.examDate}`);
+                        return rank ? { ...r, classRank: `${rank.rank} / ${rank.cohortSize} (${rank.percentile}%)` } : r;
+                    }),
+                };
             } else {
                 response = await axios.get('/exam-results');
             }
@@ -221,8 +233,9 @@ const ExamResultList = () => {
         { header: 'Date', accessor: 'examDate', render: row => new Date(row.examDate).toLocaleDateString(), sortable: true },
         { header: 'Marks', accessor: 'marksObtained', sortable: true },
         { header: 'Grade', accessor: 'grade', sortable: true },
+        ...(user?.role === 'ROLE_STUDENT' ? [{ header: 'Class Rank', accessor: 'classRank', render: row => row.classRank || '-' }] : []),
         { header: 'Actions', render: createActions },
-    ], []);
+    ], [user]);
 
     // Get data for printing based on filters
     const getPrintData = () => {
@@ -483,7 +496,7 @@ const ExamResultList = () => {
                                     <table className="min-w-full text-xs sm:text-sm">
                                         <thead>
                                             <tr>
-                                                {['Course', 'Exam Type', 'Date', 'Marks', 'Grade', 'Actions'].map(header => (
+                                                {['Course', 'Exam Type', 'Date', 'Marks', 'Grade', ...(user?.role === 'ROLE_STUDENT' ? ['Class Rank'] : []), 'Actions'].map(header => (
                                                     <th key={header} className="px-2 sm:px-3 py-2 text-left font-semibold text-gray-600 dark:text-gray-300 uppercase tracking-wider">{header}</th>
                                                 ))}
                                             </tr>
@@ -496,6 +509,9 @@ const ExamResultList = () => {
                                                     <td className="px-2 sm:px-3 py-2 sm:py-3 text-gray-700 dark:text-gray-300">{new Date(result.examDate).toLocaleDateString()}</td>
                                                     <td className="px-2 sm:px-3 py-2 sm:py-3 font-medium text-gray-800 dark:text-gray-200">{result.marksObtained}</td>
                                                     <td className="px-2 sm:px-3 py-2 sm:py-3 text-gray-700 dark:text-gray-300">{result.grade}</td>
+                                                    {user?.role === 'ROLE_STUDENT' && (
+                                                        <td className="px-2 sm:px-3 py-2 sm:py-3 text-gray-700 dark:text-gray-300">{result.classRank || '-'}</td>
+                                                    )}
                                                     <td className="px-2 sm:px-3 py-2 sm:py-3">{createActions(result)}</td>
                                                 </tr>
                                             ))}